@@ -13,16 +13,23 @@ import com.jdroid.android.debug.appenders.LogsDebugPrefsAppender;
 import com.jdroid.android.debug.appenders.NavDrawerDebugPrefsAppender;
 import com.jdroid.android.debug.appenders.NotificationsDebugPrefsAppender;
 import com.jdroid.android.debug.appenders.RateAppDebugPrefsAppender;
+import com.jdroid.android.debug.appenders.ResilienceDebugPrefsAppender;
 import com.jdroid.android.debug.appenders.ServersDebugPrefsAppender;
 import com.jdroid.android.debug.appenders.UriMapperPrefsAppender;
+import com.jdroid.android.debug.appenders.UseCaseMetricsDebugPrefsAppender;
 import com.jdroid.android.debug.appenders.UsageStatsDebugPrefsAppender;
 import com.jdroid.android.debug.mocks.AndroidJsonMockHttpService;
 import com.jdroid.android.log.DatabaseLog;
+import com.jdroid.android.log.DatabaseLogsColumns;
 import com.jdroid.android.log.DatabaseLogsRepository;
+import com.jdroid.android.sqlite.AddColumnsUpgradeStep;
+import com.jdroid.android.sqlite.EpochMillisDateUpgradeStep;
 import com.jdroid.android.sqlite.SQLiteHelper;
+import com.jdroid.android.utils.AppUtils;
 import com.jdroid.android.utils.SharedPreferencesHelper;
 import com.jdroid.java.collections.Lists;
 import com.jdroid.java.collections.Maps;
+import com.jdroid.java.date.DateTimeFormat;
 import com.jdroid.java.domain.Identifiable;
 import com.jdroid.java.http.Server;
 import com.jdroid.java.http.mock.AbstractMockHttpService;
@@ -58,7 +65,15 @@ public class DebugContext {
 	public void initDebugRepositories(
 			Map<Class<? extends Identifiable>, Repository<? extends Identifiable>> repositories, SQLiteHelper dbHelper) {
 		if (AbstractApplication.get().isDebugLogRepositoryEnabled() && !AbstractApplication.get().getAppContext().isProductionEnvironment()) {
-			repositories.put(DatabaseLog.class, new DatabaseLogsRepository(dbHelper));
+			DatabaseLogsRepository databaseLogsRepository = new DatabaseLogsRepository(dbHelper);
+			repositories.put(DatabaseLog.class, databaseLogsRepository);
+			// The dateTime column was stored as TEXT on previous versions
+			dbHelper.addUpgradeStep(new EpochMillisDateUpgradeStep(AppUtils.getVersionCode(), DatabaseLogsRepository.TABLE_NAME,
+					databaseLogsRepository.getCreateTableSQL(), DateTimeFormat.YYYYMMDDHHMMSSSSS,
+					DatabaseLogsColumns.DATE_TIME.getColumnName()));
+			dbHelper.addUpgradeStep(new AddColumnsUpgradeStep(AppUtils.getVersionCode(), DatabaseLogsRepository.TABLE_NAME,
+					DatabaseLogsColumns.LEVEL, DatabaseLogsColumns.LOGGER_NAME, DatabaseLogsColumns.THREAD_NAME,
+					DatabaseLogsColumns.THROWABLE));
 		}
 	}
 
@@ -122,6 +137,14 @@ public class DebugContext {
 		return new NotificationsDebugPrefsAppender();
 	}
 
+	public UseCaseMetricsDebugPrefsAppender createUseCaseMetricsDebugPrefsAppender() {
+		return new UseCaseMetricsDebugPrefsAppender();
+	}
+
+	public ResilienceDebugPrefsAppender createResilienceDebugPrefsAppender() {
+		return new ResilienceDebugPrefsAppender();
+	}
+
 	public List<PreferencesAppender> getCustomPreferencesAppenders() {
 		return Lists.newArrayList();
 	}
@@ -35,6 +35,8 @@ public class DebugSettingsFragment extends AbstractRecyclerFragment {
 		addAppender(appenders, debugContext.createUsageStatsDebugPrefsAppender());
 		addAppender(appenders, debugContext.createUriMapperPrefsAppender());
 		addAppender(appenders, debugContext.createNotificationsDebugPrefsAppender());
+		addAppender(appenders, debugContext.createUseCaseMetricsDebugPrefsAppender());
+		addAppender(appenders, debugContext.createResilienceDebugPrefsAppender());
 
 		for (PreferencesAppender preferencesAppender : DebugSettingsHelper.getPreferencesAppenders()) {
 			addAppender(appenders, preferencesAppender);
@@ -11,17 +11,27 @@ import android.preference.PreferenceGroup;
 import com.jdroid.android.R;
 import com.jdroid.android.application.AbstractApplication;
 import com.jdroid.android.debug.PreferencesAppender;
+import com.jdroid.android.repository.CachedRepository;
 import com.jdroid.android.sqlite.SQLiteHelper;
+import com.jdroid.android.sqlite.repository.SQLiteRepository;
 import com.jdroid.android.utils.AppUtils;
+import com.jdroid.java.concurrent.ExecutorUtils;
+import com.jdroid.java.domain.Identifiable;
 import com.jdroid.java.exception.UnexpectedException;
 import com.jdroid.java.http.MimeType;
+import com.jdroid.java.repository.Repository;
 import com.jdroid.java.utils.FileUtils;
+import com.jdroid.java.utils.LoggerUtils;
+
+import org.slf4j.Logger;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 
 public class DatabaseDebugPrefsAppender extends PreferencesAppender {
+	
+	private static final Logger LOGGER = LoggerUtils.getLogger(DatabaseDebugPrefsAppender.class);
 
 	@Override
 	public int getNameResId() {
@@ -56,6 +66,33 @@ public class DatabaseDebugPrefsAppender extends PreferencesAppender {
 			}
 		});
 		preferenceGroup.addPreference(preference);
+		
+		preference = new Preference(activity);
+		preference.setTitle(R.string.jdroid_analyzeQueryPlans);
+		preference.setSummary(R.string.jdroid_analyzeQueryPlansDescription);
+		preference.setOnPreferenceClickListener(new OnPreferenceClickListener() {
+			
+			@Override
+			public boolean onPreferenceClick(Preference preference) {
+				ExecutorUtils.execute(new Runnable() {
+					
+					@Override
+					public void run() {
+						for (Repository<? extends Identifiable> each : AbstractApplication.get().getRepositories()) {
+							Repository<? extends Identifiable> repository = CachedRepository.unwrap(each);
+							if (repository instanceof SQLiteRepository) {
+								for (String warning : ((SQLiteRepository<?>)repository).getQueryPlanWarnings()) {
+									LOGGER.warn(warning);
+								}
+							}
+						}
+						LOGGER.info("Query plans analysis finished");
+					}
+				});
+				return true;
+			}
+		});
+		preferenceGroup.addPreference(preference);
 	}
 	
 	@Override
@@ -0,0 +1,65 @@
+package com.jdroid.android.debug.appenders;
+
+import android.app.Activity;
+import android.preference.Preference;
+import android.preference.Preference.OnPreferenceClickListener;
+import android.preference.PreferenceGroup;
+
+import com.jdroid.android.R;
+import com.jdroid.android.application.AbstractApplication;
+import com.jdroid.android.date.AndroidDateUtils;
+import com.jdroid.android.debug.PreferencesAppender;
+import com.jdroid.android.usecase.resilience.Bulkhead;
+import com.jdroid.android.usecase.resilience.CircuitBreaker;
+import com.jdroid.android.usecase.resilience.CircuitBreakerTransition;
+import com.jdroid.android.usecase.resilience.ResilienceRegistry;
+
+public class ResilienceDebugPrefsAppender extends PreferencesAppender {
+	
+	@Override
+	public int getNameResId() {
+		return R.string.jdroid_resilience;
+	}
+	
+	@Override
+	public void initPreferences(Activity activity, PreferenceGroup preferenceGroup) {
+		
+		final ResilienceRegistry registry = AbstractApplication.get().getResilienceRegistry();
+		
+		Preference preference = new Preference(activity);
+		preference.setTitle(R.string.jdroid_closeCircuitBreakers);
+		preference.setSummary(R.string.jdroid_closeCircuitBreakersDescription);
+		preference.setOnPreferenceClickListener(new OnPreferenceClickListener() {
+			
+			@Override
+			public boolean onPreferenceClick(Preference preference) {
+				registry.reset();
+				return true;
+			}
+		});
+		preferenceGroup.addPreference(preference);
+		
+		for (CircuitBreaker each : registry.getCircuitBreakers()) {
+			preference = new Preference(activity);
+			preference.setTitle(each.getName());
+			preference.setSummary(activity.getString(R.string.jdroid_circuitBreakerSummary, each.getState(),
+				each.getConsecutiveFailures(), each.getFailureThreshold()));
+			preferenceGroup.addPreference(preference);
+		}
+		
+		for (Bulkhead each : registry.getBulkheads()) {
+			preference = new Preference(activity);
+			preference.setTitle(each.getName());
+			preference.setSummary(activity.getString(R.string.jdroid_bulkheadSummary, each.getActiveCalls(),
+				each.getMaxConcurrentCalls()));
+			preferenceGroup.addPreference(preference);
+		}
+		
+		for (CircuitBreakerTransition each : registry.getTransitions()) {
+			preference = new Preference(activity);
+			preference.setTitle(each.toString());
+			preference.setSummary(AndroidDateUtils.formatDate(each.getDate()) + " " + AndroidDateUtils.formatTime(each.getDate()));
+			preferenceGroup.addPreference(preference);
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package com.jdroid.android.debug.appenders;
+
+import android.app.Activity;
+import android.content.Intent;
+import android.net.Uri;
+import android.os.Environment;
+import android.preference.Preference;
+import android.preference.Preference.OnPreferenceClickListener;
+import android.preference.PreferenceGroup;
+
+import com.jdroid.android.R;
+import com.jdroid.android.application.AbstractApplication;
+import com.jdroid.android.debug.PreferencesAppender;
+import com.jdroid.android.usecase.metrics.UseCaseMetrics;
+import com.jdroid.android.usecase.metrics.UseCaseMetricsRegistry;
+import com.jdroid.android.utils.AppUtils;
+import com.jdroid.java.http.MimeType;
+
+import java.io.File;
+
+public class UseCaseMetricsDebugPrefsAppender extends PreferencesAppender {
+	
+	@Override
+	public int getNameResId() {
+		return R.string.jdroid_useCaseMetrics;
+	}
+	
+	@Override
+	public void initPreferences(final Activity activity, PreferenceGroup preferenceGroup) {
+		
+		final UseCaseMetricsRegistry registry = AbstractApplication.get().getUseCaseMetricsRegistry();
+		
+		Preference preference = new Preference(activity);
+		preference.setTitle(R.string.jdroid_exportUseCaseMetrics);
+		preference.setSummary(R.string.jdroid_exportUseCaseMetricsDescription);
+		preference.setOnPreferenceClickListener(new OnPreferenceClickListener() {
+			
+			@Override
+			public boolean onPreferenceClick(Preference preference) {
+				File dir = Environment.getExternalStoragePublicDirectory(Environment.DIRECTORY_DOWNLOADS);
+				dir.mkdirs();
+				
+				File file = new File(dir, AppUtils.getApplicationName() + "-useCaseMetrics.json");
+				registry.export(file);
+				Intent intent = new Intent(Intent.ACTION_SEND);
+				intent.putExtra(Intent.EXTRA_STREAM, Uri.fromFile(file));
+				intent.setType(MimeType.JSON);
+				activity.startActivity(intent);
+				return true;
+			}
+		});
+		preferenceGroup.addPreference(preference);
+		
+		preference = new Preference(activity);
+		preference.setTitle(R.string.jdroid_reset);
+		preference.setSummary(R.string.jdroid_resetUseCaseMetricsDescription);
+		preference.setOnPreferenceClickListener(new OnPreferenceClickListener() {
+			
+			@Override
+			public boolean onPreferenceClick(Preference preference) {
+				registry.reset();
+				return true;
+			}
+		});
+		preferenceGroup.addPreference(preference);
+		
+		for (UseCaseMetrics each : registry.getAllMetrics()) {
+			preference = new Preference(activity);
+			preference.setTitle(each.getUseCaseName());
+			preference.setSummary(activity.getString(R.string.jdroid_useCaseMetricsSummary, each.getExecution(),
+				each.getFailuresCount(), each.getQueueWait(), each.getNotification()));
+			preferenceGroup.addPreference(preference);
+		}
+	}
+}
@@ -4,6 +4,8 @@ import android.app.Activity;
 import android.app.Application;
 import android.os.Bundle;
 
+import com.jdroid.android.application.AbstractApplication;
+
 public class ActivityLifecycleHandler implements Application.ActivityLifecycleCallbacks {
 
 	private int numStarted;
@@ -16,6 +18,9 @@ public class ActivityLifecycleHandler implements Application.ActivityLifecycleCa
 	@Override
 	public void onActivityStarted(Activity activity) {
 		numStarted++;
+		if (numStarted == 1) {
+			AbstractApplication.get().getUseCaseExecutorRegistry().setInBackground(false);
+		}
 	}
 
 	@Override
@@ -31,6 +36,9 @@ public class ActivityLifecycleHandler implements Application.ActivityLifecycleCa
 	@Override
 	public void onActivityStopped(Activity activity) {
 		numStarted--;
+		if (numStarted == 0) {
+			AbstractApplication.get().getUseCaseExecutorRegistry().setInBackground(true);
+		}
 	}
 
 	@Override
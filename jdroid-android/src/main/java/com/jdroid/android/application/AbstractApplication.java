@@ -31,10 +31,17 @@ import com.jdroid.android.firebase.testlab.FirebaseTestLab;
 import com.jdroid.android.fragment.FragmentHelper;
 import com.jdroid.android.http.cache.CacheManager;
 import com.jdroid.android.leakcanary.LeakCanaryHelper;
+import com.jdroid.android.log.DatabaseLogRetentionPolicy;
+import com.jdroid.android.log.DatabaseLogSink;
+import com.jdroid.android.repository.CachedRepository;
 import com.jdroid.android.repository.UserRepository;
 import com.jdroid.android.sqlite.SQLiteHelper;
+import com.jdroid.android.sqlite.SQLitePerformanceProfile;
 import com.jdroid.android.sqlite.SQLiteUpgradeStep;
 import com.jdroid.android.uri.UriMapper;
+import com.jdroid.android.usecase.executor.UseCaseExecutorRegistry;
+import com.jdroid.android.usecase.metrics.UseCaseMetricsRegistry;
+import com.jdroid.android.usecase.resilience.ResilienceRegistry;
 import com.jdroid.android.utils.AppUtils;
 import com.jdroid.android.utils.ProcessUtils;
 import com.jdroid.android.utils.SharedPreferencesHelper;
@@ -54,6 +61,7 @@ import com.jdroid.java.utils.StringUtils;
 import org.slf4j.Logger;
 
 import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -99,6 +107,12 @@ public abstract class AbstractApplication extends Application {
 
 	private HttpServiceFactory httpServiceFactory;
 	
+	private volatile DatabaseLogSink databaseLogSink;
+	
+	private volatile UseCaseExecutorRegistry useCaseExecutorRegistry;
+	private volatile UseCaseMetricsRegistry useCaseMetricsRegistry;
+	private volatile ResilienceRegistry resilienceRegistry;
+	
 	public AbstractApplication() {
 		INSTANCE = this;
 	}
@@ -511,11 +525,32 @@ public abstract class AbstractApplication extends Application {
 		initRepositories(repositories);
 		
 		if (isDatabaseEnabled()) {
-			SQLiteHelper dbHelper = new SQLiteHelper(this);
+			SQLiteHelper dbHelper = new SQLiteHelper(this, getSQLitePerformanceProfile());
 			getDebugContext().initDebugRepositories(repositories, dbHelper);
 			initDatabaseRepositories(repositories, dbHelper);
 			dbHelper.addUpgradeSteps(getSQLiteUpgradeSteps());
 		}
+		
+		for (Map.Entry<Class<? extends Identifiable>, Repository<? extends Identifiable>> entry : repositories.entrySet()) {
+			Integer cacheSize = getRepositoryCacheSize(entry.getKey());
+			if ((cacheSize != null) && !(entry.getValue() instanceof CachedRepository)) {
+				entry.setValue(createCachedRepository(entry.getValue(), cacheSize));
+			}
+		}
+	}
+	
+	private <T extends Identifiable> CachedRepository<T> createCachedRepository(Repository<T> repository, int cacheSize) {
+		return new CachedRepository<>(repository, cacheSize);
+	}
+	
+	/**
+	 * Override this method to cache the most recently used entities of a repository using a {@link CachedRepository}.
+	 * 
+	 * @param entityClass the class of the repository entities.
+	 * @return the max amount of entities to cache, or null to not cache them.
+	 */
+	protected Integer getRepositoryCacheSize(Class<? extends Identifiable> entityClass) {
+		return null;
 	}
 	
 	protected void initRepositories(Map<Class<? extends Identifiable>, Repository<? extends Identifiable>> repositories) {
@@ -531,6 +566,14 @@ public abstract class AbstractApplication extends Application {
 		return false;
 	}
 	
+	/**
+	 * @return the connection settings used to open the database when {@link #isDatabaseEnabled()} is true. For example,
+	 * {@link SQLitePerformanceProfile#createConcurrentProfile()} enables the write-ahead logging.
+	 */
+	protected SQLitePerformanceProfile getSQLitePerformanceProfile() {
+		return new SQLitePerformanceProfile();
+	}
+	
 	protected List<SQLiteUpgradeStep> getSQLiteUpgradeSteps() {
 		return Lists.newArrayList();
 	}
@@ -539,10 +582,101 @@ public abstract class AbstractApplication extends Application {
 		return false;
 	}
 	
+	/**
+	 * @return the sink used by the {@link com.jdroid.android.log.DatabaseLogger}s to write the logs on the database.
+	 */
+	protected DatabaseLogSink createDatabaseLogSink() {
+		return new DatabaseLogSink();
+	}
+	
+	/**
+	 * @return the limits applied to the persisted logs, or null to keep all of them. By default all the logs are kept;
+	 * return a {@link DatabaseLogRetentionPolicy} to apply its default limits. It is invoked on the logs writer thread.
+	 */
+	public DatabaseLogRetentionPolicy getDatabaseLogRetentionPolicy() {
+		return null;
+	}
+	
+	/**
+	 * @return the registry with the executors of each {@link com.jdroid.android.usecase.executor.UseCaseCategory}.
+	 */
+	protected UseCaseExecutorRegistry createUseCaseExecutorRegistry() {
+		return new UseCaseExecutorRegistry();
+	}
+	
+	/**
+	 * @return the registry with the executors of each use case category. It is invoked on each execution, so it only
+	 * locks until the registry is created.
+	 */
+	public UseCaseExecutorRegistry getUseCaseExecutorRegistry() {
+		if (useCaseExecutorRegistry == null) {
+			synchronized (AbstractApplication.class) {
+				if (useCaseExecutorRegistry == null) {
+					UseCaseExecutorRegistry registry = createUseCaseExecutorRegistry();
+					registry.setInBackground(isInBackground());
+					useCaseExecutorRegistry = registry;
+				}
+			}
+		}
+		return useCaseExecutorRegistry;
+	}
+	
+	protected UseCaseMetricsRegistry createUseCaseMetricsRegistry() {
+		return new UseCaseMetricsRegistry();
+	}
+	
+	/**
+	 * @return the registry with the execution metrics of each use case. It is invoked on each execution, so it only
+	 * locks until the registry is created.
+	 */
+	public UseCaseMetricsRegistry getUseCaseMetricsRegistry() {
+		if (useCaseMetricsRegistry == null) {
+			synchronized (AbstractApplication.class) {
+				if (useCaseMetricsRegistry == null) {
+					useCaseMetricsRegistry = createUseCaseMetricsRegistry();
+				}
+			}
+		}
+		return useCaseMetricsRegistry;
+	}
+	
+	/**
+	 * @return the registry with the circuit breakers and bulkheads of each {@link com.jdroid.java.http.Server}.
+	 */
+	protected ResilienceRegistry createResilienceRegistry() {
+		return new ResilienceRegistry();
+	}
+	
+	public ResilienceRegistry getResilienceRegistry() {
+		if (resilienceRegistry == null) {
+			synchronized (AbstractApplication.class) {
+				if (resilienceRegistry == null) {
+					resilienceRegistry = createResilienceRegistry();
+				}
+			}
+		}
+		return resilienceRegistry;
+	}
+	
+	public DatabaseLogSink getDatabaseLogSink() {
+		if (databaseLogSink == null) {
+			synchronized (AbstractApplication.class) {
+				if (databaseLogSink == null) {
+					databaseLogSink = createDatabaseLogSink();
+				}
+			}
+		}
+		return databaseLogSink;
+	}
+	
 	@SuppressWarnings("unchecked")
 	public <M extends Identifiable> Repository<M> getRepositoryInstance(Class<M> persistentClass) {
 		return (Repository<M>)repositories.get(persistentClass);
 	}
+	
+	public Collection<Repository<? extends Identifiable>> getRepositories() {
+		return repositories.values();
+	}
 
 	public AppLaunchStatus getAppLaunchStatus() {
 		return appLaunchStatus;
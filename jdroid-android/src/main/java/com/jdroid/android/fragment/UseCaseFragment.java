@@ -44,6 +44,12 @@ public abstract class UseCaseFragment<T extends AbstractUseCase> extends Abstrac
 		UseCaseHelper.registerUseCase(useCase, this, getUseCaseTrigger());
 	}
 
+	@Override
+	public void onResume() {
+		super.onResume();
+		UseCaseHelper.promoteUseCase(useCase);
+	}
+
 	@Override
 	public void onStop() {
 		super.onStop();
@@ -4,7 +4,7 @@ import android.view.View;
 import android.view.View.OnClickListener;
 
 import com.jdroid.android.usecase.AbstractUseCase;
-import com.jdroid.java.concurrent.ExecutorUtils;
+import com.jdroid.android.usecase.UseCaseHelper;
 
 /**
  * {@link OnClickListener} that execute a {@link AbstractUseCase}
@@ -25,7 +25,7 @@ public class UseCaseOnClickListener implements OnClickListener {
 	 */
 	@Override
 	public final void onClick(final View view) {
-		ExecutorUtils.execute(useCase);
+		UseCaseHelper.executeUseCase(useCase);
 	}
 	
 }
@@ -1,8 +1,13 @@
 package com.jdroid.android.log;
 
+import android.util.Log;
+
 import com.jdroid.java.date.DateUtils;
 import com.jdroid.java.domain.Entity;
 
+import org.slf4j.helpers.FormattingTuple;
+import org.slf4j.helpers.MessageFormatter;
+
 import java.util.Date;
 
 public class DatabaseLog extends Entity {
@@ -11,6 +16,14 @@ public class DatabaseLog extends Entity {
 	
 	private String message;
 	private Date dateTime;
+	private LogLevel level;
+	private String loggerName;
+	private String threadName;
+	private String throwable;
+	
+	// Pending values, resolved on the writer thread
+	private transient Object[] arguments;
+	private transient Throwable pendingThrowable;
 	
 	public DatabaseLog() {
 	}
@@ -20,6 +33,43 @@ public class DatabaseLog extends Entity {
 		dateTime = DateUtils.now();
 	}
 	
+	/**
+	 * Creates a log whose message is not formatted until {@link #resolve()} is invoked.
+	 * 
+	 * @param level the log level.
+	 * @param loggerName the name of the logger.
+	 * @param threadName the name of the thread which logged.
+	 * @param format the message, or the message format if there are arguments.
+	 * @param arguments the message arguments. It could be null.
+	 * @param throwable the logged throwable. It could be null.
+	 */
+	public DatabaseLog(LogLevel level, String loggerName, String threadName, String format, Object[] arguments,
+			Throwable throwable) {
+		this(format);
+		this.level = level;
+		this.loggerName = loggerName;
+		this.threadName = threadName;
+		this.arguments = arguments;
+		this.pendingThrowable = throwable;
+	}
+	
+	/**
+	 * Formats the message with its arguments and converts the throwable to its stack trace.
+	 */
+	public void resolve() {
+		if (arguments != null) {
+			FormattingTuple formattingTuple = MessageFormatter.arrayFormat(message, arguments);
+			message = formattingTuple.getMessage();
+			if (pendingThrowable == null) {
+				pendingThrowable = formattingTuple.getThrowable();
+			}
+			arguments = null;
+		}
+		if (pendingThrowable != null) {
+			throwable = Log.getStackTraceString(pendingThrowable);
+			pendingThrowable = null;
+		}
+	}
 
 	public Date getDateTime() {
 		return dateTime;
@@ -36,4 +86,39 @@ public class DatabaseLog extends Entity {
 	public void setMessage(String message) {
 		this.message = message;
 	}
+	
+	public LogLevel getLevel() {
+		return level;
+	}
+	
+	public void setLevel(LogLevel level) {
+		this.level = level;
+	}
+	
+	public String getLoggerName() {
+		return loggerName;
+	}
+	
+	public void setLoggerName(String loggerName) {
+		this.loggerName = loggerName;
+	}
+	
+	public String getThreadName() {
+		return threadName;
+	}
+	
+	public void setThreadName(String threadName) {
+		this.threadName = threadName;
+	}
+	
+	/**
+	 * @return the stack trace of the logged throwable.
+	 */
+	public String getThrowable() {
+		return throwable;
+	}
+	
+	public void setThrowable(String throwable) {
+		this.throwable = throwable;
+	}
 }
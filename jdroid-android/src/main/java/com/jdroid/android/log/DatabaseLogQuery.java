@@ -0,0 +1,115 @@
+package com.jdroid.android.log;
+
+import com.jdroid.java.collections.Lists;
+import com.jdroid.java.utils.StringUtils;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Filters of the persisted logs. Each null filter is not applied.
+ */
+public class DatabaseLogQuery {
+	
+	private LogLevel minLevel;
+	private String loggerName;
+	private Date from;
+	private Date to;
+	private String text;
+	
+	private List<String> selectionArgs;
+	
+	/**
+	 * @return the WHERE clause, without the WHERE keyword, or null if there are no filters.
+	 */
+	public String getSelection() {
+		selectionArgs = Lists.newArrayList();
+		List<String> conditions = Lists.newArrayList();
+		if (minLevel != null) {
+			List<String> placeholders = Lists.newArrayList();
+			for (LogLevel level : LogLevel.values()) {
+				if (level.isAtLeast(minLevel)) {
+					placeholders.add("?");
+					selectionArgs.add(level.name());
+				}
+			}
+			conditions.add(DatabaseLogsColumns.LEVEL.getColumnName() + " IN (" + StringUtils.join(placeholders) + ")");
+		}
+		if (loggerName != null) {
+			conditions.add(DatabaseLogsColumns.LOGGER_NAME.getColumnName() + "=?");
+			selectionArgs.add(loggerName);
+		}
+		if (from != null) {
+			conditions.add(DatabaseLogsColumns.DATE_TIME.getColumnName() + ">=?");
+			selectionArgs.add(String.valueOf(from.getTime()));
+		}
+		if (to != null) {
+			conditions.add(DatabaseLogsColumns.DATE_TIME.getColumnName() + "<?");
+			selectionArgs.add(String.valueOf(to.getTime()));
+		}
+		if (StringUtils.isNotEmpty(text)) {
+			conditions.add("(" + DatabaseLogsColumns.MESSAGE.getColumnName() + " LIKE ? ESCAPE '\\' OR "
+					+ DatabaseLogsColumns.THROWABLE.getColumnName() + " LIKE ? ESCAPE '\\')");
+			String pattern = "%" + text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+			selectionArgs.add(pattern);
+			selectionArgs.add(pattern);
+		}
+		return conditions.isEmpty() ? null : StringUtils.join(conditions, " AND ");
+	}
+	
+	/**
+	 * @return the arguments of the last selection returned by {@link #getSelection()}.
+	 */
+	public String[] getSelectionArgs() {
+		return selectionArgs.toArray(new String[selectionArgs.size()]);
+	}
+	
+	public LogLevel getMinLevel() {
+		return minLevel;
+	}
+	
+	public void setMinLevel(LogLevel minLevel) {
+		this.minLevel = minLevel;
+	}
+	
+	public String getLoggerName() {
+		return loggerName;
+	}
+	
+	public void setLoggerName(String loggerName) {
+		this.loggerName = loggerName;
+	}
+	
+	/**
+	 * @return the min date time (inclusive).
+	 */
+	public Date getFrom() {
+		return from;
+	}
+	
+	public void setFrom(Date from) {
+		this.from = from;
+	}
+	
+	/**
+	 * @return the max date time (exclusive).
+	 */
+	public Date getTo() {
+		return to;
+	}
+	
+	public void setTo(Date to) {
+		this.to = to;
+	}
+	
+	/**
+	 * @return the text to search on the message and the throwable.
+	 */
+	public String getText() {
+		return text;
+	}
+	
+	public void setText(String text) {
+		this.text = text;
+	}
+}
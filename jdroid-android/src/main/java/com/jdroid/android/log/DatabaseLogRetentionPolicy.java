@@ -0,0 +1,57 @@
+package com.jdroid.android.log;
+
+import com.jdroid.java.date.DateUtils;
+
+/**
+ * Limits applied to the persisted logs. The oldest logs are deleted when any of the limits is exceeded. Each null limit
+ * is not applied.
+ */
+public class DatabaseLogRetentionPolicy {
+	
+	public static final long DEFAULT_MAX_ROWS = 10000;
+	public static final long DEFAULT_MAX_AGE_MILLIS = 7 * DateUtils.MILLIS_PER_DAY;
+	public static final long DEFAULT_TRIM_INTERVAL_MILLIS = 5 * DateUtils.MILLIS_PER_MINUTE;
+	
+	private Long maxRows = DEFAULT_MAX_ROWS;
+	private Long maxAgeMillis = DEFAULT_MAX_AGE_MILLIS;
+	private Long maxBytes;
+	private long trimIntervalMillis = DEFAULT_TRIM_INTERVAL_MILLIS;
+	
+	public Long getMaxRows() {
+		return maxRows;
+	}
+	
+	public void setMaxRows(Long maxRows) {
+		this.maxRows = maxRows;
+	}
+	
+	public Long getMaxAgeMillis() {
+		return maxAgeMillis;
+	}
+	
+	public void setMaxAgeMillis(Long maxAgeMillis) {
+		this.maxAgeMillis = maxAgeMillis;
+	}
+	
+	/**
+	 * @return the max amount of bytes of the logs, estimated from the size of their values.
+	 */
+	public Long getMaxBytes() {
+		return maxBytes;
+	}
+	
+	public void setMaxBytes(Long maxBytes) {
+		this.maxBytes = maxBytes;
+	}
+	
+	/**
+	 * @return the min amount of milliseconds between two trims.
+	 */
+	public long getTrimIntervalMillis() {
+		return trimIntervalMillis;
+	}
+	
+	public void setTrimIntervalMillis(long trimIntervalMillis) {
+		this.trimIntervalMillis = trimIntervalMillis;
+	}
+}
@@ -0,0 +1,219 @@
+package com.jdroid.android.log;
+
+import com.jdroid.android.application.AbstractApplication;
+import com.jdroid.android.repository.CachedRepository;
+import com.jdroid.java.collections.Lists;
+import com.jdroid.java.concurrent.LowPriorityThreadFactory;
+import com.jdroid.java.date.DateUtils;
+import com.jdroid.java.repository.Repository;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded queue of {@link DatabaseLog}s shared by all the {@link DatabaseLogger}s. The logs are written on a background
+ * thread in batches, each batch on a single transaction, when the batch size is reached or when the flush delay
+ * expires, whatever happens first. When the queue is full, the {@link OverflowPolicy} decides what to do with the new
+ * logs.
+ */
+public class DatabaseLogSink {
+	
+	public static final int DEFAULT_CAPACITY = 1000;
+	public static final int DEFAULT_BATCH_SIZE = 50;
+	public static final long DEFAULT_FLUSH_DELAY_MILLIS = 2000;
+	
+	public enum OverflowPolicy {
+		
+		/**
+		 * The new log is discarded.
+		 */
+		DROP_NEWEST,
+		
+		/**
+		 * The oldest queued log is discarded to make room for the new one.
+		 */
+		DROP_OLDEST,
+		
+		/**
+		 * The logging thread waits until there is room on the queue. It should not be used if the UI thread logs.
+		 */
+		BLOCK;
+	}
+	
+	private BlockingQueue<DatabaseLog> queue;
+	private int batchSize;
+	private long flushDelayMillis;
+	private OverflowPolicy overflowPolicy;
+	private volatile LogLevel persistedLevel = LogLevel.TRACE;
+	
+	private ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(new LowPriorityThreadFactory());
+	private AtomicBoolean flushScheduled = new AtomicBoolean(false);
+	private AtomicBoolean flushRequested = new AtomicBoolean(false);
+	
+	private long lastTrimTime;
+	
+	private AtomicLong droppedCount = new AtomicLong();
+	private AtomicLong writtenCount = new AtomicLong();
+	
+	private Runnable flushRunnable = new Runnable() {
+		
+		@Override
+		public void run() {
+			flushScheduled.set(false);
+			flush();
+		}
+	};
+	
+	private Runnable requestedFlushRunnable = new Runnable() {
+		
+		@Override
+		public void run() {
+			flushRequested.set(false);
+			flush();
+		}
+	};
+	
+	public DatabaseLogSink() {
+		this(DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE, DEFAULT_FLUSH_DELAY_MILLIS, OverflowPolicy.DROP_OLDEST);
+	}
+	
+	public DatabaseLogSink(int capacity, int batchSize, long flushDelayMillis, OverflowPolicy overflowPolicy) {
+		this.queue = new ArrayBlockingQueue<>(capacity);
+		this.batchSize = batchSize;
+		this.flushDelayMillis = flushDelayMillis;
+		this.overflowPolicy = overflowPolicy;
+	}
+	
+	/**
+	 * @param level a log level.
+	 * @return true if the logs of the given level should be persisted.
+	 */
+	public Boolean isPersisted(LogLevel level) {
+		return level.isAtLeast(persistedLevel);
+	}
+	
+	public LogLevel getPersistedLevel() {
+		return persistedLevel;
+	}
+	
+	/**
+	 * @param persistedLevel the min level of the persisted logs. The default is {@link LogLevel#TRACE}, so all the logs
+	 * are persisted.
+	 */
+	public void setPersistedLevel(LogLevel persistedLevel) {
+		this.persistedLevel = persistedLevel;
+	}
+	
+	/**
+	 * Queues the log to be written on the database.
+	 * 
+	 * @param databaseLog the log.
+	 */
+	public void add(DatabaseLog databaseLog) {
+		if (!offer(databaseLog)) {
+			droppedCount.incrementAndGet();
+		}
+		if (queue.size() >= batchSize) {
+			// Only one flush is queued at a time, since each one writes all the queued logs
+			if (flushRequested.compareAndSet(false, true)) {
+				executor.execute(requestedFlushRunnable);
+			}
+		} else if (flushScheduled.compareAndSet(false, true)) {
+			executor.schedule(flushRunnable, flushDelayMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+	
+	private boolean offer(DatabaseLog databaseLog) {
+		switch (overflowPolicy) {
+			case DROP_OLDEST:
+				while (!queue.offer(databaseLog)) {
+					if (queue.poll() != null) {
+						droppedCount.incrementAndGet();
+					}
+				}
+				return true;
+			case BLOCK:
+				try {
+					queue.put(databaseLog);
+					return true;
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return false;
+				}
+			default:
+				return queue.offer(databaseLog);
+		}
+	}
+	
+	/**
+	 * Writes all the queued logs. It is executed on the writer thread.
+	 */
+	private void flush() {
+		List<DatabaseLog> batch = Lists.newArrayList();
+		while (queue.drainTo(batch, batchSize) > 0) {
+			try {
+				Repository<DatabaseLog> repository = AbstractApplication.get().getRepositoryInstance(DatabaseLog.class);
+				if (repository != null) {
+					for (DatabaseLog databaseLog : batch) {
+						databaseLog.resolve();
+					}
+					repository.addAll(batch);
+					writtenCount.addAndGet(batch.size());
+				}
+			} catch (Exception e) {
+				droppedCount.addAndGet(batch.size());
+				AbstractApplication.get().getExceptionHandler().logHandledException(e);
+			}
+			batch.clear();
+		}
+		trimIfNeeded();
+	}
+	
+	/**
+	 * Applies the {@link AbstractApplication#getDatabaseLogRetentionPolicy()} if the trim interval has elapsed since
+	 * the last trim. It is executed on the writer thread, so it doesn't compete with the log writes.
+	 */
+	private void trimIfNeeded() {
+		try {
+			DatabaseLogRetentionPolicy retentionPolicy = AbstractApplication.get().getDatabaseLogRetentionPolicy();
+			long now = DateUtils.nowMillis();
+			if (retentionPolicy != null && now - lastTrimTime >= retentionPolicy.getTrimIntervalMillis()) {
+				lastTrimTime = now;
+				Repository<DatabaseLog> repository = AbstractApplication.get().getRepositoryInstance(DatabaseLog.class);
+				repository = CachedRepository.unwrap(repository);
+				if (repository instanceof DatabaseLogsRepository) {
+					((DatabaseLogsRepository)repository).trim(retentionPolicy);
+				}
+			}
+		} catch (Exception e) {
+			AbstractApplication.get().getExceptionHandler().logHandledException(e);
+		}
+	}
+	
+	/**
+	 * @return the amount of logs waiting to be written.
+	 */
+	public int getQueueDepth() {
+		return queue.size();
+	}
+	
+	/**
+	 * @return the amount of logs discarded because the queue was full or the write failed.
+	 */
+	public long getDroppedCount() {
+		return droppedCount.get();
+	}
+	
+	/**
+	 * @return the amount of logs written on the database.
+	 */
+	public long getWrittenCount() {
+		return writtenCount.get();
+	}
+}
@@ -1,19 +1,18 @@
 package com.jdroid.android.log;
 
 import com.jdroid.android.application.AbstractApplication;
-import com.jdroid.java.concurrent.LowPriorityThreadFactory;
-import com.jdroid.java.repository.Repository;
 
 import org.slf4j.Logger;
 import org.slf4j.Marker;
 
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
-
+/**
+ * {@link Logger} which also persists the logs on the database, through the {@link DatabaseLogSink}. Only the logs with
+ * a level greater or equal than {@link DatabaseLogSink#getPersistedLevel()} are persisted. The parameterized messages
+ * are formatted on the sink thread, so the logging thread doesn't pay for the formatting.
+ */
 public class DatabaseLogger implements Logger {
 	
 	private Logger wrappedLogger;
-	private Executor executor = Executors.newFixedThreadPool(1, new LowPriorityThreadFactory());
 	
 	public DatabaseLogger(Logger wrappedLogger) {
 		this.wrappedLogger = wrappedLogger;
@@ -32,28 +31,41 @@ public class DatabaseLogger implements Logger {
 	@Override
 	public void trace(String msg) {
 		wrappedLogger.trace(msg);
-		log(msg);
+		if (isPersisted(LogLevel.TRACE)) {
+			log(LogLevel.TRACE, msg, null, null);
+		}
 	}
 
 	@Override
 	public void trace(String format, Object arg) {
 		wrappedLogger.trace(format, arg);
+		if (isPersisted(LogLevel.TRACE)) {
+			log(LogLevel.TRACE, format, new Object[] { arg }, null);
+		}
 	}
 
 	@Override
 	public void trace(String format, Object arg1, Object arg2) {
 		wrappedLogger.trace(format, arg1, arg2);
+		if (isPersisted(LogLevel.TRACE)) {
+			log(LogLevel.TRACE, format, new Object[] { arg1, arg2 }, null);
+		}
 	}
 
 	@Override
 	public void trace(String format, Object[] argArray) {
 		wrappedLogger.trace(format, argArray);
+		if (isPersisted(LogLevel.TRACE)) {
+			log(LogLevel.TRACE, format, argArray, null);
+		}
 	}
 
 	@Override
 	public void trace(String msg, Throwable t) {
 		wrappedLogger.trace(msg, t);
-		log(msg);
+		if (isPersisted(LogLevel.TRACE)) {
+			log(LogLevel.TRACE, msg, null, t);
+		}
 	}
 
 	@Override
@@ -64,28 +76,41 @@ public class DatabaseLogger implements Logger {
 	@Override
 	public void trace(Marker marker, String msg) {
 		wrappedLogger.trace(marker, msg);
-		log(msg);
+		if (isPersisted(LogLevel.TRACE)) {
+			log(LogLevel.TRACE, msg, null, null);
+		}
 	}
 
 	@Override
 	public void trace(Marker marker, String format, Object arg) {
 		wrappedLogger.trace(marker, format, arg);
+		if (isPersisted(LogLevel.TRACE)) {
+			log(LogLevel.TRACE, format, new Object[] { arg }, null);
+		}
 	}
 
 	@Override
 	public void trace(Marker marker, String format, Object arg1, Object arg2) {
 		wrappedLogger.trace(marker, format, arg1, arg2);
+		if (isPersisted(LogLevel.TRACE)) {
+			log(LogLevel.TRACE, format, new Object[] { arg1, arg2 }, null);
+		}
 	}
 
 	@Override
 	public void trace(Marker marker, String format, Object[] argArray) {
 		wrappedLogger.trace(marker, format, argArray);
+		if (isPersisted(LogLevel.TRACE)) {
+			log(LogLevel.TRACE, format, argArray, null);
+		}
 	}
 
 	@Override
 	public void trace(Marker marker, String msg, Throwable t) {
 		wrappedLogger.trace(marker, msg, t);
-		log(msg);
+		if (isPersisted(LogLevel.TRACE)) {
+			log(LogLevel.TRACE, msg, null, t);
+		}
 	}
 
 	@Override
@@ -96,28 +121,41 @@ public class DatabaseLogger implements Logger {
 	@Override
 	public void debug(String msg) {
 		wrappedLogger.debug(msg);
-		log(msg);
+		if (isPersisted(LogLevel.DEBUG)) {
+			log(LogLevel.DEBUG, msg, null, null);
+		}
 	}
 
 	@Override
 	public void debug(String format, Object arg) {
 		wrappedLogger.debug(format, arg);
+		if (isPersisted(LogLevel.DEBUG)) {
+			log(LogLevel.DEBUG, format, new Object[] { arg }, null);
+		}
 	}
 
 	@Override
 	public void debug(String format, Object arg1, Object arg2) {
 		wrappedLogger.debug(format, arg1, arg2);
+		if (isPersisted(LogLevel.DEBUG)) {
+			log(LogLevel.DEBUG, format, new Object[] { arg1, arg2 }, null);
+		}
 	}
 
 	@Override
 	public void debug(String format, Object[] argArray) {
 		wrappedLogger.debug(format, argArray);
+		if (isPersisted(LogLevel.DEBUG)) {
+			log(LogLevel.DEBUG, format, argArray, null);
+		}
 	}
 
 	@Override
 	public void debug(String msg, Throwable t) {
 		wrappedLogger.debug(msg, t);
-		log(msg);
+		if (isPersisted(LogLevel.DEBUG)) {
+			log(LogLevel.DEBUG, msg, null, t);
+		}
 	}
 
 	@Override
@@ -128,28 +166,41 @@ public class DatabaseLogger implements Logger {
 	@Override
 	public void debug(Marker marker, String msg) {
 		wrappedLogger.debug(marker, msg);
-		log(msg);
+		if (isPersisted(LogLevel.DEBUG)) {
+			log(LogLevel.DEBUG, msg, null, null);
+		}
 	}
 
 	@Override
 	public void debug(Marker marker, String format, Object arg) {
 		wrappedLogger.debug(marker, format, arg);
+		if (isPersisted(LogLevel.DEBUG)) {
+			log(LogLevel.DEBUG, format, new Object[] { arg }, null);
+		}
 	}
 
 	@Override
 	public void debug(Marker marker, String format, Object arg1, Object arg2) {
 		wrappedLogger.debug(marker, format, arg1, arg2);
+		if (isPersisted(LogLevel.DEBUG)) {
+			log(LogLevel.DEBUG, format, new Object[] { arg1, arg2 }, null);
+		}
 	}
 
 	@Override
 	public void debug(Marker marker, String format, Object[] argArray) {
 		wrappedLogger.debug(marker, format, argArray);
+		if (isPersisted(LogLevel.DEBUG)) {
+			log(LogLevel.DEBUG, format, argArray, null);
+		}
 	}
 
 	@Override
 	public void debug(Marker marker, String msg, Throwable t) {
 		wrappedLogger.debug(marker, msg, t);
-		log(msg);
+		if (isPersisted(LogLevel.DEBUG)) {
+			log(LogLevel.DEBUG, msg, null, t);
+		}
 	}
 
 	@Override
@@ -160,28 +211,41 @@ public class DatabaseLogger implements Logger {
 	@Override
 	public void info(String msg) {
 		wrappedLogger.info(msg);
-		log(msg);
+		if (isPersisted(LogLevel.INFO)) {
+			log(LogLevel.INFO, msg, null, null);
+		}
 	}
 
 	@Override
 	public void info(String format, Object arg) {
 		wrappedLogger.info(format, arg);
+		if (isPersisted(LogLevel.INFO)) {
+			log(LogLevel.INFO, format, new Object[] { arg }, null);
+		}
 	}
 
 	@Override
 	public void info(String format, Object arg1, Object arg2) {
 		wrappedLogger.info(format, arg1, arg2);
+		if (isPersisted(LogLevel.INFO)) {
+			log(LogLevel.INFO, format, new Object[] { arg1, arg2 }, null);
+		}
 	}
 
 	@Override
 	public void info(String format, Object[] argArray) {
 		wrappedLogger.info(format, argArray);
+		if (isPersisted(LogLevel.INFO)) {
+			log(LogLevel.INFO, format, argArray, null);
+		}
 	}
 
 	@Override
 	public void info(String msg, Throwable t) {
 		wrappedLogger.info(msg, t);
-		log(msg);
+		if (isPersisted(LogLevel.INFO)) {
+			log(LogLevel.INFO, msg, null, t);
+		}
 	}
 
 	@Override
@@ -192,28 +256,41 @@ public class DatabaseLogger implements Logger {
 	@Override
 	public void info(Marker marker, String msg) {
 		wrappedLogger.info(marker, msg);
-		log(msg);
+		if (isPersisted(LogLevel.INFO)) {
+			log(LogLevel.INFO, msg, null, null);
+		}
 	}
 
 	@Override
 	public void info(Marker marker, String format, Object arg) {
 		wrappedLogger.info(marker, format, arg);
+		if (isPersisted(LogLevel.INFO)) {
+			log(LogLevel.INFO, format, new Object[] { arg }, null);
+		}
 	}
 
 	@Override
 	public void info(Marker marker, String format, Object arg1, Object arg2) {
 		wrappedLogger.info(marker, format, arg1, arg2);
+		if (isPersisted(LogLevel.INFO)) {
+			log(LogLevel.INFO, format, new Object[] { arg1, arg2 }, null);
+		}
 	}
 
 	@Override
 	public void info(Marker marker, String format, Object[] argArray) {
 		wrappedLogger.info(marker, format, argArray);
+		if (isPersisted(LogLevel.INFO)) {
+			log(LogLevel.INFO, format, argArray, null);
+		}
 	}
 
 	@Override
 	public void info(Marker marker, String msg, Throwable t) {
 		wrappedLogger.info(marker, msg, t);
-		log(msg);
+		if (isPersisted(LogLevel.INFO)) {
+			log(LogLevel.INFO, msg, null, t);
+		}
 	}
 
 	@Override
@@ -224,28 +301,41 @@ public class DatabaseLogger implements Logger {
 	@Override
 	public void warn(String msg) {
 		wrappedLogger.warn(msg);
-		log(msg);
+		if (isPersisted(LogLevel.WARN)) {
+			log(LogLevel.WARN, msg, null, null);
+		}
 	}
 
 	@Override
 	public void warn(String format, Object arg) {
 		wrappedLogger.warn(format, arg);
+		if (isPersisted(LogLevel.WARN)) {
+			log(LogLevel.WARN, format, new Object[] { arg }, null);
+		}
 	}
 
 	@Override
-	public void warn(String format, Object[] argArray) {
-		wrappedLogger.warn(format, argArray);
+	public void warn(String format, Object arg1, Object arg2) {
+		wrappedLogger.warn(format, arg1, arg2);
+		if (isPersisted(LogLevel.WARN)) {
+			log(LogLevel.WARN, format, new Object[] { arg1, arg2 }, null);
+		}
 	}
 
 	@Override
-	public void warn(String format, Object arg1, Object arg2) {
-		wrappedLogger.warn(format, arg1, arg2);
+	public void warn(String format, Object[] argArray) {
+		wrappedLogger.warn(format, argArray);
+		if (isPersisted(LogLevel.WARN)) {
+			log(LogLevel.WARN, format, argArray, null);
+		}
 	}
 
 	@Override
 	public void warn(String msg, Throwable t) {
 		wrappedLogger.warn(msg, t);
-		log(msg);
+		if (isPersisted(LogLevel.WARN)) {
+			log(LogLevel.WARN, msg, null, t);
+		}
 	}
 
 	@Override
@@ -256,28 +346,41 @@ public class DatabaseLogger implements Logger {
 	@Override
 	public void warn(Marker marker, String msg) {
 		wrappedLogger.warn(marker, msg);
-		log(msg);
+		if (isPersisted(LogLevel.WARN)) {
+			log(LogLevel.WARN, msg, null, null);
+		}
 	}
 
 	@Override
 	public void warn(Marker marker, String format, Object arg) {
 		wrappedLogger.warn(marker, format, arg);
+		if (isPersisted(LogLevel.WARN)) {
+			log(LogLevel.WARN, format, new Object[] { arg }, null);
+		}
 	}
 
 	@Override
 	public void warn(Marker marker, String format, Object arg1, Object arg2) {
 		wrappedLogger.warn(marker, format, arg1, arg2);
+		if (isPersisted(LogLevel.WARN)) {
+			log(LogLevel.WARN, format, new Object[] { arg1, arg2 }, null);
+		}
 	}
 
 	@Override
 	public void warn(Marker marker, String format, Object[] argArray) {
 		wrappedLogger.warn(marker, format, argArray);
+		if (isPersisted(LogLevel.WARN)) {
+			log(LogLevel.WARN, format, argArray, null);
+		}
 	}
 
 	@Override
 	public void warn(Marker marker, String msg, Throwable t) {
 		wrappedLogger.warn(marker, msg, t);
-		log(msg);
+		if (isPersisted(LogLevel.WARN)) {
+			log(LogLevel.WARN, msg, null, t);
+		}
 	}
 
 	@Override
@@ -288,28 +391,41 @@ public class DatabaseLogger implements Logger {
 	@Override
 	public void error(String msg) {
 		wrappedLogger.error(msg);
-		log(msg);
+		if (isPersisted(LogLevel.ERROR)) {
+			log(LogLevel.ERROR, msg, null, null);
+		}
 	}
 
 	@Override
 	public void error(String format, Object arg) {
 		wrappedLogger.error(format, arg);
+		if (isPersisted(LogLevel.ERROR)) {
+			log(LogLevel.ERROR, format, new Object[] { arg }, null);
+		}
 	}
 
 	@Override
 	public void error(String format, Object arg1, Object arg2) {
 		wrappedLogger.error(format, arg1, arg2);
+		if (isPersisted(LogLevel.ERROR)) {
+			log(LogLevel.ERROR, format, new Object[] { arg1, arg2 }, null);
+		}
 	}
 
 	@Override
 	public void error(String format, Object[] argArray) {
 		wrappedLogger.error(format, argArray);
+		if (isPersisted(LogLevel.ERROR)) {
+			log(LogLevel.ERROR, format, argArray, null);
+		}
 	}
 
 	@Override
 	public void error(String msg, Throwable t) {
 		wrappedLogger.error(msg, t);
-		log(msg);
+		if (isPersisted(LogLevel.ERROR)) {
+			log(LogLevel.ERROR, msg, null, t);
+		}
 	}
 
 	@Override
@@ -320,44 +436,52 @@ public class DatabaseLogger implements Logger {
 	@Override
 	public void error(Marker marker, String msg) {
 		wrappedLogger.error(marker, msg);
-		log(msg);
+		if (isPersisted(LogLevel.ERROR)) {
+			log(LogLevel.ERROR, msg, null, null);
+		}
 	}
 
 	@Override
 	public void error(Marker marker, String format, Object arg) {
 		wrappedLogger.error(marker, format, arg);
+		if (isPersisted(LogLevel.ERROR)) {
+			log(LogLevel.ERROR, format, new Object[] { arg }, null);
+		}
 	}
 
 	@Override
 	public void error(Marker marker, String format, Object arg1, Object arg2) {
 		wrappedLogger.error(marker, format, arg1, arg2);
+		if (isPersisted(LogLevel.ERROR)) {
+			log(LogLevel.ERROR, format, new Object[] { arg1, arg2 }, null);
+		}
 	}
 
 	@Override
 	public void error(Marker marker, String format, Object[] argArray) {
 		wrappedLogger.error(marker, format, argArray);
+		if (isPersisted(LogLevel.ERROR)) {
+			log(LogLevel.ERROR, format, argArray, null);
+		}
 	}
 
 	@Override
 	public void error(Marker marker, String msg, Throwable t) {
 		wrappedLogger.error(marker, msg, t);
-		log(msg);
-	}
-
-	private void log(final String message) {
-		executor.execute(new Runnable() {
-
-			@Override
-			public void run() {
-				try {
-					Repository<DatabaseLog> repository = AbstractApplication.get().getRepositoryInstance(DatabaseLog.class);
-					if (repository != null) {
-						repository.add(new DatabaseLog(message));
-					}
-				} catch (Exception e) {
-					AbstractApplication.get().getExceptionHandler().logHandledException(e);
-				}
-			}
-		});
+		if (isPersisted(LogLevel.ERROR)) {
+			log(LogLevel.ERROR, msg, null, t);
+		}
+	}
+
+	private boolean isPersisted(LogLevel level) {
+		return AbstractApplication.get().getDatabaseLogSink().isPersisted(level);
+	}
+
+	/**
+	 * Must be invoked only if {@link #isPersisted(LogLevel)}, which is checked before allocating the arguments array.
+	 */
+	private void log(LogLevel level, String format, Object[] arguments, Throwable throwable) {
+		AbstractApplication.get().getDatabaseLogSink().add(new DatabaseLog(level, getName(),
+			Thread.currentThread().getName(), format, arguments, throwable));
 	}
 }
@@ -11,7 +11,11 @@ public enum DatabaseLogsColumns implements Column {
 	
 	ID(Column.ID, DataType.LONG, Column.PRIMARY_KEY_AUTOINCREMENT, Boolean.FALSE, Boolean.TRUE),
 	MESSAGE("message", DataType.TEXT, null, Boolean.FALSE, Boolean.FALSE),
-	DATE_TIME("dateTime", DataType.DATE_MILLISECONDS, null, Boolean.FALSE, Boolean.FALSE);
+	DATE_TIME("dateTime", DataType.DATE_EPOCH_MILLIS, null, Boolean.FALSE, Boolean.FALSE),
+	LEVEL("level", DataType.TEXT, null, Boolean.TRUE, Boolean.FALSE),
+	LOGGER_NAME("loggerName", DataType.TEXT, null, Boolean.TRUE, Boolean.FALSE),
+	THREAD_NAME("threadName", DataType.TEXT, null, Boolean.TRUE, Boolean.FALSE),
+	THROWABLE("throwable", DataType.TEXT, null, Boolean.TRUE, Boolean.FALSE);
 	
 	private String columnName;
 	private DataType dataType;
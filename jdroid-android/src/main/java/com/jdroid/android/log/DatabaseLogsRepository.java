@@ -2,15 +2,46 @@ package com.jdroid.android.log;
 
 import android.content.ContentValues;
 import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
 
+import com.jdroid.android.sqlite.repository.CursorIterable;
+import com.jdroid.android.sqlite.repository.SQLitePagedResult;
 import com.jdroid.android.sqlite.repository.SQLiteRepository;
 import com.jdroid.android.sqlite.Column;
+import com.jdroid.android.sqlite.Index;
 import com.jdroid.android.sqlite.SQLiteHelper;
+import com.jdroid.android.sqlite.SQLiteRowReader;
+import com.jdroid.java.date.DateUtils;
+import com.jdroid.java.exception.UnexpectedException;
+import com.jdroid.java.json.JSONObject;
+import com.jdroid.java.utils.LoggerUtils;
 
+import org.slf4j.Logger;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 public class DatabaseLogsRepository extends SQLiteRepository<DatabaseLog> {
 
+	private static final Logger LOGGER = LoggerUtils.getLogger(DatabaseLogsRepository.class);
+	
+	private static final int EXPORT_BUFFER_SIZE = 8192;
+	private static final int AVERAGE_ROW_SAMPLE_SIZE = 100;
+
+	public static final String TABLE_NAME = "Log";
+
 	public DatabaseLogsRepository(SQLiteHelper dbHelper) {
 		super(dbHelper);
 	}
@@ -20,7 +51,7 @@ public class DatabaseLogsRepository extends SQLiteRepository<DatabaseLog> {
 	 */
 	@Override
 	protected String getTableName() {
-		return "Log";
+		return TABLE_NAME;
 	}
 
 	/**
@@ -36,19 +67,193 @@ public class DatabaseLogsRepository extends SQLiteRepository<DatabaseLog> {
 	 */
 	@Override
 	protected DatabaseLog createObjectFromCursor(Cursor cursor) {
+		return createObjectFromRow(new SQLiteRowReader(cursor, getColumns()));
+	}
+
+	/**
+	 * @see SQLiteRepository#createObjectFromRow(SQLiteRowReader)
+	 */
+	@Override
+	protected DatabaseLog createObjectFromRow(SQLiteRowReader rowReader) {
 		DatabaseLog log = new DatabaseLog();
-		log.setId((String)DatabaseLogsColumns.ID.readValue(cursor));
-		log.setMessage(DatabaseLogsColumns.MESSAGE.readValue(cursor).toString());
-		log.setDateTime((Date)DatabaseLogsColumns.DATE_TIME.readValue(cursor));
+		log.setId(rowReader.getString(DatabaseLogsColumns.ID));
+		log.setMessage(rowReader.getString(DatabaseLogsColumns.MESSAGE));
+		log.setDateTime(rowReader.<Date>readValue(DatabaseLogsColumns.DATE_TIME));
+		log.setLevel(LogLevel.findByName(rowReader.getString(DatabaseLogsColumns.LEVEL)));
+		log.setLoggerName(rowReader.getString(DatabaseLogsColumns.LOGGER_NAME));
+		log.setThreadName(rowReader.getString(DatabaseLogsColumns.THREAD_NAME));
+		log.setThrowable(rowReader.getString(DatabaseLogsColumns.THROWABLE));
 		return log;
 	}
 
+	/**
+	 * @see SQLiteRepository#getIndexes()
+	 */
+	@Override
+	protected List<Index> getIndexes() {
+		List<Index> indexes = super.getIndexes();
+		indexes.add(new Index(TABLE_NAME + "_" + DatabaseLogsColumns.DATE_TIME.getColumnName() + "_idx",
+				DatabaseLogsColumns.DATE_TIME));
+		return indexes;
+	}
+	
+	/**
+	 * Deletes the oldest logs exceeding any of the limits of the retention policy, and then returns the free pages to
+	 * the file system. All the deletes use the {@link DatabaseLogsColumns#DATE_TIME} index.
+	 * 
+	 * @param retentionPolicy the retention policy.
+	 * @return the amount of deleted logs.
+	 */
+	public long trim(DatabaseLogRetentionPolicy retentionPolicy) {
+		@SuppressWarnings("resource")
+		SQLiteDatabase db = dbHelper.getWritableDatabase();
+		long deletedCount = 0;
+		boolean endTransaction = beginTransaction(db);
+		try {
+			if (retentionPolicy.getMaxAgeMillis() != null) {
+				long minDateTime = DateUtils.nowMillis() - retentionPolicy.getMaxAgeMillis();
+				deletedCount += db.delete(TABLE_NAME, DatabaseLogsColumns.DATE_TIME.getColumnName() + " < ?",
+					new String[] { String.valueOf(minDateTime) });
+			}
+			
+			Long maxRows = retentionPolicy.getMaxRows();
+			if (retentionPolicy.getMaxBytes() != null) {
+				long averageRowBytes = getAverageRowBytes(db);
+				if (averageRowBytes > 0) {
+					long maxRowsBySize = retentionPolicy.getMaxBytes() / averageRowBytes;
+					maxRows = maxRows != null ? Math.min(maxRows, maxRowsBySize) : maxRowsBySize;
+				}
+			}
+			if (maxRows != null) {
+				deletedCount += trimToRows(db, maxRows);
+			}
+			successTransaction(db, endTransaction);
+		} finally {
+			endTransaction(db, endTransaction);
+		}
+		
+		if (deletedCount > 0 && !db.inTransaction()) {
+			dbHelper.incrementalVacuum(db);
+		}
+		LOGGER.debug("Trimmed " + deletedCount + " logs");
+		return deletedCount;
+	}
+	
+	/**
+	 * Estimates the average size of a log using the stored values of the newest logs. The size of the indexes and the
+	 * storage overhead are not included.
+	 */
+	private long getAverageRowBytes(SQLiteDatabase db) {
+		StringBuilder rowBytes = new StringBuilder();
+		for (DatabaseLogsColumns column : DatabaseLogsColumns.values()) {
+			if (rowBytes.length() > 0) {
+				rowBytes.append(" + ");
+			}
+			rowBytes.append("IFNULL(LENGTH(").append(column.getColumnName()).append("), 0)");
+		}
+		String dateTimeColumnName = DatabaseLogsColumns.DATE_TIME.getColumnName();
+		return DatabaseUtils.longForQuery(db, "SELECT CAST(IFNULL(AVG(rowBytes), 0) AS INTEGER) FROM (SELECT "
+				+ rowBytes + " AS rowBytes FROM " + TABLE_NAME + " ORDER BY " + dateTimeColumnName + " DESC LIMIT "
+				+ AVERAGE_ROW_SAMPLE_SIZE + ")", null);
+	}
+	
+	private long trimToRows(SQLiteDatabase db, long maxRows) {
+		if (maxRows <= 0) {
+			return db.delete(TABLE_NAME, null, null);
+		}
+		String dateTimeColumnName = DatabaseLogsColumns.DATE_TIME.getColumnName();
+		SQLiteStatement statement = db.compileStatement("DELETE FROM " + TABLE_NAME + " WHERE " + dateTimeColumnName
+				+ " < (SELECT " + dateTimeColumnName + " FROM " + TABLE_NAME + " ORDER BY " + dateTimeColumnName
+				+ " DESC LIMIT 1 OFFSET ?)");
+		try {
+			statement.bindLong(1, maxRows - 1);
+			return statement.executeUpdateDelete();
+		} finally {
+			statement.close();
+		}
+	}
+	
+	/**
+	 * Returns a page of the logs matching the query, from the newest to the oldest, using seek pagination.
+	 * 
+	 * @param query the filters.
+	 * @param pageSize the max amount of logs of the page.
+	 * @param previousPage the previous page, or null to get the first page.
+	 * @return the page.
+	 */
+	public SQLitePagedResult<DatabaseLog> find(DatabaseLogQuery query, int pageSize,
+			SQLitePagedResult<DatabaseLog> previousPage) {
+		String selection = query.getSelection();
+		return findPage(selection, query.getSelectionArgs(), pageSize, DatabaseLogsColumns.DATE_TIME.getColumnName(),
+			false, previousPage != null ? previousPage.getLastSortValue() : null,
+			previousPage != null ? previousPage.getLastId() : null);
+	}
+	
+	/**
+	 * Writes the logs matching the query to a gzip compressed file, one JSON object per line, from the oldest to the
+	 * newest. The logs are read from a cursor and written through a file channel one at a time, so they are never all
+	 * kept on memory.
+	 * 
+	 * @param query the filters.
+	 * @param file the destination file. It is overwritten if it exists.
+	 * @return the amount of exported logs.
+	 */
+	public long export(DatabaseLogQuery query, File file) {
+		String selection = query.getSelection();
+		long count = 0;
+		CursorIterable<DatabaseLog> logs = iterate(selection, query.getSelectionArgs(),
+			DatabaseLogsColumns.DATE_TIME.getColumnName() + " ASC, " + DatabaseLogsColumns.ID.getColumnName() + " ASC");
+		FileOutputStream fileOutputStream = null;
+		Writer writer = null;
+		try {
+			fileOutputStream = new FileOutputStream(file);
+			FileChannel channel = fileOutputStream.getChannel();
+			writer = new OutputStreamWriter(new GZIPOutputStream(Channels.newOutputStream(channel), EXPORT_BUFFER_SIZE),
+					"UTF-8");
+			for (DatabaseLog log : logs) {
+				writer.write(toJson(log));
+				writer.write('\n');
+				count++;
+			}
+		} catch (IOException e) {
+			throw new UnexpectedException(e);
+		} finally {
+			logs.close();
+			try {
+				if (writer != null) {
+					writer.close();
+				} else if (fileOutputStream != null) {
+					fileOutputStream.close();
+				}
+			} catch (IOException e) {
+				LOGGER.warn("Error closing the logs export file", e);
+			}
+		}
+		LOGGER.debug("Exported " + count + " logs to " + file.getAbsolutePath());
+		return count;
+	}
+	
+	private String toJson(DatabaseLog log) {
+		Map<String, Object> json = new LinkedHashMap<>();
+		json.put(DatabaseLogsColumns.DATE_TIME.getColumnName(), log.getDateTime() != null ? log.getDateTime().getTime() : null);
+		json.put(DatabaseLogsColumns.LEVEL.getColumnName(), log.getLevel() != null ? log.getLevel().name() : null);
+		json.put(DatabaseLogsColumns.LOGGER_NAME.getColumnName(), log.getLoggerName());
+		json.put(DatabaseLogsColumns.THREAD_NAME.getColumnName(), log.getThreadName());
+		json.put(DatabaseLogsColumns.MESSAGE.getColumnName(), log.getMessage());
+		json.put(DatabaseLogsColumns.THROWABLE.getColumnName(), log.getThrowable());
+		return new JSONObject(json).toString();
+	}
+	
 	@Override
 	protected ContentValues createContentValuesFromObject(DatabaseLog item) {
 		ContentValues values = new ContentValues();
 		DatabaseLogsColumns.ID.addValue(values, item.getId());
 		DatabaseLogsColumns.MESSAGE.addValue(values, item.getMessage());
 		DatabaseLogsColumns.DATE_TIME.addValue(values, item.getDateTime());
+		DatabaseLogsColumns.LEVEL.addValue(values, item.getLevel() != null ? item.getLevel().name() : null);
+		DatabaseLogsColumns.LOGGER_NAME.addValue(values, item.getLoggerName());
+		DatabaseLogsColumns.THREAD_NAME.addValue(values, item.getThreadName());
+		DatabaseLogsColumns.THROWABLE.addValue(values, item.getThrowable());
 		return values;
 	}
 	
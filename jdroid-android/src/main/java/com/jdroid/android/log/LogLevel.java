@@ -0,0 +1,30 @@
+package com.jdroid.android.log;
+
+/**
+ * Levels of the persisted logs, from the less to the most severe.
+ */
+public enum LogLevel {
+	
+	TRACE,
+	DEBUG,
+	INFO,
+	WARN,
+	ERROR;
+	
+	/**
+	 * @param level the level to compare.
+	 * @return true if this level is as severe as the given one or more.
+	 */
+	public Boolean isAtLeast(LogLevel level) {
+		return compareTo(level) >= 0;
+	}
+	
+	public static LogLevel findByName(String name) {
+		for (LogLevel each : values()) {
+			if (each.name().equals(name)) {
+				return each;
+			}
+		}
+		return null;
+	}
+}
@@ -36,6 +36,12 @@ public abstract class AbstractPaginatedRecyclerFragment extends AbstractRecycler
 		UseCaseHelper.registerUseCase(paginatedUseCase, this, getUseCaseTrigger());
 	}
 
+	@Override
+	public void onResume() {
+		super.onResume();
+		UseCaseHelper.promoteUseCase(paginatedUseCase);
+	}
+
 	protected UseCaseTrigger getUseCaseTrigger() {
 		return UseCaseTrigger.ONCE;
 	}
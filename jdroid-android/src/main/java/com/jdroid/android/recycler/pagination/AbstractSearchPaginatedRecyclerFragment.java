@@ -172,6 +172,7 @@ public abstract class AbstractSearchPaginatedRecyclerFragment extends AbstractPa
 	
 	protected void doCancel() {
 		searchText.setText(null);
+		getSearchUseCase().cancel();
 		getSearchUseCase().setSearchValue(null);
 		getSearchUseCase().reset();
 		dismissLoading();
@@ -185,6 +186,8 @@ public abstract class AbstractSearchPaginatedRecyclerFragment extends AbstractPa
 	}
 	
 	protected void doSearch(String searchValue) {
+		// The execution for the previous search value is superseded
+		getSearchUseCase().cancel();
 		getSearchUseCase().setSearchValue(searchValue);
 		getSearchUseCase().reset();
 		
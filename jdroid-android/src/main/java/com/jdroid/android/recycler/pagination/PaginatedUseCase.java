@@ -45,7 +45,11 @@ public abstract class PaginatedUseCase<T> extends AbstractUseCase {
 		}
 		
 		try {
-			pagedResult = doPopulate(page, pageSize, sortingType);
+			PagedResult<T> pagedResult = doPopulate(page, pageSize, sortingType);
+			// A superseded execution must not replace the results of the new one
+			throwIfCancelled();
+			onPageLoaded(page, pagedResult);
+			this.pagedResult = pagedResult;
 			LOGGER.debug("Results: " + pagedResult.getResults().size() + " / Page: " + page + " / Sorting: "
 					+ sortingType);
 		} catch (RuntimeException e) {
@@ -58,6 +62,17 @@ public abstract class PaginatedUseCase<T> extends AbstractUseCase {
 	
 	protected abstract PagedResult<T> doPopulate(int page, int pageSize, SortingType sortingType);
 	
+	/**
+	 * Called after a page is loaded by a not cancelled execution, so any state which depends on the last loaded page
+	 * should be updated here instead of on {@link #doPopulate(int, int, SortingType)}.
+	 * 
+	 * @param page the loaded page.
+	 * @param pagedResult the results of the page.
+	 */
+	protected void onPageLoaded(int page, PagedResult<T> pagedResult) {
+		// Do nothing by default
+	}
+	
 	public void markAsPaginating() {
 		paginatedUseCaseMode = PaginatedUseCaseMode.PAGINATION;
 	}
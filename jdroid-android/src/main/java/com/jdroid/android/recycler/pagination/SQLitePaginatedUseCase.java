@@ -0,0 +1,66 @@
+package com.jdroid.android.recycler.pagination;
+
+import com.jdroid.android.application.AbstractApplication;
+import com.jdroid.android.repository.CachedRepository;
+import com.jdroid.android.search.SortingType;
+import com.jdroid.android.sqlite.repository.SQLitePagedResult;
+import com.jdroid.android.sqlite.repository.SQLiteRepository;
+import com.jdroid.java.domain.Entity;
+import com.jdroid.java.repository.Repository;
+import com.jdroid.java.search.PagedResult;
+
+/**
+ * {@link PaginatedUseCase} which loads the pages from a {@link SQLiteRepository} using seek pagination, so each page
+ * costs the same regardless of how deep the list has been scrolled. The {@link SortingType#getSorting()} is used as
+ * sort column.
+ *
+ * @param <T> The entity type.
+ */
+public abstract class SQLitePaginatedUseCase<T extends Entity> extends PaginatedUseCase<T> {
+
+	private static final long serialVersionUID = -1427815405736318052L;
+
+	private String lastSortValue;
+	private String lastId;
+
+	@Override
+	protected PagedResult<T> doPopulate(int page, int pageSize, SortingType sortingType) {
+		String sortColumn = sortingType != null ? sortingType.getSorting() : getDefaultSortColumn();
+		return getRepository().findPage(pageSize, sortColumn, isAscending(), page == 1 ? null : lastSortValue,
+			page == 1 ? null : lastId);
+	}
+	
+	@Override
+	protected void onPageLoaded(int page, PagedResult<T> pagedResult) {
+		SQLitePagedResult<T> sqlitePagedResult = (SQLitePagedResult<T>)pagedResult;
+		if (page == 1 || sqlitePagedResult.getLastId() != null) {
+			lastSortValue = sqlitePagedResult.getLastSortValue();
+			lastId = sqlitePagedResult.getLastId();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	protected SQLiteRepository<T> getRepository() {
+		Repository<T> repository = AbstractApplication.get().getRepositoryInstance(getEntityClass());
+		return (SQLiteRepository<T>)CachedRepository.unwrap(repository);
+	}
+
+	/**
+	 * @return the class of the paginated entities.
+	 */
+	protected abstract Class<T> getEntityClass();
+
+	/**
+	 * @return the sort column to use when there isn't a {@link SortingType}. If null, the id column is used.
+	 */
+	protected String getDefaultSortColumn() {
+		return null;
+	}
+
+	/**
+	 * @return whether the sort is ascending or descending.
+	 */
+	protected boolean isAscending() {
+		return true;
+	}
+}
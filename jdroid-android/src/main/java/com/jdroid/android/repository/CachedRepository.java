@@ -0,0 +1,213 @@
+package com.jdroid.android.repository;
+
+import com.jdroid.java.domain.Identifiable;
+import com.jdroid.java.repository.Repository;
+import com.jdroid.java.utils.LoggerUtils;
+
+import org.slf4j.Logger;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link Repository} decorator which keeps the most recently used entities on a size-bounded LRU cache, so
+ * {@link #get(String)} doesn't access the wrapped repository for hot entities. The cached instances are returned as
+ * they are, so callers share the same instance. All the writes go to the wrapped repository and update or invalidate
+ * the cache.
+ * <p>
+ * It can be enabled per entity class overriding
+ * {@link com.jdroid.android.application.AbstractApplication#getRepositoryCacheSize(Class)}, or when registering the
+ * repositories:
+ * <pre>
+ * repositories.put(User.class, new CachedRepository&lt;&gt;(new UserSQLiteRepository(dbHelper), 10));
+ * </pre>
+ *
+ * @param <T> Entity type.
+ */
+public class CachedRepository<T extends Identifiable> implements Repository<T> {
+
+	private static final Logger LOGGER = LoggerUtils.getLogger(CachedRepository.class);
+
+	private Repository<T> repository;
+	private Map<String, T> cache;
+	
+	// Incremented by each write, so an entity loaded while the repository was modified is not cached
+	private long generation;
+
+	private AtomicLong hitsCount = new AtomicLong();
+	private AtomicLong missesCount = new AtomicLong();
+
+	public CachedRepository(Repository<T> repository, final int maxSize) {
+		this.repository = repository;
+		cache = new LinkedHashMap<String, T>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 6123455021637618745L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, T> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	/**
+	 * @param repository a repository.
+	 * @return the repository wrapped by the {@link CachedRepository}, or the same repository if it is not cached.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T extends Identifiable> Repository<T> unwrap(Repository<T> repository) {
+		if (repository instanceof CachedRepository) {
+			return ((CachedRepository<T>)repository).getRepository();
+		}
+		return repository;
+	}
+
+	@Override
+	public T get(String id) {
+		long loadGeneration;
+		synchronized (cache) {
+			T item = cache.get(id);
+			if (item != null) {
+				hitsCount.incrementAndGet();
+				return item;
+			}
+			loadGeneration = generation;
+		}
+		missesCount.incrementAndGet();
+		T item = repository.get(id);
+		if ((item != null) && (item.getId() != null)) {
+			synchronized (cache) {
+				if (loadGeneration == generation) {
+					cache.put(item.getId(), item);
+				}
+			}
+		}
+		return item;
+	}
+
+	@Override
+	public List<T> findByField(String fieldName, Object... values) {
+		return repository.findByField(fieldName, values);
+	}
+
+	@Override
+	public List<T> getAll(List<String> ids) {
+		return repository.getAll(ids);
+	}
+
+	@Override
+	public List<T> getAll() {
+		return repository.getAll();
+	}
+
+	@Override
+	public Boolean isEmpty() {
+		return repository.isEmpty();
+	}
+
+	@Override
+	public Long getSize() {
+		return repository.getSize();
+	}
+
+	@Override
+	public T getUniqueInstance() {
+		return repository.getUniqueInstance();
+	}
+
+	@Override
+	public void add(T item) {
+		repository.add(item);
+		put(item);
+	}
+
+	@Override
+	public void addAll(Collection<T> items) {
+		repository.addAll(items);
+		for (T item : items) {
+			put(item);
+		}
+	}
+
+	@Override
+	public void update(T item) {
+		repository.update(item);
+		put(item);
+	}
+
+	@Override
+	public void replaceAll(Collection<T> items) {
+		repository.replaceAll(items);
+		clearCache();
+	}
+
+	@Override
+	public void remove(T item) {
+		repository.remove(item);
+		evict(item.getId());
+	}
+
+	@Override
+	public void remove(String id) {
+		repository.remove(id);
+		evict(id);
+	}
+
+	@Override
+	public void removeAll() {
+		repository.removeAll();
+		clearCache();
+	}
+
+	@Override
+	public void removeAll(Collection<T> items) {
+		repository.removeAll(items);
+		for (T item : items) {
+			evict(item.getId());
+		}
+	}
+
+	private void put(T item) {
+		if (item.getId() != null) {
+			synchronized (cache) {
+				generation++;
+				cache.put(item.getId(), item);
+			}
+		}
+	}
+
+	public void evict(String id) {
+		if (id != null) {
+			synchronized (cache) {
+				generation++;
+				cache.remove(id);
+			}
+		}
+	}
+
+	/**
+	 * Removes all the entities from the cache. It should be called if the wrapped repository is modified directly.
+	 */
+	public void clearCache() {
+		synchronized (cache) {
+			generation++;
+			cache.clear();
+		}
+		LOGGER.debug("Cache cleared for " + repository.getClass().getSimpleName());
+	}
+
+	public Repository<T> getRepository() {
+		return repository;
+	}
+
+	public long getHitsCount() {
+		return hitsCount.get();
+	}
+
+	public long getMissesCount() {
+		return missesCount.get();
+	}
+}
@@ -0,0 +1,71 @@
+package com.jdroid.android.sqlite;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import com.jdroid.java.collections.Lists;
+import com.jdroid.java.utils.LoggerUtils;
+
+import org.slf4j.Logger;
+
+import java.util.List;
+
+/**
+ * {@link SQLiteUpgradeStep} which adds the given columns to an existing table. The columns which already exist are
+ * skipped, so it is safe to execute it more than once. The added columns must be optional, because SQLite can't add a
+ * NOT NULL column without a default value.
+ */
+public class AddColumnsUpgradeStep implements SQLiteUpgradeStep {
+	
+	private static final Logger LOGGER = LoggerUtils.getLogger(AddColumnsUpgradeStep.class);
+	
+	private Integer version;
+	private String tableName;
+	private Column[] columns;
+	
+	/**
+	 * @param version db version associated to this upgrade step
+	 * @param tableName the table to alter
+	 * @param columns the columns to add
+	 */
+	public AddColumnsUpgradeStep(Integer version, String tableName, Column... columns) {
+		this.version = version;
+		this.tableName = tableName;
+		this.columns = columns;
+	}
+	
+	@Override
+	public void upgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+		List<String> existingColumns = Lists.newArrayList();
+		Cursor cursor = null;
+		try {
+			cursor = db.rawQuery("PRAGMA table_info(" + tableName + ")", null);
+			int nameIndex = cursor.getColumnIndex("name");
+			while (cursor.moveToNext()) {
+				existingColumns.add(cursor.getString(nameIndex));
+			}
+		} finally {
+			if (cursor != null) {
+				cursor.close();
+			}
+		}
+		
+		// The table doesn't exist yet, so it will be created with all the columns
+		if (existingColumns.isEmpty()) {
+			return;
+		}
+		
+		for (Column column : columns) {
+			if (!existingColumns.contains(column.getColumnName())) {
+				db.execSQL("ALTER TABLE " + tableName + " ADD COLUMN " + column.getColumnName() + " "
+						+ column.getDataType().getType());
+				LOGGER.debug("Added column " + tableName + "." + column.getColumnName());
+			}
+		}
+	}
+	
+	@Override
+	public Integer getVersion() {
+		return version;
+	}
+}
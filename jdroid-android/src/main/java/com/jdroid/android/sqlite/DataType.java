@@ -3,6 +3,8 @@ package com.jdroid.android.sqlite;
 import android.content.ContentValues;
 import android.database.Cursor;
 
+import com.jdroid.android.sqlite.codec.BinaryCodec;
+import com.jdroid.android.sqlite.codec.CompactBinaryCodec;
 import com.jdroid.android.utils.AndroidEncryptionUtils;
 import com.jdroid.java.collections.Lists;
 import com.jdroid.java.json.JSONObject;
@@ -29,8 +31,7 @@ public enum DataType {
 		
 		@SuppressWarnings("unchecked")
 		@Override
-		public String readValue(Cursor cursor, String columnName) {
-			int columnIndex = cursor.getColumnIndex(columnName);
+		public String readValue(Cursor cursor, int columnIndex) {
 			if (cursor.isNull(columnIndex)) {
 				return null;
 			}
@@ -50,8 +51,7 @@ public enum DataType {
 		
 		@SuppressWarnings("unchecked")
 		@Override
-		public Integer readValue(Cursor cursor, String columnName) {
-			int columnIndex = cursor.getColumnIndex(columnName);
+		public Integer readValue(Cursor cursor, int columnIndex) {
 			if (cursor.isNull(columnIndex)) {
 				return null;
 			}
@@ -71,8 +71,7 @@ public enum DataType {
 		
 		@SuppressWarnings("unchecked")
 		@Override
-		public Long readValue(Cursor cursor, String columnName) {
-			int columnIndex = cursor.getColumnIndex(columnName);
+		public Long readValue(Cursor cursor, int columnIndex) {
 			if (cursor.isNull(columnIndex)) {
 				return null;
 			}
@@ -92,8 +91,7 @@ public enum DataType {
 		
 		@SuppressWarnings("unchecked")
 		@Override
-		public Double readValue(Cursor cursor, String columnName) {
-			int columnIndex = cursor.getColumnIndex(columnName);
+		public Double readValue(Cursor cursor, int columnIndex) {
 			if (cursor.isNull(columnIndex)) {
 				return null;
 			}
@@ -113,8 +111,7 @@ public enum DataType {
 		
 		@SuppressWarnings("unchecked")
 		@Override
-		public Float readValue(Cursor cursor, String columnName) {
-			int columnIndex = cursor.getColumnIndex(columnName);
+		public Float readValue(Cursor cursor, int columnIndex) {
 			if (cursor.isNull(columnIndex)) {
 				return null;
 			}
@@ -134,8 +131,7 @@ public enum DataType {
 		
 		@SuppressWarnings("unchecked")
 		@Override
-		public byte[] readValue(Cursor cursor, String columnName) {
-			int columnIndex = cursor.getColumnIndex(columnName);
+		public byte[] readValue(Cursor cursor, int columnIndex) {
 			if (cursor.isNull(columnIndex)) {
 				return null;
 			}
@@ -155,8 +151,7 @@ public enum DataType {
 		
 		@SuppressWarnings("unchecked")
 		@Override
-		public Boolean readValue(Cursor cursor, String columnName) {
-			int columnIndex = cursor.getColumnIndex(columnName);
+		public Boolean readValue(Cursor cursor, int columnIndex) {
 			if (cursor.isNull(columnIndex)) {
 				return null;
 			}
@@ -176,8 +171,7 @@ public enum DataType {
 		
 		@SuppressWarnings("unchecked")
 		@Override
-		public Date readValue(Cursor cursor, String columnName) {
-			int columnIndex = cursor.getColumnIndex(columnName);
+		public Date readValue(Cursor cursor, int columnIndex) {
 			if (cursor.isNull(columnIndex)) {
 				return null;
 			}
@@ -199,8 +193,7 @@ public enum DataType {
 		
 		@SuppressWarnings("unchecked")
 		@Override
-		public Date readValue(Cursor cursor, String columnName) {
-			int columnIndex = cursor.getColumnIndex(columnName);
+		public Date readValue(Cursor cursor, int columnIndex) {
 			if (cursor.isNull(columnIndex)) {
 				return null;
 			}
@@ -208,6 +201,31 @@ public enum DataType {
 			return DateUtils.parse(date, DateTimeFormat.YYYYMMDDHHMMSSSSS);
 		}
 		
+	},
+	/**
+	 * Stores the date as the milliseconds since epoch on an INTEGER column, so no date formatting or parsing is needed
+	 * and range queries and sorts use numeric comparisons.
+	 */
+	DATE_EPOCH_MILLIS("INTEGER") {
+		
+		@Override
+		public <T> void writeValue(ContentValues values, String columnName, T value) {
+			if (value != null) {
+				values.put(columnName, ((Date)value).getTime());
+			} else {
+				values.putNull(columnName);
+			}
+		}
+		
+		@SuppressWarnings("unchecked")
+		@Override
+		public Date readValue(Cursor cursor, int columnIndex) {
+			if (cursor.isNull(columnIndex)) {
+				return null;
+			}
+			return new Date(cursor.getLong(columnIndex));
+		}
+		
 	},
 	DATE_TZ("TEXT") {
 		
@@ -222,8 +240,7 @@ public enum DataType {
 		
 		@SuppressWarnings("unchecked")
 		@Override
-		public Date readValue(Cursor cursor, String columnName) {
-			int columnIndex = cursor.getColumnIndex(columnName);
+		public Date readValue(Cursor cursor, int columnIndex) {
 			if (cursor.isNull(columnIndex)) {
 				return null;
 			}
@@ -245,8 +262,7 @@ public enum DataType {
 		
 		@SuppressWarnings("unchecked")
 		@Override
-		public String readValue(Cursor cursor, String columnName) {
-			int columnIndex = cursor.getColumnIndex(columnName);
+		public String readValue(Cursor cursor, int columnIndex) {
 			if (cursor.isNull(columnIndex)) {
 				return null;
 			}
@@ -266,8 +282,7 @@ public enum DataType {
 		
 		@SuppressWarnings("unchecked")
 		@Override
-		public List<String> readValue(Cursor cursor, String columnName) {
-			int columnIndex = cursor.getColumnIndex(columnName);
+		public List<String> readValue(Cursor cursor, int columnIndex) {
 			if (cursor.isNull(columnIndex)) {
 				return null;
 			}
@@ -287,8 +302,7 @@ public enum DataType {
 		
 		@SuppressWarnings("unchecked")
 		@Override
-		public JSONObject readValue(Cursor cursor, String columnName) {
-			int columnIndex = cursor.getColumnIndex(columnName);
+		public JSONObject readValue(Cursor cursor, int columnIndex) {
 			if (cursor.isNull(columnIndex)) {
 				return null;
 			}
@@ -303,8 +317,35 @@ public enum DataType {
 			
 			return (JSONObject)parser.parse(value);
 		}
+	},
+	/**
+	 * Stores maps, lists and simple values on a BLOB column using the {@link BinaryCodec} configured with
+	 * {@link #setBinaryCodec(BinaryCodec)}. It is a cheaper alternative to {@link #MAP}, because the default
+	 * {@link CompactBinaryCodec} doesn't parse text and only decodes the map values when they are accessed.
+	 */
+	COMPACT_BINARY("BLOB") {
+		
+		@Override
+		public <T> void writeValue(ContentValues values, String columnName, T value) {
+			if (value != null) {
+				values.put(columnName, binaryCodec.encode(value));
+			} else {
+				values.putNull(columnName);
+			}
+		}
+		
+		@SuppressWarnings("unchecked")
+		@Override
+		public Object readValue(Cursor cursor, int columnIndex) {
+			if (cursor.isNull(columnIndex)) {
+				return null;
+			}
+			return binaryCodec.decode(cursor.getBlob(columnIndex));
+		}
 	};
 	
+	private static BinaryCodec binaryCodec = new CompactBinaryCodec();
+	
 	private String type;
 	
 	DataType(String type) {
@@ -315,7 +356,33 @@ public enum DataType {
 		return type;
 	}
 	
+	/**
+	 * @param binaryCodec the codec used by {@link #COMPACT_BINARY}. The already stored values must be readable by it.
+	 */
+	public static void setBinaryCodec(BinaryCodec binaryCodec) {
+		DataType.binaryCodec = binaryCodec;
+	}
+	
 	public abstract <T> void writeValue(ContentValues values, String columnName, T value);
 	
-	public abstract <T> T readValue(Cursor cursor, String columnName);
+	/**
+	 * Reads the value of the given column from the current row of the cursor. Prefer
+	 * {@link #readValue(Cursor, int)} when reading many rows, to avoid resolving the column index for each row.
+	 * 
+	 * @param cursor the cursor.
+	 * @param columnName the column name.
+	 * @return the value.
+	 */
+	public <T> T readValue(Cursor cursor, String columnName) {
+		return readValue(cursor, cursor.getColumnIndex(columnName));
+	}
+	
+	/**
+	 * Reads the value of the given column index from the current row of the cursor.
+	 * 
+	 * @param cursor the cursor.
+	 * @param columnIndex the column index.
+	 * @return the value.
+	 */
+	public abstract <T> T readValue(Cursor cursor, int columnIndex);
 }
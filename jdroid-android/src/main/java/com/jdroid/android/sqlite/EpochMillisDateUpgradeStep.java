@@ -0,0 +1,153 @@
+package com.jdroid.android.sqlite;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import com.jdroid.java.collections.Lists;
+import com.jdroid.java.date.DateUtils;
+import com.jdroid.java.utils.LoggerUtils;
+import com.jdroid.java.utils.StringUtils;
+
+import org.slf4j.Logger;
+
+import java.util.Date;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * {@link SQLiteUpgradeStep} which migrates TEXT date columns (like the ones of {@link DataType#DATE} or
+ * {@link DataType#DATE_MILLISECONDS}) to {@link DataType#DATE_EPOCH_MILLIS}. The stored dates are parsed and replaced by
+ * its milliseconds since epoch, and then the table is recreated with the given creation statement, so the columns get
+ * the INTEGER type. The step does nothing if the columns are not TEXT, so it is safe to execute it more than once.
+ */
+public class EpochMillisDateUpgradeStep implements SQLiteUpgradeStep {
+	
+	private static final Logger LOGGER = LoggerUtils.getLogger(EpochMillisDateUpgradeStep.class);
+	
+	private Integer version;
+	private String tableName;
+	private String createTableSQL;
+	private String dateFormat;
+	private String[] columnNames;
+	
+	/**
+	 * @param version db version associated to this upgrade step
+	 * @param tableName the table to migrate
+	 * @param createTableSQL the new creation statement of the table, with the date columns of type INTEGER
+	 * @param dateFormat the format used to store the dates as TEXT
+	 * @param columnNames the date columns to migrate
+	 */
+	public EpochMillisDateUpgradeStep(Integer version, String tableName, String createTableSQL, String dateFormat,
+			String... columnNames) {
+		this.version = version;
+		this.tableName = tableName;
+		this.createTableSQL = createTableSQL;
+		this.dateFormat = dateFormat;
+		this.columnNames = columnNames;
+	}
+	
+	@Override
+	public void upgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+		if (!hasTextColumns(db)) {
+			return;
+		}
+		LOGGER.debug("Migrating date columns of " + tableName + " to epoch millis");
+		for (String columnName : columnNames) {
+			convertColumn(db, columnName);
+		}
+		recreateTable(db);
+	}
+	
+	private boolean hasTextColumns(SQLiteDatabase db) {
+		List<String> textColumns = Lists.newArrayList();
+		Cursor cursor = null;
+		try {
+			cursor = db.rawQuery("PRAGMA table_info(" + tableName + ")", null);
+			int nameIndex = cursor.getColumnIndex("name");
+			int typeIndex = cursor.getColumnIndex("type");
+			while (cursor.moveToNext()) {
+				if ("TEXT".equalsIgnoreCase(cursor.getString(typeIndex))) {
+					textColumns.add(cursor.getString(nameIndex));
+				}
+			}
+		} finally {
+			if (cursor != null) {
+				cursor.close();
+			}
+		}
+		for (String columnName : columnNames) {
+			if (textColumns.contains(columnName)) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	private void convertColumn(SQLiteDatabase db, String columnName) {
+		// All the values are read before updating them, because the cursor could re-execute the query while moving
+		List<Long> rowIds = Lists.newArrayList();
+		List<String> dates = Lists.newArrayList();
+		Cursor cursor = null;
+		try {
+			cursor = db.query(tableName, new String[] { "rowid", columnName }, "typeof(" + columnName + ")='text'", null,
+				null, null, null);
+			while (cursor.moveToNext()) {
+				rowIds.add(cursor.getLong(0));
+				dates.add(cursor.getString(1));
+			}
+		} finally {
+			if (cursor != null) {
+				cursor.close();
+			}
+		}
+		
+		SQLiteStatement statement = db.compileStatement("UPDATE " + tableName + " SET " + columnName
+				+ "=? WHERE rowid=?");
+		try {
+			for (int i = 0; i < rowIds.size(); i++) {
+				Date date = DateUtils.parse(dates.get(i), dateFormat);
+				if (date != null) {
+					statement.bindLong(1, date.getTime());
+				} else {
+					statement.bindNull(1);
+				}
+				statement.bindLong(2, rowIds.get(i));
+				statement.executeUpdateDelete();
+			}
+		} finally {
+			statement.close();
+		}
+		LOGGER.debug("Migrated " + rowIds.size() + " values of " + tableName + "." + columnName);
+	}
+	
+	private void recreateTable(SQLiteDatabase db) {
+		String newTableName = tableName + "_epoch";
+		List<String> columns = Lists.newArrayList();
+		Cursor cursor = null;
+		try {
+			cursor = db.rawQuery("PRAGMA table_info(" + tableName + ")", null);
+			int nameIndex = cursor.getColumnIndex("name");
+			while (cursor.moveToNext()) {
+				columns.add(cursor.getString(nameIndex));
+			}
+		} finally {
+			if (cursor != null) {
+				cursor.close();
+			}
+		}
+		String joinedColumns = StringUtils.join(columns);
+		
+		db.execSQL(createTableSQL.replaceFirst("CREATE TABLE " + Pattern.quote(tableName) + "\\(",
+			"CREATE TABLE " + newTableName + "("));
+		db.execSQL("INSERT INTO " + newTableName + "(" + joinedColumns + ") SELECT " + joinedColumns + " FROM "
+				+ tableName);
+		db.execSQL("DROP TABLE " + tableName);
+		db.execSQL("ALTER TABLE " + newTableName + " RENAME TO " + tableName);
+	}
+	
+	@Override
+	public Integer getVersion() {
+		return version;
+	}
+}
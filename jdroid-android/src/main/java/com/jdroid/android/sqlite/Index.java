@@ -0,0 +1,88 @@
+package com.jdroid.android.sqlite;
+
+/**
+ * Represents an index definition. It could include one or many columns, and an optional WHERE clause to create a
+ * partial index (supported from SQLite 3.8.0, API 21).
+ */
+public class Index {
+	
+	/**
+	 * Prefix reserved for the names of the declared indexes. {@link SQLiteHelper} only drops the outdated indexes with
+	 * this prefix, so the indexes created by other means are never dropped.
+	 */
+	public static final String NAME_PREFIX = "jdroid_";
+	
+	private String name;
+	private Column[] columns;
+	private String where;
+	private Boolean unique;
+	
+	public Index(String name, Column... columns) {
+		this(name, false, null, columns);
+	}
+	
+	/**
+	 * @param name the name of the index. It is prefixed with {@link #NAME_PREFIX}.
+	 * @param unique whether the index is unique.
+	 * @param where the WHERE clause of a partial index, or null.
+	 * @param columns the indexed columns.
+	 */
+	public Index(String name, Boolean unique, String where, Column... columns) {
+		this.name = NAME_PREFIX + name;
+		this.unique = unique;
+		this.where = where;
+		this.columns = columns;
+	}
+	
+	/**
+	 * @return the name, including the {@link #NAME_PREFIX}.
+	 */
+	public String getName() {
+		return name;
+	}
+	
+	/**
+	 * @return the columns
+	 */
+	public Column[] getColumns() {
+		return columns;
+	}
+	
+	/**
+	 * @return the WHERE clause of a partial index, or null.
+	 */
+	public String getWhere() {
+		return where;
+	}
+	
+	/**
+	 * @return true if the index is unique.
+	 */
+	public Boolean isUnique() {
+		return unique;
+	}
+	
+	/**
+	 * Creates the SQL statement to create the index on the given table.
+	 * 
+	 * @param tableName the table name.
+	 * @return SQL statement.
+	 */
+	public String getCreateIndexSQL(String tableName) {
+		StringBuilder builder = new StringBuilder();
+		builder.append(unique ? "CREATE UNIQUE INDEX" : "CREATE INDEX");
+		builder.append(" IF NOT EXISTS ").append(name).append(" ON ").append(tableName).append("(");
+		for (int i = 0; i < columns.length; i++) {
+			if (i > 0) {
+				builder.append(", ");
+			}
+			builder.append(columns[i].getColumnName());
+		}
+		builder.append(")");
+		if (where != null) {
+			builder.append(" WHERE ").append(where);
+		}
+		builder.append(";");
+		return builder.toString();
+	}
+}
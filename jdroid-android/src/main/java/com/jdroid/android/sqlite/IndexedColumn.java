@@ -0,0 +1,13 @@
+package com.jdroid.android.sqlite;
+
+/**
+ * {@link Column} which could declare a single column index. Composite and partial indexes are declared with
+ * {@link Index} on the repository.
+ */
+public interface IndexedColumn extends Column {
+	
+	/**
+	 * @return true if an index should be created for the column.
+	 */
+	public Boolean isIndexed();
+}
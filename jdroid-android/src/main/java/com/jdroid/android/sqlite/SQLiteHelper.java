@@ -1,18 +1,24 @@
 package com.jdroid.android.sqlite;
 
 import android.content.Context;
+import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.os.Build;
 
 import com.jdroid.android.utils.AppUtils;
 import com.jdroid.java.collections.Lists;
+import com.jdroid.java.collections.Maps;
 import com.jdroid.java.collections.Sets;
 import com.jdroid.java.utils.LoggerUtils;
 
 import org.slf4j.Logger;
 
 import java.io.File;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 
 public class SQLiteHelper extends SQLiteOpenHelper {
@@ -21,10 +27,32 @@ public class SQLiteHelper extends SQLiteOpenHelper {
 	private final static String DB_NAME = "application.db";
 	
 	private Set<String> createSQLs = Sets.newHashSet();
+	private Map<String, TableIndex> tableIndexes = new LinkedHashMap<>();
+	private Set<String> indexedTables = Sets.newHashSet();
 	private List<SQLiteUpgradeStep> upgradeSteps = Lists.newArrayList();
 	
+	private SQLitePerformanceProfile performanceProfile;
+	
 	public SQLiteHelper(Context context) {
-		super(context, DB_NAME, null, AppUtils.getVersionCode());
+		this(context, new SQLitePerformanceProfile());
+	}
+	
+	public SQLiteHelper(Context context, SQLitePerformanceProfile performanceProfile) {
+		this(context, performanceProfile, null);
+	}
+	
+	/**
+	 * @param context the context.
+	 * @param performanceProfile the connection settings.
+	 * @param cursorFactory the factory used to create the query cursors, or null to use the default one.
+	 */
+	public SQLiteHelper(Context context, SQLitePerformanceProfile performanceProfile,
+			SQLiteDatabase.CursorFactory cursorFactory) {
+		super(context, DB_NAME, cursorFactory, AppUtils.getVersionCode());
+		this.performanceProfile = performanceProfile;
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+			setWriteAheadLoggingEnabled(performanceProfile.isWriteAheadLoggingEnabled());
+		}
 	}
 	
 	/**
@@ -38,6 +66,24 @@ public class SQLiteHelper extends SQLiteOpenHelper {
 		}
 	}
 	
+	/**
+	 * Add the indexes of a table to be created after the creation statements in
+	 * {@link SQLiteHelper#onCreate(SQLiteDatabase)}, and after the upgrade steps in
+	 * {@link SQLiteHelper#onUpgrade(SQLiteDatabase, int, int)}. On upgrade, the existing indexes of the table whose
+	 * definition changed are recreated, and the ones which are not included anymore are dropped. Only the indexes named
+	 * with the {@link Index#NAME_PREFIX} are dropped, so the ones created by the upgrade steps are kept. The indexes
+	 * whose table or columns don't exist yet are skipped.
+	 * 
+	 * @param tableName the table name.
+	 * @param indexes all the indexes of the table.
+	 */
+	public void addIndexes(String tableName, List<Index> indexes) {
+		indexedTables.add(tableName);
+		for (Index index : indexes) {
+			tableIndexes.put(index.getName(), new TableIndex(tableName, index));
+		}
+	}
+	
 	/**
 	 * Add a {@link SQLiteUpgradeStep} to be executed in {@link SQLiteHelper#onUpgrade(SQLiteDatabase, int, int)}
 	 * method.
@@ -58,6 +104,7 @@ public class SQLiteHelper extends SQLiteOpenHelper {
 			LOGGER.debug("Executing create SQL: " + createSQL);
 			db.execSQL(createSQL);
 		}
+		createIndexes(db);
 	}
 	
 	@Override
@@ -69,17 +116,172 @@ public class SQLiteHelper extends SQLiteOpenHelper {
 				upgradeStep.upgrade(db, oldVersion, newVersion);
 			}
 		}
+		createIndexes(db);
+	}
+	
+	private void createIndexes(SQLiteDatabase db) {
+		dropOutdatedIndexes(db);
+		Map<String, Set<String>> tablesColumnNames = Maps.newHashMap();
+		for (TableIndex tableIndex : tableIndexes.values()) {
+			Set<String> columnNames = tablesColumnNames.get(tableIndex.tableName);
+			if (columnNames == null) {
+				columnNames = getColumnNames(db, tableIndex.tableName);
+				tablesColumnNames.put(tableIndex.tableName, columnNames);
+			}
+			if (tableIndex.hasColumns(columnNames)) {
+				String createIndexSQL = tableIndex.getCreateIndexSQL();
+				LOGGER.debug("Executing create index SQL: " + createIndexSQL);
+				db.execSQL(createIndexSQL);
+			} else {
+				// The table or the column could be created later, so the index is created on the next upgrade
+				LOGGER.debug("Skipping index " + tableIndex.index.getName() + ", its table or columns don't exist");
+			}
+		}
+	}
+	
+	/**
+	 * @return the column names of the table, or an empty set if it doesn't exist.
+	 */
+	private Set<String> getColumnNames(SQLiteDatabase db, String tableName) {
+		Set<String> columnNames = Sets.newHashSet();
+		Cursor cursor = null;
+		try {
+			cursor = db.rawQuery("PRAGMA table_info(" + tableName + ")", null);
+			int nameIndex = cursor.getColumnIndex("name");
+			while (cursor.moveToNext()) {
+				columnNames.add(cursor.getString(nameIndex));
+			}
+		} finally {
+			if (cursor != null) {
+				cursor.close();
+			}
+		}
+		return columnNames;
+	}
+	
+	/**
+	 * Drops the indexes of the registered tables which are not declared anymore or whose declaration changed, so they
+	 * are created again by {@link #createIndexes(SQLiteDatabase)}. Only the indexes named with the
+	 * {@link Index#NAME_PREFIX} are considered, so the ones created by the app or by the PRIMARY KEY and UNIQUE
+	 * constraints are kept.
+	 */
+	private void dropOutdatedIndexes(SQLiteDatabase db) {
+		List<String> outdatedIndexes = Lists.newArrayList();
+		Cursor cursor = null;
+		try {
+			cursor = db.rawQuery("SELECT name, tbl_name, sql FROM sqlite_master WHERE type = 'index' AND sql IS NOT NULL",
+				null);
+			while (cursor.moveToNext()) {
+				String indexName = cursor.getString(0);
+				if (indexName.startsWith(Index.NAME_PREFIX) && indexedTables.contains(cursor.getString(1))) {
+					TableIndex tableIndex = tableIndexes.get(indexName);
+					if ((tableIndex == null) || !normalizeIndexSQL(tableIndex.getCreateIndexSQL()).equals(
+						normalizeIndexSQL(cursor.getString(2)))) {
+						outdatedIndexes.add(indexName);
+					}
+				}
+			}
+		} finally {
+			if (cursor != null) {
+				cursor.close();
+			}
+		}
+		for (String indexName : outdatedIndexes) {
+			LOGGER.debug("Dropping outdated index " + indexName);
+			db.execSQL("DROP INDEX IF EXISTS " + indexName + ";");
+		}
+	}
+	
+	/**
+	 * SQLite stores the index SQL without the IF NOT EXISTS clause, so it and the formatting differences are removed
+	 * before comparing the declarations.
+	 */
+	private static String normalizeIndexSQL(String sql) {
+		String normalizedSQL = sql.trim().replaceAll("\\s+", " ").toUpperCase(Locale.US);
+		normalizedSQL = normalizedSQL.replace(" IF NOT EXISTS ", " ").replace(" (", "(");
+		if (normalizedSQL.endsWith(";")) {
+			normalizedSQL = normalizedSQL.substring(0, normalizedSQL.length() - 1).trim();
+		}
+		return normalizedSQL;
+	}
+	
+	@Override
+	public void onConfigure(SQLiteDatabase db) {
+		super.onConfigure(db);
+		applyPerformanceProfile(db);
 	}
 	
 	@Override
 	public void onOpen(SQLiteDatabase db) {
 		super.onOpen(db);
+		if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN) {
+			applyPerformanceProfile(db);
+			// setWriteAheadLoggingEnabled is not available before Jelly Bean
+			if (performanceProfile.isWriteAheadLoggingEnabled() && !db.isReadOnly()
+					&& (Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB)) {
+				db.enableWriteAheadLogging();
+			}
+		}
 		if (!db.isReadOnly()) {
 			// Enable foreign key constraints support
 			db.execSQL("PRAGMA foreign_keys=ON;");
 		}
 	}
 	
+	private void applyPerformanceProfile(SQLiteDatabase db) {
+		if (performanceProfile.getAutoVacuum() != null) {
+			// Only applied if the database is empty
+			executePragma(db, "auto_vacuum=" + performanceProfile.getAutoVacuum().name());
+		}
+		if (performanceProfile.getPageSize() != null) {
+			// Only applied if the database is empty
+			executePragma(db, "page_size=" + performanceProfile.getPageSize());
+		}
+		if (performanceProfile.getSynchronous() != null) {
+			executePragma(db, "synchronous=" + performanceProfile.getSynchronous().name());
+		}
+		if (performanceProfile.getCacheSize() != null) {
+			executePragma(db, "cache_size=" + performanceProfile.getCacheSize());
+		}
+		if (performanceProfile.getMmapSize() != null) {
+			executePragma(db, "mmap_size=" + performanceProfile.getMmapSize());
+		}
+		if (performanceProfile.getTempStore() != null) {
+			executePragma(db, "temp_store=" + performanceProfile.getTempStore().name());
+		}
+	}
+	
+	/**
+	 * Executes the PRAGMA statement using a query, because some of them return a row and then they can't be executed
+	 * using {@link SQLiteDatabase#execSQL(String)}.
+	 */
+	private void executePragma(SQLiteDatabase db, String pragma) {
+		LOGGER.debug("Executing PRAGMA " + pragma);
+		Cursor cursor = null;
+		try {
+			cursor = db.rawQuery("PRAGMA " + pragma, null);
+			cursor.moveToFirst();
+		} finally {
+			if (cursor != null) {
+				cursor.close();
+			}
+		}
+	}
+	
+	/**
+	 * Returns the free pages to the file system. It only has effect if the database was created with
+	 * {@link SQLitePerformanceProfile.AutoVacuum#INCREMENTAL}.
+	 * 
+	 * @param db the database.
+	 */
+	public void incrementalVacuum(SQLiteDatabase db) {
+		executePragma(db, "incremental_vacuum");
+	}
+	
+	public SQLitePerformanceProfile getPerformanceProfile() {
+		return performanceProfile;
+	}
+	
 	/**
 	 * Verify if database file exits.
 	 * 
@@ -93,4 +295,31 @@ public class SQLiteHelper extends SQLiteOpenHelper {
 	public static File getDatabaseFile(Context context) {
 		return context.getApplicationContext().getDatabasePath(DB_NAME);
 	}
+	
+	/**
+	 * Index declared for a table.
+	 */
+	private static class TableIndex {
+		
+		private String tableName;
+		private Index index;
+		
+		public TableIndex(String tableName, Index index) {
+			this.tableName = tableName;
+			this.index = index;
+		}
+		
+		public String getCreateIndexSQL() {
+			return index.getCreateIndexSQL(tableName);
+		}
+		
+		public boolean hasColumns(Set<String> columnNames) {
+			for (Column column : index.getColumns()) {
+				if (!columnNames.contains(column.getColumnName())) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
 }
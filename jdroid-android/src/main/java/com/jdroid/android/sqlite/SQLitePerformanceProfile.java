@@ -0,0 +1,123 @@
+package com.jdroid.android.sqlite;
+
+/**
+ * Connection settings applied by {@link SQLiteHelper} when the database is opened. Each null setting keeps the SQLite
+ * default.
+ * <p>
+ * The cache size, mmap size and temp store are settings of each connection, so they are only applied on the primary
+ * connection, which executes all the writes and, without write-ahead logging, all the reads. With write-ahead logging,
+ * the platform opens additional read-only connections for the queries executed outside transactions without any
+ * callback, so those connections keep the SQLite defaults.
+ */
+public class SQLitePerformanceProfile {
+
+	public enum Synchronous {
+		OFF,
+		NORMAL,
+		FULL;
+	}
+
+	public enum TempStore {
+		DEFAULT,
+		FILE,
+		MEMORY;
+	}
+
+	public enum AutoVacuum {
+		NONE,
+		FULL,
+		INCREMENTAL;
+	}
+
+	private Boolean writeAheadLoggingEnabled = false;
+	private Synchronous synchronous;
+	private Integer cacheSize;
+	private Long mmapSize;
+	private TempStore tempStore;
+	private Integer pageSize;
+	private AutoVacuum autoVacuum;
+
+	/**
+	 * Profile which favors concurrent reads: it enables the write-ahead logging, so readers are not blocked by writers,
+	 * and uses NORMAL synchronous mode, which is safe when using WAL.
+	 *
+	 * @return the profile.
+	 */
+	public static SQLitePerformanceProfile createConcurrentProfile() {
+		SQLitePerformanceProfile profile = new SQLitePerformanceProfile();
+		profile.setWriteAheadLoggingEnabled(true);
+		profile.setSynchronous(Synchronous.NORMAL);
+		profile.setTempStore(TempStore.MEMORY);
+		return profile;
+	}
+
+	public Boolean isWriteAheadLoggingEnabled() {
+		return writeAheadLoggingEnabled;
+	}
+
+	public void setWriteAheadLoggingEnabled(Boolean writeAheadLoggingEnabled) {
+		this.writeAheadLoggingEnabled = writeAheadLoggingEnabled;
+	}
+
+	public Synchronous getSynchronous() {
+		return synchronous;
+	}
+
+	public void setSynchronous(Synchronous synchronous) {
+		this.synchronous = synchronous;
+	}
+
+	/**
+	 * @return the cache size. Positive values are pages, negative values are kibibytes.
+	 */
+	public Integer getCacheSize() {
+		return cacheSize;
+	}
+
+	public void setCacheSize(Integer cacheSize) {
+		this.cacheSize = cacheSize;
+	}
+
+	/**
+	 * @return the max amount of bytes of the database file to access using memory-mapped I/O.
+	 */
+	public Long getMmapSize() {
+		return mmapSize;
+	}
+
+	public void setMmapSize(Long mmapSize) {
+		this.mmapSize = mmapSize;
+	}
+
+	public TempStore getTempStore() {
+		return tempStore;
+	}
+
+	public void setTempStore(TempStore tempStore) {
+		this.tempStore = tempStore;
+	}
+
+	/**
+	 * @return the page size in bytes. It is only applied when the database is created.
+	 */
+	public Integer getPageSize() {
+		return pageSize;
+	}
+
+	public void setPageSize(Integer pageSize) {
+		this.pageSize = pageSize;
+	}
+
+	/**
+	 * @return the auto vacuum mode. It is only applied when the database is created. With
+	 * {@link AutoVacuum#INCREMENTAL}, the free pages are returned to the file system when executing
+	 * {@link SQLiteHelper#incrementalVacuum(android.database.sqlite.SQLiteDatabase)}.
+	 */
+	public AutoVacuum getAutoVacuum() {
+		return autoVacuum;
+	}
+
+	public void setAutoVacuum(AutoVacuum autoVacuum) {
+		this.autoVacuum = autoVacuum;
+	}
+}
@@ -0,0 +1,62 @@
+package com.jdroid.android.sqlite;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import com.jdroid.java.collections.Lists;
+
+import java.util.List;
+
+/**
+ * Runs EXPLAIN QUERY PLAN over queries to detect the ones which do a full table scan instead of using an index.
+ */
+public class SQLiteQueryPlanAnalyzer {
+	
+	/**
+	 * Returns the details of each step of the query plan.
+	 * 
+	 * @param db Database.
+	 * @param sql the query.
+	 * @param selectionArgs the query arguments.
+	 * @return the query plan details.
+	 */
+	public static List<String> getQueryPlan(SQLiteDatabase db, String sql, String[] selectionArgs) {
+		List<String> details = Lists.newArrayList();
+		Cursor cursor = null;
+		try {
+			cursor = db.rawQuery("EXPLAIN QUERY PLAN " + sql, selectionArgs);
+			int detailIndex = cursor.getColumnIndex("detail");
+			while (cursor.moveToNext()) {
+				details.add(cursor.getString(detailIndex));
+			}
+		} finally {
+			if (cursor != null) {
+				cursor.close();
+			}
+		}
+		return details;
+	}
+	
+	/**
+	 * @param db Database.
+	 * @param sql the query.
+	 * @param selectionArgs the query arguments.
+	 * @return true if any step of the query plan scans a whole table without using an index.
+	 */
+	public static Boolean isFullScan(SQLiteDatabase db, String sql, String[] selectionArgs) {
+		for (String detail : getQueryPlan(db, sql, selectionArgs)) {
+			if (isFullScan(detail)) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * @param detail a query plan detail, like "SCAN TABLE Log" or "SEARCH TABLE Log USING INDEX ...".
+	 * @return true if the detail describes a table scan which doesn't use an index.
+	 */
+	public static Boolean isFullScan(String detail) {
+		return detail != null && detail.startsWith("SCAN ") && !detail.contains(" USING ");
+	}
+}
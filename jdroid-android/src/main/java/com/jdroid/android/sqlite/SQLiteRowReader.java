@@ -0,0 +1,110 @@
+package com.jdroid.android.sqlite;
+
+import android.database.Cursor;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Reads the rows of a {@link Cursor} using the column indexes resolved only once, when the reader is created, instead
+ * of searching the column by name for each value of each row. It also provides primitive getters to avoid boxing when
+ * the entity accepts primitive values.
+ */
+public class SQLiteRowReader {
+
+	private Cursor cursor;
+	private Map<Column, Integer> columnIndexes = new IdentityHashMap<>();
+
+	public SQLiteRowReader(Cursor cursor, Column[] columns) {
+		this.cursor = cursor;
+		for (Column column : columns) {
+			columnIndexes.put(column, cursor.getColumnIndex(column.getColumnName()));
+		}
+	}
+
+	/**
+	 * @return the cursor
+	 */
+	public Cursor getCursor() {
+		return cursor;
+	}
+
+	/**
+	 * @param column the column.
+	 * @return the index of the column on the cursor, or -1 if the column is not part of the cursor.
+	 */
+	public int getColumnIndex(Column column) {
+		Integer columnIndex = columnIndexes.get(column);
+		if (columnIndex == null) {
+			columnIndex = cursor.getColumnIndex(column.getColumnName());
+			columnIndexes.put(column, columnIndex);
+		}
+		return columnIndex;
+	}
+
+	/**
+	 * @param column the column.
+	 * @return true if the column is part of the cursor.
+	 */
+	public Boolean hasColumn(Column column) {
+		return getColumnIndex(column) >= 0;
+	}
+
+	/**
+	 * Reads the value of the column according its {@link DataType}.
+	 *
+	 * @param column the column.
+	 * @return the value.
+	 */
+	public <E> E readValue(Column column) {
+		return column.getDataType().readValue(cursor, getColumnIndex(column));
+	}
+
+	public boolean isNull(Column column) {
+		return cursor.isNull(getColumnIndex(column));
+	}
+
+	public String getString(Column column) {
+		return cursor.getString(getColumnIndex(column));
+	}
+
+	/**
+	 * @param column the column.
+	 * @return the column value, or 0 if it is null.
+	 */
+	public int getInt(Column column) {
+		return cursor.getInt(getColumnIndex(column));
+	}
+
+	/**
+	 * @param column the column.
+	 * @return the column value, or 0 if it is null.
+	 */
+	public long getLong(Column column) {
+		return cursor.getLong(getColumnIndex(column));
+	}
+
+	/**
+	 * @param column the column.
+	 * @return the column value, or 0 if it is null.
+	 */
+	public double getDouble(Column column) {
+		return cursor.getDouble(getColumnIndex(column));
+	}
+
+	/**
+	 * @param column the column.
+	 * @return the column value, or 0 if it is null.
+	 */
+	public float getFloat(Column column) {
+		return cursor.getFloat(getColumnIndex(column));
+	}
+
+	/**
+	 * @param column the column.
+	 * @return the column value, or false if it is null.
+	 */
+	public boolean getBoolean(Column column) {
+		return cursor.getInt(getColumnIndex(column)) != 0;
+	}
+}
@@ -0,0 +1,19 @@
+package com.jdroid.android.sqlite.codec;
+
+/**
+ * Converts values to and from the bytes stored on a BLOB column.
+ */
+public interface BinaryCodec {
+	
+	/**
+	 * @param value the value to encode.
+	 * @return the encoded bytes.
+	 */
+	public byte[] encode(Object value);
+	
+	/**
+	 * @param bytes the encoded bytes.
+	 * @return the decoded value.
+	 */
+	public Object decode(byte[] bytes);
+}
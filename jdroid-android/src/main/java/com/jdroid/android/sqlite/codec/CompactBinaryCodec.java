@@ -0,0 +1,285 @@
+package com.jdroid.android.sqlite.codec;
+
+import com.jdroid.java.exception.UnexpectedException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link BinaryCodec} with a compact, schema-less format. Each value starts with a type tag. Strings and byte arrays are
+ * prefixed with its length, and each map entry and list element is prefixed with the length of its encoded value, so
+ * they can be skipped without decoding them. The decoded maps and lists are lazy: only the accessed values are decoded.
+ * <p>
+ * Supported types: null, {@link String}, {@link Integer}, {@link Short}, {@link Byte}, {@link Long}, {@link Double},
+ * {@link Float}, {@link Boolean}, byte[], {@link Map} (the keys are stored as strings) and {@link Collection}. Any
+ * other value is stored as its {@link Object#toString()}.
+ */
+public class CompactBinaryCodec implements BinaryCodec {
+	
+	static final Charset UTF_8 = Charset.forName("UTF-8");
+	
+	static final byte TAG_NULL = 0;
+	static final byte TAG_STRING = 1;
+	static final byte TAG_INT = 2;
+	static final byte TAG_LONG = 3;
+	static final byte TAG_DOUBLE = 4;
+	static final byte TAG_TRUE = 5;
+	static final byte TAG_FALSE = 6;
+	static final byte TAG_BYTES = 7;
+	static final byte TAG_MAP = 8;
+	static final byte TAG_LIST = 9;
+	static final byte TAG_SHORT = 10;
+	static final byte TAG_BYTE = 11;
+	static final byte TAG_FLOAT = 12;
+	
+	@Override
+	public byte[] encode(Object value) {
+		return new Encoder().encode(value);
+	}
+	
+	@Override
+	public Object decode(byte[] bytes) {
+		return read(bytes, 0);
+	}
+	
+	/**
+	 * Encodes a value in two passes, so the nested values are written only once: the first one computes the length of
+	 * each map entry and list element, and the second one writes them prefixed with those lengths.
+	 */
+	private static class Encoder {
+		
+		// Lengths of the map entries and list elements, in traversal order
+		private int[] lengths = new int[16];
+		private int lengthsCount;
+		private int nextLength;
+		
+		// UTF-8 bytes of the strings and map keys, in traversal order
+		private List<byte[]> strings = new ArrayList<>();
+		private int nextString;
+		
+		public byte[] encode(Object value) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream(measure(value));
+			write(out, value);
+			return out.toByteArray();
+		}
+		
+		/**
+		 * @return the length of the encoded value.
+		 */
+		private int measure(Object value) {
+			if ((value == null) || (value instanceof Boolean)) {
+				return 1;
+			} else if (value instanceof Integer || value instanceof Float) {
+				return 5;
+			} else if (value instanceof Short) {
+				return 3;
+			} else if (value instanceof Byte) {
+				return 2;
+			} else if (value instanceof Long || value instanceof Double) {
+				return 9;
+			} else if (value instanceof byte[]) {
+				return 1 + sizeOfBytes(((byte[])value).length);
+			} else if (value instanceof Map) {
+				Map<?, ?> map = (Map<?, ?>)value;
+				int length = 1 + sizeOfVarint(map.size());
+				for (Map.Entry<?, ?> entry : map.entrySet()) {
+					length += measureString(String.valueOf(entry.getKey()));
+					length += measureElement(entry.getValue());
+				}
+				return length;
+			} else if (value instanceof Collection) {
+				Collection<?> collection = (Collection<?>)value;
+				int length = 1 + sizeOfVarint(collection.size());
+				for (Object each : collection) {
+					length += measureElement(each);
+				}
+				return length;
+			} else {
+				return 1 + measureString(value instanceof String ? (String)value : value.toString());
+			}
+		}
+		
+		private int measureElement(Object value) {
+			if (lengthsCount == lengths.length) {
+				lengths = Arrays.copyOf(lengths, lengths.length * 2);
+			}
+			int index = lengthsCount++;
+			int length = measure(value);
+			lengths[index] = length;
+			return sizeOfVarint(length) + length;
+		}
+		
+		private int measureString(String value) {
+			byte[] bytes = value.getBytes(UTF_8);
+			strings.add(bytes);
+			return sizeOfBytes(bytes.length);
+		}
+		
+		private void write(ByteArrayOutputStream out, Object value) {
+			if (value == null) {
+				out.write(TAG_NULL);
+			} else if (value instanceof Integer) {
+				out.write(TAG_INT);
+				writeInt(out, (Integer)value);
+			} else if (value instanceof Short) {
+				out.write(TAG_SHORT);
+				short number = (Short)value;
+				out.write(number >>> 8);
+				out.write(number);
+			} else if (value instanceof Byte) {
+				out.write(TAG_BYTE);
+				out.write((Byte)value);
+			} else if (value instanceof Long) {
+				out.write(TAG_LONG);
+				writeLong(out, (Long)value);
+			} else if (value instanceof Double) {
+				out.write(TAG_DOUBLE);
+				writeLong(out, Double.doubleToLongBits((Double)value));
+			} else if (value instanceof Float) {
+				out.write(TAG_FLOAT);
+				writeInt(out, Float.floatToIntBits((Float)value));
+			} else if (value instanceof Boolean) {
+				out.write((Boolean)value ? TAG_TRUE : TAG_FALSE);
+			} else if (value instanceof byte[]) {
+				out.write(TAG_BYTES);
+				writeBytes(out, (byte[])value);
+			} else if (value instanceof Map) {
+				Map<?, ?> map = (Map<?, ?>)value;
+				out.write(TAG_MAP);
+				writeVarint(out, map.size());
+				for (Map.Entry<?, ?> entry : map.entrySet()) {
+					writeBytes(out, strings.get(nextString++));
+					writeElement(out, entry.getValue());
+				}
+			} else if (value instanceof Collection) {
+				Collection<?> collection = (Collection<?>)value;
+				out.write(TAG_LIST);
+				writeVarint(out, collection.size());
+				for (Object each : collection) {
+					writeElement(out, each);
+				}
+			} else {
+				// Strings and any other value, stored as its toString
+				out.write(TAG_STRING);
+				writeBytes(out, strings.get(nextString++));
+			}
+		}
+		
+		private void writeElement(ByteArrayOutputStream out, Object value) {
+			writeVarint(out, lengths[nextLength++]);
+			write(out, value);
+		}
+	}
+	
+	private static int sizeOfBytes(int length) {
+		return sizeOfVarint(length) + length;
+	}
+	
+	private static int sizeOfVarint(int value) {
+		int size = 1;
+		while ((value & ~0x7F) != 0) {
+			size++;
+			value >>>= 7;
+		}
+		return size;
+	}
+	
+	private static void writeInt(ByteArrayOutputStream out, int value) {
+		for (int shift = 24; shift >= 0; shift -= 8) {
+			out.write(value >>> shift);
+		}
+	}
+	
+	private static void writeBytes(ByteArrayOutputStream out, byte[] bytes) {
+		writeVarint(out, bytes.length);
+		out.write(bytes, 0, bytes.length);
+	}
+	
+	private static void writeLong(ByteArrayOutputStream out, long value) {
+		for (int shift = 56; shift >= 0; shift -= 8) {
+			out.write((int)(value >>> shift));
+		}
+	}
+	
+	private static void writeVarint(ByteArrayOutputStream out, int value) {
+		while ((value & ~0x7F) != 0) {
+			out.write((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.write(value);
+	}
+	
+	/**
+	 * Decodes the value which starts at the given offset.
+	 */
+	static Object read(byte[] bytes, int offset) {
+		int[] position = new int[] { offset + 1 };
+		switch (bytes[offset]) {
+			case TAG_NULL:
+				return null;
+			case TAG_STRING:
+				int length = readVarint(bytes, position);
+				return new String(bytes, position[0], length, UTF_8);
+			case TAG_INT:
+				return readInt(bytes, position[0]);
+			case TAG_SHORT:
+				return (short)(((bytes[position[0]] & 0xFF) << 8) | (bytes[position[0] + 1] & 0xFF));
+			case TAG_BYTE:
+				return bytes[position[0]];
+			case TAG_FLOAT:
+				return Float.intBitsToFloat(readInt(bytes, position[0]));
+			case TAG_LONG:
+				return readLong(bytes, position[0]);
+			case TAG_DOUBLE:
+				return Double.longBitsToDouble(readLong(bytes, position[0]));
+			case TAG_TRUE:
+				return Boolean.TRUE;
+			case TAG_FALSE:
+				return Boolean.FALSE;
+			case TAG_BYTES:
+				int bytesLength = readVarint(bytes, position);
+				byte[] value = new byte[bytesLength];
+				System.arraycopy(bytes, position[0], value, 0, bytesLength);
+				return value;
+			case TAG_MAP:
+				return new LazyBinaryMap(bytes, position);
+			case TAG_LIST:
+				return new LazyBinaryList(bytes, position);
+			default:
+				throw new UnexpectedException("Unknown binary tag: " + bytes[offset]);
+		}
+	}
+	
+	private static int readInt(byte[] bytes, int offset) {
+		return ((bytes[offset] & 0xFF) << 24) | ((bytes[offset + 1] & 0xFF) << 16) | ((bytes[offset + 2] & 0xFF) << 8)
+				| (bytes[offset + 3] & 0xFF);
+	}
+	
+	private static long readLong(byte[] bytes, int offset) {
+		long value = 0;
+		for (int i = 0; i < 8; i++) {
+			value = (value << 8) | (bytes[offset + i] & 0xFF);
+		}
+		return value;
+	}
+	
+	/**
+	 * Reads a varint at position[0], and moves the position after it.
+	 */
+	static int readVarint(byte[] bytes, int[] position) {
+		int value = 0;
+		int shift = 0;
+		byte current;
+		do {
+			current = bytes[position[0]++];
+			value |= (current & 0x7F) << shift;
+			shift += 7;
+		} while ((current & 0x80) != 0);
+		return value;
+	}
+}
@@ -0,0 +1,45 @@
+package com.jdroid.android.sqlite.codec;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * Read-only {@link List} decoded from the {@link CompactBinaryCodec} format. Each element is decoded the first time it
+ * is accessed.
+ */
+class LazyBinaryList extends AbstractList<Object> {
+	
+	private static final Object NOT_DECODED = new Object();
+	
+	private byte[] bytes;
+	private int[] offsets;
+	private Object[] values;
+	
+	LazyBinaryList(byte[] bytes, int[] position) {
+		this.bytes = bytes;
+		int size = CompactBinaryCodec.readVarint(bytes, position);
+		offsets = new int[size];
+		values = new Object[size];
+		for (int i = 0; i < size; i++) {
+			int valueLength = CompactBinaryCodec.readVarint(bytes, position);
+			offsets[i] = position[0];
+			values[i] = NOT_DECODED;
+			position[0] += valueLength;
+		}
+	}
+	
+	@Override
+	public Object get(int index) {
+		Object value = values[index];
+		if (value == NOT_DECODED) {
+			value = CompactBinaryCodec.read(bytes, offsets[index]);
+			values[index] = value;
+		}
+		return value;
+	}
+	
+	@Override
+	public int size() {
+		return offsets.length;
+	}
+}
@@ -0,0 +1,92 @@
+package com.jdroid.android.sqlite.codec;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-only {@link Map} decoded from the {@link CompactBinaryCodec} format. Only the keys are decoded when it is
+ * created; each value is decoded the first time it is accessed.
+ */
+class LazyBinaryMap extends AbstractMap<String, Object> {
+	
+	private static final Object NOT_DECODED = new Object();
+	
+	private byte[] bytes;
+	private Map<String, Integer> offsets = new LinkedHashMap<>();
+	private Map<String, Object> values = new LinkedHashMap<>();
+	
+	LazyBinaryMap(byte[] bytes, int[] position) {
+		this.bytes = bytes;
+		int size = CompactBinaryCodec.readVarint(bytes, position);
+		for (int i = 0; i < size; i++) {
+			int keyLength = CompactBinaryCodec.readVarint(bytes, position);
+			String key = new String(bytes, position[0], keyLength, CompactBinaryCodec.UTF_8);
+			position[0] += keyLength;
+			int valueLength = CompactBinaryCodec.readVarint(bytes, position);
+			offsets.put(key, position[0]);
+			position[0] += valueLength;
+		}
+	}
+	
+	@Override
+	public int size() {
+		return offsets.size();
+	}
+	
+	@Override
+	public boolean containsKey(Object key) {
+		return offsets.containsKey(key);
+	}
+	
+	@Override
+	public Object get(Object key) {
+		Integer offset = offsets.get(key);
+		if (offset == null) {
+			return null;
+		}
+		Object value = values.containsKey(key) ? values.get(key) : NOT_DECODED;
+		if (value == NOT_DECODED) {
+			value = CompactBinaryCodec.read(bytes, offset);
+			values.put((String)key, value);
+		}
+		return value;
+	}
+	
+	@Override
+	public Set<Entry<String, Object>> entrySet() {
+		return new AbstractSet<Entry<String, Object>>() {
+			
+			@Override
+			public Iterator<Entry<String, Object>> iterator() {
+				final Iterator<String> keys = offsets.keySet().iterator();
+				return new Iterator<Entry<String, Object>>() {
+					
+					@Override
+					public boolean hasNext() {
+						return keys.hasNext();
+					}
+					
+					@Override
+					public Entry<String, Object> next() {
+						String key = keys.next();
+						return new SimpleImmutableEntry<>(key, get(key));
+					}
+					
+					@Override
+					public void remove() {
+						throw new UnsupportedOperationException();
+					}
+				};
+			}
+			
+			@Override
+			public int size() {
+				return offsets.size();
+			}
+		};
+	}
+}
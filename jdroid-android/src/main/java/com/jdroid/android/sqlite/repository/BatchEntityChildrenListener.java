@@ -0,0 +1,20 @@
+package com.jdroid.android.sqlite.repository;
+
+import com.jdroid.java.domain.Entity;
+
+import java.util.List;
+
+/**
+ * {@link EntityChildrenListener} which populates the children of all the loaded entities at once, for example using
+ * {@link SQLiteRepository#findByParentIds(java.util.Collection)}, instead of executing a query for each entity.
+ */
+public interface BatchEntityChildrenListener<T extends Entity> extends EntityChildrenListener<T> {
+	
+	/**
+	 * Called after a list of entities is loaded, instead of calling {@link #onLoaded(Entity)} for each one. It allows
+	 * to populate the children of all the entities.
+	 * 
+	 * @param items loaded entities.
+	 */
+	void onLoaded(List<T> items);
+}
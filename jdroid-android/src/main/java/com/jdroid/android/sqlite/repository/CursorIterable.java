@@ -0,0 +1,76 @@
+package com.jdroid.android.sqlite.repository;
+
+import android.database.Cursor;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * {@link Iterable} which lazily creates an item for each row of a {@link Cursor}, so only the current row is kept on
+ * memory. It can be iterated only once, and it must be closed after using it. The cursor is automatically closed when
+ * the last row is reached.
+ *
+ * @param <T> Item type.
+ */
+public abstract class CursorIterable<T> implements Iterable<T>, Closeable {
+
+	private Cursor cursor;
+	private boolean iterated = false;
+
+	public CursorIterable(Cursor cursor) {
+		this.cursor = cursor;
+	}
+
+	/**
+	 * Creates an item from the current row of the cursor.
+	 *
+	 * @param cursor cursor positioned on the row to read.
+	 * @return the item.
+	 */
+	protected abstract T createObject(Cursor cursor);
+
+	@Override
+	public Iterator<T> iterator() {
+		if (iterated) {
+			throw new IllegalStateException("A CursorIterable can be iterated only once");
+		}
+		iterated = true;
+		return new Iterator<T>() {
+
+			private Boolean hasNext;
+
+			@Override
+			public boolean hasNext() {
+				if (hasNext == null) {
+					hasNext = !cursor.isClosed() && cursor.moveToNext();
+					if (!hasNext) {
+						close();
+					}
+				}
+				return hasNext;
+			}
+
+			@Override
+			public T next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				hasNext = null;
+				return createObject(cursor);
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	@Override
+	public void close() {
+		if (!cursor.isClosed()) {
+			cursor.close();
+		}
+	}
+}
@@ -0,0 +1,202 @@
+package com.jdroid.android.sqlite.repository;
+
+import android.content.ContentValues;
+import android.database.SQLException;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import com.jdroid.android.sqlite.Column;
+import com.jdroid.java.collections.Maps;
+import com.jdroid.java.utils.LoggerUtils;
+
+import org.slf4j.Logger;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes rows using compiled {@link SQLiteStatement}s instead of compiling a new INSERT statement for each row. The
+ * statements are cached by the set of columns present on the {@link ContentValues}, so rows which omit optional columns
+ * keep the same semantics as {@link SQLiteDatabase#insertOrThrow(String, String, ContentValues)}.
+ */
+public class SQLiteBulkWriter {
+
+	private static final Logger LOGGER = LoggerUtils.getLogger(SQLiteBulkWriter.class);
+
+	/**
+	 * Default value of SQLITE_MAX_VARIABLE_NUMBER
+	 */
+	private static final int MAX_VARIABLE_NUMBER = 999;
+
+	private String tableName;
+	private Column[] columns;
+
+	private SQLiteDatabase db;
+	private Map<String, SQLiteStatement> insertStatements = Maps.newHashMap();
+
+	public SQLiteBulkWriter(String tableName, Column[] columns) {
+		this.tableName = tableName;
+		this.columns = columns;
+	}
+
+	/**
+	 * Inserts the row using a cached compiled statement.
+	 *
+	 * @param db Database.
+	 * @param values the row values.
+	 * @return the row id of the inserted row.
+	 */
+	public synchronized long insert(SQLiteDatabase db, ContentValues values) {
+		SQLiteStatement statement = getInsertStatement(db, values, 1);
+		statement.clearBindings();
+		bindRow(statement, 1, values);
+		return executeInsert(statement);
+	}
+
+	/**
+	 * Inserts all the rows using multi-row INSERT statements of up to chunkSize rows each. Consecutive rows with the
+	 * same set of columns are grouped on the same statement, so the insertion order is preserved.
+	 *
+	 * @param db Database.
+	 * @param rows the rows values.
+	 * @param chunkSize the max amount of rows to insert on each statement.
+	 */
+	public synchronized void insertAll(SQLiteDatabase db, List<ContentValues> rows, int chunkSize) {
+		int start = 0;
+		while (start < rows.size()) {
+			String key = getKey(rows.get(start));
+			int end = start + 1;
+			while (end < rows.size() && key.equals(getKey(rows.get(end)))) {
+				end++;
+			}
+			insertGroup(db, rows.subList(start, end), chunkSize);
+			start = end;
+		}
+	}
+
+	private void insertGroup(SQLiteDatabase db, List<ContentValues> rows, int chunkSize) {
+		int columnsCount = Math.max(1, rows.get(0).size());
+		int rowsPerStatement = Math.max(1, Math.min(chunkSize, MAX_VARIABLE_NUMBER / columnsCount));
+		int index = 0;
+		while (rows.size() - index >= rowsPerStatement) {
+			SQLiteStatement statement = getInsertStatement(db, rows.get(index), rowsPerStatement);
+			statement.clearBindings();
+			int bindIndex = 1;
+			for (int i = 0; i < rowsPerStatement; i++) {
+				bindIndex = bindRow(statement, bindIndex, rows.get(index + i));
+			}
+			executeInsert(statement);
+			index += rowsPerStatement;
+		}
+		// The remaining rows are inserted one by one, to avoid compiling a statement for each possible remainder size
+		for (; index < rows.size(); index++) {
+			insert(db, rows.get(index));
+		}
+	}
+
+	private int bindRow(SQLiteStatement statement, int bindIndex, ContentValues values) {
+		for (Column column : columns) {
+			if (values.containsKey(column.getColumnName())) {
+				bind(statement, bindIndex, values.get(column.getColumnName()));
+				bindIndex++;
+			}
+		}
+		return bindIndex;
+	}
+
+	private long executeInsert(SQLiteStatement statement) {
+		long rowId = statement.executeInsert();
+		if (rowId == -1) {
+			throw new SQLException("Error inserting row on table " + tableName);
+		}
+		return rowId;
+	}
+
+	private SQLiteStatement getInsertStatement(SQLiteDatabase db, ContentValues values, int rowsCount) {
+		if (this.db != db || !db.isOpen()) {
+			close();
+			this.db = db;
+		}
+
+		String key = getKey(values) + "x" + rowsCount;
+		SQLiteStatement statement = insertStatements.get(key);
+		if (statement == null) {
+			statement = db.compileStatement(createInsertSQL(values, rowsCount));
+			insertStatements.put(key, statement);
+			LOGGER.trace("Compiled insert statement for table " + tableName + " [" + key + "]");
+		}
+		return statement;
+	}
+
+	private String getKey(ContentValues values) {
+		StringBuilder keyBuilder = new StringBuilder();
+		for (Column column : columns) {
+			keyBuilder.append(values.containsKey(column.getColumnName()) ? '1' : '0');
+		}
+		return keyBuilder.toString();
+	}
+
+	private String createInsertSQL(ContentValues values, int rowsCount) {
+		StringBuilder builder = new StringBuilder();
+		StringBuilder placeholders = new StringBuilder();
+		builder.append("INSERT INTO ").append(tableName).append("(");
+		boolean first = true;
+		for (Column column : columns) {
+			if (values.containsKey(column.getColumnName())) {
+				if (!first) {
+					builder.append(", ");
+					placeholders.append(", ");
+				}
+				first = false;
+				builder.append(column.getColumnName());
+				placeholders.append("?");
+			}
+		}
+		builder.append(") VALUES ");
+		for (int i = 0; i < rowsCount; i++) {
+			if (i > 0) {
+				builder.append(", ");
+			}
+			builder.append("(").append(placeholders).append(")");
+		}
+		builder.append(";");
+		return builder.toString();
+	}
+
+	/**
+	 * Binds the value on the statement according its type. The supported types are the ones that can be stored on
+	 * {@link ContentValues}.
+	 *
+	 * @param statement the statement.
+	 * @param index the 1-based index of the parameter.
+	 * @param value the value to bind.
+	 */
+	public static void bind(SQLiteStatement statement, int index, Object value) {
+		if (value == null) {
+			statement.bindNull(index);
+		} else if (value instanceof String) {
+			statement.bindString(index, (String)value);
+		} else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+			statement.bindLong(index, ((Number)value).longValue());
+		} else if (value instanceof Double || value instanceof Float) {
+			statement.bindDouble(index, ((Number)value).doubleValue());
+		} else if (value instanceof Boolean) {
+			statement.bindLong(index, (Boolean)value ? 1 : 0);
+		} else if (value instanceof byte[]) {
+			statement.bindBlob(index, (byte[])value);
+		} else {
+			statement.bindString(index, value.toString());
+		}
+	}
+
+	/**
+	 * Releases all the compiled statements.
+	 */
+	public synchronized void close() {
+		for (SQLiteStatement statement : insertStatements.values()) {
+			statement.close();
+		}
+		insertStatements.clear();
+		db = null;
+	}
+}
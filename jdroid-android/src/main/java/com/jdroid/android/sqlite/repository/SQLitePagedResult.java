@@ -0,0 +1,37 @@
+package com.jdroid.android.sqlite.repository;
+
+import com.jdroid.java.search.PagedResult;
+
+import java.util.List;
+
+/**
+ * {@link PagedResult} which also includes the key of the last row of the page, to be used to request the next page
+ * using seek pagination.
+ *
+ * @param <T> The list item.
+ */
+public class SQLitePagedResult<T> extends PagedResult<T> {
+
+	private String lastSortValue;
+	private String lastId;
+
+	public SQLitePagedResult(List<T> results, Boolean isLastPage, String lastSortValue, String lastId) {
+		super(results, isLastPage);
+		this.lastSortValue = lastSortValue;
+		this.lastId = lastId;
+	}
+
+	/**
+	 * @return the value of the sort column of the last row of the page, or null if the page is empty.
+	 */
+	public String getLastSortValue() {
+		return lastSortValue;
+	}
+
+	/**
+	 * @return the id of the last row of the page, or null if the page is empty.
+	 */
+	public String getLastId() {
+		return lastId;
+	}
+}
@@ -2,12 +2,22 @@ package com.jdroid.android.sqlite.repository;
 
 import android.content.ContentValues;
 import android.database.Cursor;
+import android.database.DatabaseUtils;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteQueryBuilder;
 
 import com.jdroid.android.application.AbstractApplication;
+import com.jdroid.android.repository.CachedRepository;
 import com.jdroid.android.sqlite.Column;
+import com.jdroid.android.sqlite.DataType;
+import com.jdroid.android.sqlite.Index;
+import com.jdroid.android.sqlite.IndexedColumn;
 import com.jdroid.android.sqlite.SQLiteHelper;
+import com.jdroid.android.sqlite.SQLiteQueryPlanAnalyzer;
+import com.jdroid.android.sqlite.SQLiteRowReader;
 import com.jdroid.java.collections.Lists;
+import com.jdroid.java.collections.Maps;
+import com.jdroid.java.collections.Sets;
 import com.jdroid.java.domain.Entity;
 import com.jdroid.java.repository.Repository;
 import com.jdroid.java.utils.LoggerUtils;
@@ -16,8 +26,11 @@ import com.jdroid.java.utils.StringUtils;
 import org.slf4j.Logger;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Repository implementation which uses SQLite.
@@ -28,10 +41,21 @@ public abstract class SQLiteRepository<T extends Entity> implements Repository<T
 	
 	private static final Logger LOGGER = LoggerUtils.getLogger(SQLiteRepository.class);
 	
+	private static final int DEFAULT_BULK_CHUNK_SIZE = 500;
+	
+	/**
+	 * Max amount of parameters for IN clauses, below the default SQLITE_MAX_VARIABLE_NUMBER (999).
+	 */
+	private static final int MAX_PARAMETERS_PER_STATEMENT = 500;
+	
 	protected SQLiteHelper dbHelper;
 
 	private EntityChildrenListener<T> entityChildrenListener;
 	
+	private SQLiteBulkWriter bulkWriter;
+	
+	private String[] projection;
+	
 	/**
 	 * Constructor. It register create SQL statements in {@link SQLiteHelper}.
 	 * 
@@ -40,6 +64,7 @@ public abstract class SQLiteRepository<T extends Entity> implements Repository<T
 	public SQLiteRepository(SQLiteHelper dbHelper, EntityChildrenListener<T> entityChildrenListener) {
 		this.dbHelper = dbHelper;
 		this.dbHelper.addCreateSQL(getCreateTableSQL());
+		this.dbHelper.addIndexes(getTableName(), getIndexes());
 		this.entityChildrenListener = entityChildrenListener;
 	}
 
@@ -87,6 +112,22 @@ public abstract class SQLiteRepository<T extends Entity> implements Repository<T
 	 */
 	protected abstract T createObjectFromCursor(Cursor cursor);
 	
+	/**
+	 * Creates and populate an entity instance which data from the current row of the {@link SQLiteRowReader}. It does
+	 * NOT populate entity children. The reader is created once per cursor, so the column indexes are not resolved for
+	 * each row. By default it delegates on {@link #createObjectFromCursor(Cursor)}.
+	 * 
+	 * @param rowReader reader to get data.
+	 * @return an entity instance.
+	 */
+	protected T createObjectFromRow(SQLiteRowReader rowReader) {
+		return createObjectFromCursor(rowReader.getCursor());
+	}
+	
+	private SQLiteRowReader createRowReader(Cursor cursor) {
+		return new SQLiteRowReader(cursor, getColumns());
+	}
+	
 	/**
 	 * Creates and populate an instance of {@link ContentValues} which the entity data.
 	 * 
@@ -104,6 +145,25 @@ public abstract class SQLiteRepository<T extends Entity> implements Repository<T
 		return null;
 	}
 	
+	/**
+	 * Max amount of rows inserted by {@link #addAll(Collection)} on each multi-row INSERT statement.
+	 * 
+	 * @return the chunk size.
+	 */
+	protected int getBulkChunkSize() {
+		return DEFAULT_BULK_CHUNK_SIZE;
+	}
+	
+	/**
+	 * @return the {@link SQLiteBulkWriter} used to insert rows with compiled statements.
+	 */
+	protected synchronized SQLiteBulkWriter getBulkWriter() {
+		if (bulkWriter == null) {
+			bulkWriter = new SQLiteBulkWriter(getTableName(), getColumns());
+		}
+		return bulkWriter;
+	}
+	
 	/**
 	 * Begins a transaction if there is not a transaction started yet.
 	 * 
@@ -156,7 +216,7 @@ public abstract class SQLiteRepository<T extends Entity> implements Repository<T
 				new String[] { id }, null, null, null);
 			T item = null;
 			if (cursor.moveToNext()) {
-				item = createObjectFromCursor(cursor);
+				item = createObjectFromRow(createRowReader(cursor));
 				if (entityChildrenListener != null) {
 					entityChildrenListener.onLoaded(item);
 				}
@@ -174,35 +234,18 @@ public abstract class SQLiteRepository<T extends Entity> implements Repository<T
 	@Override
 	public List<T> findByField(String fieldName, Object... values) {
 		SQLiteDatabase db = dbHelper.getReadableDatabase();
-		String selection;
-		String[] selectionArgs = null;
-		if ((values != null) && (values.length > 0)) {
-			selectionArgs = new String[values.length];
-			StringBuilder sb = new StringBuilder(fieldName + " IN (");
-			for (int i = 0; i < values.length; i++) {
-				selectionArgs[i] = values[i].toString();
-				if (i > 0) {
-					sb.append(",");
-				}
-				sb.append("?");
-			}
-			sb.append(")");
-			selection = sb.toString();
-		} else {
-			selection = fieldName + " IS NULL";
-		}
+		String[] selectionArgs = getSelectionArgs(values);
+		String selection = getSelection(fieldName, selectionArgs);
 		Cursor cursor = null;
 		try {
 			ArrayList<T> items = new ArrayList<>();
 			cursor = db.query(getTableName(), getProjection(), selection, selectionArgs, null, null, getDefaultSort());
+			SQLiteRowReader rowReader = createRowReader(cursor);
 			while (cursor.moveToNext()) {
-				T item = createObjectFromCursor(cursor);
-				if (entityChildrenListener != null) {
-					entityChildrenListener.onLoaded(item);
-				}
-				items.add(item);
+				items.add(createObjectFromRow(rowReader));
 			}
 			cursor.close();
+			notifyLoaded(items);
 			
 			LOGGER.trace("Retrieved objects from database [" + items.size() + "] of type: " + getTableName() + ". Field: " + fieldName
 					+ " | Values: " + values);
@@ -215,6 +258,277 @@ public abstract class SQLiteRepository<T extends Entity> implements Repository<T
 		}
 	}
 	
+	/**
+	 * Returns a lazy {@link CursorIterable} over the entities where the given field matches any of the values. Unlike
+	 * {@link #findByField(String, Object...)}, each entity is created (and its children loaded) only when the iteration
+	 * reaches it, so big tables can be processed without keeping all the entities on memory. The returned iterable must
+	 * be closed.
+	 * 
+	 * @param fieldName the field name. If null, all the entities are iterated.
+	 * @param values the values to match. If empty, the field is compared against null.
+	 * @return the lazy iterable.
+	 */
+	public CursorIterable<T> iterateByField(String fieldName, Object... values) {
+		String[] selectionArgs = getSelectionArgs(values);
+		LOGGER.trace("Iterating objects from database of type: " + getTableName() + ". Field: " + fieldName);
+		return iterate(getSelection(fieldName, selectionArgs), selectionArgs, getDefaultSort());
+	}
+	
+	/**
+	 * Returns a lazy {@link CursorIterable} over the entities matching the given selection. The returned iterable must
+	 * be closed.
+	 * 
+	 * @param selection the WHERE clause, without the WHERE keyword. If null, all the entities are returned.
+	 * @param selectionArgs the selection arguments.
+	 * @param orderBy the ORDER BY clause. If null, {@link #getDefaultSort()} is used.
+	 * @return the lazy iterable.
+	 */
+	@SuppressWarnings("resource")
+	public CursorIterable<T> iterate(String selection, String[] selectionArgs, String orderBy) {
+		SQLiteDatabase db = dbHelper.getReadableDatabase();
+		Cursor cursor = db.query(getTableName(), getProjection(), selection, selectionArgs, null, null,
+			orderBy != null ? orderBy : getDefaultSort());
+		final SQLiteRowReader rowReader = createRowReader(cursor);
+		return new CursorIterable<T>(cursor) {
+			
+			@Override
+			protected T createObject(Cursor cursor) {
+				T item = createObjectFromRow(rowReader);
+				if (entityChildrenListener != null) {
+					entityChildrenListener.onLoaded(item);
+				}
+				return item;
+			}
+		};
+	}
+	
+	/**
+	 * Returns a lazy {@link CursorIterable} over all the entities. The returned iterable must be closed.
+	 * 
+	 * @return the lazy iterable.
+	 * @see #iterateByField(String, Object...)
+	 */
+	public CursorIterable<T> iterateAll() {
+		return iterateByField(null, (Object[])null);
+	}
+	
+	/**
+	 * Returns a page of entities using seek (keyset) pagination. Instead of skipping the previous rows with an OFFSET,
+	 * the query starts right after the last row of the previous page, so the cost of each page doesn't depend on its
+	 * position. The id column is used as tiebreaker, so the sort column doesn't need to be unique, but it shouldn't
+	 * contain null values.
+	 * 
+	 * @param pageSize the max amount of entities of the page.
+	 * @param sortColumn the column to sort by. If null, the id column is used.
+	 * @param ascending whether the sort is ascending or descending.
+	 * @param lastSortValue the sort column value of the last row of the previous page. See
+	 *            {@link SQLitePagedResult#getLastSortValue()}.
+	 * @param lastId the id of the last row of the previous page, or null to get the first page. See
+	 *            {@link SQLitePagedResult#getLastId()}.
+	 * @return the page.
+	 */
+	public SQLitePagedResult<T> findPage(int pageSize, String sortColumn, boolean ascending, String lastSortValue,
+			String lastId) {
+		return findPage(null, null, pageSize, sortColumn, ascending, lastSortValue, lastId);
+	}
+	
+	/**
+	 * Returns a page of the entities matching the given selection using seek (keyset) pagination.
+	 * 
+	 * @param filterSelection the WHERE clause, without the WHERE keyword, to filter the entities. It could be null.
+	 * @param filterSelectionArgs the filter selection arguments.
+	 * @param pageSize the max amount of entities of the page.
+	 * @param sortColumn the column to sort by. If null, the id column is used.
+	 * @param ascending whether the sort is ascending or descending.
+	 * @param lastSortValue the sort column value of the last row of the previous page.
+	 * @param lastId the id of the last row of the previous page, or null to get the first page.
+	 * @return the page.
+	 * @see #findPage(int, String, boolean, String, String)
+	 */
+	@SuppressWarnings("resource")
+	public SQLitePagedResult<T> findPage(String filterSelection, String[] filterSelectionArgs, int pageSize,
+			String sortColumn, boolean ascending, String lastSortValue, String lastId) {
+		String idColumn = getIdColumnName();
+		boolean sortById = (sortColumn == null) || sortColumn.equals(idColumn);
+		if (sortById) {
+			sortColumn = idColumn;
+		}
+		String operator = ascending ? ">" : "<";
+		String direction = ascending ? " ASC" : " DESC";
+		
+		String selection = null;
+		String[] selectionArgs = null;
+		if (lastId != null) {
+			if (sortById) {
+				selection = idColumn + operator + "?";
+				selectionArgs = new String[] { lastId };
+			} else {
+				selection = "(" + sortColumn + operator + "? OR (" + sortColumn + "=? AND " + idColumn + operator + "?))";
+				selectionArgs = new String[] { lastSortValue, lastSortValue, lastId };
+			}
+		}
+		String orderBy = sortById ? idColumn + direction : sortColumn + direction + ", " + idColumn + direction;
+		
+		if (filterSelection != null) {
+			if (selection != null) {
+				selection = "(" + filterSelection + ") AND " + selection;
+				List<String> args = Lists.newArrayList();
+				if (filterSelectionArgs != null) {
+					args.addAll(Arrays.asList(filterSelectionArgs));
+				}
+				args.addAll(Arrays.asList(selectionArgs));
+				selectionArgs = args.toArray(new String[args.size()]);
+			} else {
+				selection = filterSelection;
+				selectionArgs = filterSelectionArgs;
+			}
+		}
+		
+		SQLiteDatabase db = dbHelper.getReadableDatabase();
+		Cursor cursor = null;
+		try {
+			cursor = db.query(getTableName(), getProjection(), selection, selectionArgs, null, null, orderBy,
+				String.valueOf(pageSize + 1));
+			return createPage(cursor, pageSize, sortColumn);
+		} finally {
+			if (cursor != null) {
+				cursor.close();
+			}
+		}
+	}
+	
+	/**
+	 * Returns a page of entities using LIMIT/OFFSET pagination. Prefer
+	 * {@link #findPage(int, String, boolean, String, String)} for big tables, since SQLite needs to step over all the
+	 * skipped rows.
+	 * 
+	 * @param page the 1-based page number.
+	 * @param pageSize the max amount of entities of the page.
+	 * @param orderBy the ORDER BY clause. If null, {@link #getDefaultSort()} is used.
+	 * @return the page.
+	 */
+	@SuppressWarnings("resource")
+	public SQLitePagedResult<T> findPageByOffset(int page, int pageSize, String orderBy) {
+		SQLiteDatabase db = dbHelper.getReadableDatabase();
+		Cursor cursor = null;
+		try {
+			int offset = (page - 1) * pageSize;
+			cursor = db.query(getTableName(), getProjection(), null, null, null, null,
+				orderBy != null ? orderBy : getDefaultSort(), offset + "," + (pageSize + 1));
+			return createPage(cursor, pageSize, getIdColumnName());
+		} finally {
+			if (cursor != null) {
+				cursor.close();
+			}
+		}
+	}
+	
+	private SQLitePagedResult<T> createPage(Cursor cursor, int pageSize, String sortColumn) {
+		List<T> items = Lists.newArrayList();
+		String lastSortValue = null;
+		String lastId = null;
+		int sortColumnIndex = cursor.getColumnIndex(sortColumn);
+		int idColumnIndex = cursor.getColumnIndex(getIdColumnName());
+		SQLiteRowReader rowReader = createRowReader(cursor);
+		while ((items.size() < pageSize) && cursor.moveToNext()) {
+			items.add(createObjectFromRow(rowReader));
+			lastSortValue = cursor.getString(sortColumnIndex);
+			lastId = cursor.getString(idColumnIndex);
+		}
+		Boolean isLastPage = !cursor.moveToNext();
+		notifyLoaded(items);
+		LOGGER.trace("Retrieved page from database [" + items.size() + "] of type: " + getTableName());
+		return new SQLitePagedResult<>(items, isLastPage, lastSortValue, lastId);
+	}
+	
+	/**
+	 * Returns the entities whose parent id is any of the given ones, grouped by parent id. The entities are loaded using
+	 * a single query for each batch of 500 parents, so it is useful to populate the children of many entities without
+	 * executing a query for each parent. See {@link BatchEntityChildrenListener}.
+	 * 
+	 * @param parentIds the parent ids.
+	 * @return the children of each parent. The parents without children are not included.
+	 */
+	@SuppressWarnings("resource")
+	public Map<String, List<T>> findByParentIds(Collection<String> parentIds) {
+		Map<String, List<T>> childrenMap = Maps.newHashMap();
+		SQLiteDatabase db = dbHelper.getReadableDatabase();
+		List<String> parentIdsList = Lists.newArrayList(parentIds);
+		List<T> allChildren = Lists.newArrayList();
+		for (int from = 0; from < parentIdsList.size(); from += MAX_PARAMETERS_PER_STATEMENT) {
+			List<String> batch = parentIdsList.subList(from, Math.min(from + MAX_PARAMETERS_PER_STATEMENT, parentIdsList.size()));
+			String[] selectionArgs = batch.toArray(new String[batch.size()]);
+			Cursor cursor = null;
+			try {
+				cursor = db.query(getTableName(), getProjection(), getSelection(getParentIdColumnName(), selectionArgs),
+					selectionArgs, null, null, getDefaultSort());
+				SQLiteRowReader rowReader = createRowReader(cursor);
+				int parentIdColumnIndex = cursor.getColumnIndex(getParentIdColumnName());
+				while (cursor.moveToNext()) {
+					T item = createObjectFromRow(rowReader);
+					String parentId = cursor.getString(parentIdColumnIndex);
+					List<T> children = childrenMap.get(parentId);
+					if (children == null) {
+						children = Lists.newArrayList();
+						childrenMap.put(parentId, children);
+					}
+					children.add(item);
+					allChildren.add(item);
+				}
+			} finally {
+				if (cursor != null) {
+					cursor.close();
+				}
+			}
+		}
+		notifyLoaded(allChildren);
+		LOGGER.trace("Retrieved children from database [" + allChildren.size() + "] of type: " + getTableName()
+				+ " for " + parentIdsList.size() + " parents");
+		return childrenMap;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private void notifyLoaded(List<T> items) {
+		if (entityChildrenListener instanceof BatchEntityChildrenListener) {
+			if (!items.isEmpty()) {
+				((BatchEntityChildrenListener<T>)entityChildrenListener).onLoaded(items);
+			}
+		} else if (entityChildrenListener != null) {
+			for (T item : items) {
+				entityChildrenListener.onLoaded(item);
+			}
+		}
+	}
+	
+	private String[] getSelectionArgs(Object... values) {
+		String[] selectionArgs = null;
+		if ((values != null) && (values.length > 0)) {
+			selectionArgs = new String[values.length];
+			for (int i = 0; i < values.length; i++) {
+				selectionArgs[i] = values[i].toString();
+			}
+		}
+		return selectionArgs;
+	}
+	
+	private String getSelection(String fieldName, String[] selectionArgs) {
+		if (fieldName == null) {
+			return null;
+		} else if (selectionArgs != null) {
+			StringBuilder sb = new StringBuilder(fieldName + " IN (");
+			for (int i = 0; i < selectionArgs.length; i++) {
+				if (i > 0) {
+					sb.append(",");
+				}
+				sb.append("?");
+			}
+			sb.append(")");
+			return sb.toString();
+		} else {
+			return fieldName + " IS NULL";
+		}
+	}
+	
 	@Override
 	public List<T> getAll(List<String> ids) {
 		return findByField(getIdColumnName(), ids);
@@ -227,22 +541,82 @@ public abstract class SQLiteRepository<T extends Entity> implements Repository<T
 	
 	@Override
 	public Boolean isEmpty() {
-		return getSize() == 0;
+		return !exists(null);
 	}
 	
-	@SuppressWarnings("resource")
 	@Override
 	public Long getSize() {
+		return count(null);
+	}
+	
+	/**
+	 * Counts the rows which match the selection using SELECT COUNT(*), without loading them on a cursor.
+	 * 
+	 * @param selection the WHERE clause, or null to count all the rows.
+	 * @param selectionArgs the selection arguments.
+	 * @return the amount of rows.
+	 */
+	@SuppressWarnings("resource")
+	public Long count(String selection, String... selectionArgs) {
 		SQLiteDatabase db = dbHelper.getReadableDatabase();
-		Cursor cursor = null;
-		try {
-			cursor = db.query(getTableName(), new String[0], null, null, null, null, null);
-			return (long)cursor.getCount();
-		} finally {
-			if (cursor != null) {
-				cursor.close();
-			}
-		}
+		return DatabaseUtils.queryNumEntries(db, getTableName(), selection, selectionArgs);
+	}
+	
+	/**
+	 * Verifies if there is at least one row which matches the selection. SQLite stops at the first matching row.
+	 * 
+	 * @param selection the WHERE clause, or null to verify if the table has any row.
+	 * @param selectionArgs the selection arguments.
+	 * @return true if there is any row.
+	 */
+	@SuppressWarnings("resource")
+	public Boolean exists(String selection, String... selectionArgs) {
+		SQLiteDatabase db = dbHelper.getReadableDatabase();
+		String sql = "SELECT EXISTS(SELECT 1 FROM " + getTableName() + getWhereClause(selection) + ")";
+		return DatabaseUtils.longForQuery(db, sql, selectionArgs) != 0;
+	}
+	
+	/**
+	 * @param columnName the column name.
+	 * @param selection the WHERE clause, or null to include all the rows.
+	 * @param selectionArgs the selection arguments.
+	 * @return the min value of the column, or null if there are no rows.
+	 */
+	public String min(String columnName, String selection, String... selectionArgs) {
+		return aggregate("MIN", columnName, selection, selectionArgs);
+	}
+	
+	/**
+	 * @param columnName the column name.
+	 * @param selection the WHERE clause, or null to include all the rows.
+	 * @param selectionArgs the selection arguments.
+	 * @return the max value of the column, or null if there are no rows.
+	 */
+	public String max(String columnName, String selection, String... selectionArgs) {
+		return aggregate("MAX", columnName, selection, selectionArgs);
+	}
+	
+	/**
+	 * @param columnName the column name.
+	 * @param selection the WHERE clause, or null to include all the rows.
+	 * @param selectionArgs the selection arguments.
+	 * @return the sum of the column values, or 0 if there are no rows.
+	 */
+	public Double sum(String columnName, String selection, String... selectionArgs) {
+		return Double.valueOf(aggregate("TOTAL", columnName, selection, selectionArgs));
+	}
+	
+	@SuppressWarnings("resource")
+	private String aggregate(String function, String columnName, String selection, String... selectionArgs) {
+		SQLiteDatabase db = dbHelper.getReadableDatabase();
+		String sql = "SELECT " + function + "(" + columnName + ") FROM " + getTableName() + getWhereClause(selection);
+		String result = DatabaseUtils.stringForQuery(db, sql, selectionArgs);
+		LOGGER.trace("Executed " + function + "(" + columnName + ") on table " + getTableName() + ": " + result);
+		return result;
+	}
+	
+	private String getWhereClause(String selection) {
+		return StringUtils.isNotEmpty(selection) ? " WHERE " + selection : "";
 	}
 	
 	@Override
@@ -266,22 +640,64 @@ public abstract class SQLiteRepository<T extends Entity> implements Repository<T
 		}
 	}
 	
+	/**
+	 * Inserts all the items on a single transaction, using the {@link SQLiteBulkWriter}. The rows are written from
+	 * {@link #createContentValuesFromObject(Entity)} without calling {@link #add(Entity)} for each item, so subclasses
+	 * which override {@link #add(Entity)} to customize the insertion must also override this method.
+	 * 
+	 * @param items the items to insert.
+	 */
 	@Override
 	public void addAll(Collection<T> items) {
 		@SuppressWarnings("resource")
 		SQLiteDatabase db = dbHelper.getWritableDatabase();
 		boolean endTransaction = beginTransaction(db);
 		try {
+			SQLiteBulkWriter bulkWriter = getBulkWriter();
+			int chunkSize = getBulkChunkSize();
+			List<T> pendingItems = Lists.newArrayList();
+			List<ContentValues> pendingValues = Lists.newArrayList();
+			int count = 0;
 			for (T item : items) {
-				add(item);
+				ContentValues values = createContentValuesFromObject(item);
+				if (item.getId() == null) {
+					// The generated id is needed, so the row can't be part of a multi-row insert
+					flush(db, pendingItems, pendingValues);
+					Long id = bulkWriter.insert(db, values);
+					item.setId(id.toString());
+					if (entityChildrenListener != null) {
+						entityChildrenListener.onStored(item);
+					}
+				} else {
+					pendingItems.add(item);
+					pendingValues.add(values);
+					if (pendingItems.size() >= chunkSize) {
+						flush(db, pendingItems, pendingValues);
+					}
+				}
+				count++;
 			}
-			LOGGER.trace("Stored objects in database:\n" + items);
+			flush(db, pendingItems, pendingValues);
+			LOGGER.trace("Stored " + count + " objects in database of type: " + getTableName());
 			successTransaction(db, endTransaction);
 		} finally {
 			endTransaction(db, endTransaction);
 		}
 	}
 	
+	private void flush(SQLiteDatabase db, List<T> pendingItems, List<ContentValues> pendingValues) {
+		if (!pendingItems.isEmpty()) {
+			getBulkWriter().insertAll(db, pendingValues, getBulkChunkSize());
+			if (entityChildrenListener != null) {
+				for (T item : pendingItems) {
+					entityChildrenListener.onStored(item);
+				}
+			}
+			pendingItems.clear();
+			pendingValues.clear();
+		}
+	}
+	
 	@Override
 	public void update(T item) {
 		@SuppressWarnings("resource")
@@ -302,17 +718,23 @@ public abstract class SQLiteRepository<T extends Entity> implements Repository<T
 	
 	@Override
 	public void replaceAll(Collection<T> items) {
+		if (isSynchronizedReplaceAllEnabled()) {
+			synchronize(items);
+			return;
+		}
 		@SuppressWarnings("resource")
 		SQLiteDatabase db = dbHelper.getWritableDatabase();
 		boolean endTransaction = beginTransaction(db);
 		try {
-			List<String> idsToKeep = Lists.newArrayList();
+			Set<String> idsToKeep = Sets.newHashSet();
 			for (T item : items) {
-				idsToKeep.add(item.getId());
+				if (item.getId() != null) {
+					idsToKeep.add(item.getId());
+				}
 			}
-			db.delete(getTableName(), getIdColumnName() + " NOT IN (" + StringUtils.join(idsToKeep) + ")", null);
-			LOGGER.trace("Deleted from database all objects of type: " + getTableName() + " with ids != to " + idsToKeep);
-
+			int deletedCount = deleteAllExcept(db, idsToKeep);
+			LOGGER.trace("Deleted from database " + deletedCount + " objects of type: " + getTableName());
+			
 			for (T item : items) {
 				add(item);
 			}
@@ -322,6 +744,201 @@ public abstract class SQLiteRepository<T extends Entity> implements Repository<T
 		}
 	}
 	
+	/**
+	 * Whether {@link #replaceAll(Collection)} should use {@link #synchronize(Collection)} instead of deleting and
+	 * inserting again all the rows. Keep it disabled if the {@link EntityChildrenListener} needs
+	 * {@link EntityChildrenListener#onStored(Entity)} to be called for each item, since the unchanged items are not
+	 * notified.
+	 * 
+	 * @return true to enable the synchronization mode.
+	 */
+	protected Boolean isSynchronizedReplaceAllEnabled() {
+		return false;
+	}
+	
+	/**
+	 * Makes the table contain exactly the given items, writing only the differences: the items whose id is not stored
+	 * are inserted, the stored items whose column values changed are updated, and the stored items not included are
+	 * deleted. Unchanged rows are not touched, so they don't trigger ON CONFLICT REPLACE or ON DELETE CASCADE.
+	 * 
+	 * @param items the items to keep.
+	 * @return the amount of inserted, updated, unchanged and deleted rows.
+	 */
+	@SuppressWarnings("resource")
+	public SynchronizationResult synchronize(Collection<T> items) {
+		SynchronizationResult result = new SynchronizationResult();
+		SQLiteDatabase db = dbHelper.getWritableDatabase();
+		boolean endTransaction = beginTransaction(db);
+		try {
+			Set<String> idsToKeep = Sets.newHashSet();
+			List<T> itemsToInsert = Lists.newArrayList();
+			List<T> chunk = Lists.newArrayList();
+			for (T item : items) {
+				if (item.getId() == null) {
+					itemsToInsert.add(item);
+				} else {
+					idsToKeep.add(item.getId());
+					chunk.add(item);
+					if (chunk.size() == MAX_PARAMETERS_PER_STATEMENT) {
+						synchronizeChunk(db, chunk, itemsToInsert, result);
+						chunk.clear();
+					}
+				}
+			}
+			synchronizeChunk(db, chunk, itemsToInsert, result);
+			
+			if (entityChildrenListener != null) {
+				for (String id : findIdsExcept(db, idsToKeep)) {
+					remove(id);
+					result.addDeletedCount(1);
+				}
+			} else {
+				result.addDeletedCount(deleteAllExcept(db, idsToKeep));
+			}
+			
+			addAll(itemsToInsert);
+			result.addInsertedCount(itemsToInsert.size());
+			
+			LOGGER.trace("Synchronized objects of type: " + getTableName() + ". " + result);
+			successTransaction(db, endTransaction);
+		} finally {
+			endTransaction(db, endTransaction);
+		}
+		return result;
+	}
+	
+	private void synchronizeChunk(SQLiteDatabase db, List<T> chunk, List<T> itemsToInsert, SynchronizationResult result) {
+		if (chunk.isEmpty()) {
+			return;
+		}
+		Map<String, ContentValues> storedValues = Maps.newHashMap();
+		Cursor cursor = null;
+		try {
+			List<String> ids = Lists.newArrayList();
+			for (T item : chunk) {
+				ids.add(item.getId());
+			}
+			String[] selectionArgs = ids.toArray(new String[ids.size()]);
+			cursor = db.query(getTableName(), getProjection(), getSelection(getIdColumnName(), selectionArgs),
+				selectionArgs, null, null, null);
+			int idColumnIndex = cursor.getColumnIndex(getIdColumnName());
+			List<String> realColumnNames = Lists.newArrayList();
+			for (Column column : getColumns()) {
+				if ((column.getDataType() == DataType.DOUBLE) || (column.getDataType() == DataType.FLOAT)) {
+					realColumnNames.add(column.getColumnName());
+				}
+			}
+			while (cursor.moveToNext()) {
+				ContentValues values = new ContentValues();
+				DatabaseUtils.cursorRowToContentValues(cursor, values);
+				// The text representation of a REAL value is rounded, so it is read as a double to compare it
+				for (String columnName : realColumnNames) {
+					int columnIndex = cursor.getColumnIndex(columnName);
+					if ((columnIndex >= 0) && !cursor.isNull(columnIndex)) {
+						values.put(columnName, cursor.getDouble(columnIndex));
+					}
+				}
+				storedValues.put(cursor.getString(idColumnIndex), values);
+			}
+		} finally {
+			if (cursor != null) {
+				cursor.close();
+			}
+		}
+		
+		for (T item : chunk) {
+			ContentValues stored = storedValues.get(item.getId());
+			if (stored == null) {
+				itemsToInsert.add(item);
+			} else {
+				ContentValues values = createContentValuesFromObject(item);
+				if (hasChanges(values, stored)) {
+					db.update(getTableName(), values, getIdColumnName() + "=?", new String[] { item.getId() });
+					if (entityChildrenListener != null) {
+						entityChildrenListener.onUpdated(item);
+					}
+					result.incrementUpdatedCount();
+				} else {
+					result.incrementUnchangedCount();
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Compares the values to store with the stored ones. The stored values are read as text (except blobs and REAL
+	 * values), so the comparison is done using the text representation. The REAL values are compared numerically; a
+	 * float is stored as the nearest double, so the stored value is rounded to float before comparing them.
+	 */
+	private boolean hasChanges(ContentValues values, ContentValues stored) {
+		for (String key : values.keySet()) {
+			Object value = values.get(key);
+			Object storedValue = stored.get(key);
+			if (value == null || storedValue == null) {
+				if (value != storedValue) {
+					return true;
+				}
+			} else if (value instanceof byte[]) {
+				if (!(storedValue instanceof byte[]) || !Arrays.equals((byte[])value, (byte[])storedValue)) {
+					return true;
+				}
+			} else if (value instanceof Float) {
+				if (!(storedValue instanceof Double) || (Float.compare((Float)value, ((Double)storedValue).floatValue()) != 0)) {
+					return true;
+				}
+			} else if (value instanceof Double) {
+				if (!(storedValue instanceof Double) || (Double.compare((Double)value, (Double)storedValue) != 0)) {
+					return true;
+				}
+			} else if (value instanceof Boolean) {
+				if (!((Boolean)value ? "1" : "0").equals(storedValue.toString())) {
+					return true;
+				}
+			} else if (!value.toString().equals(storedValue.toString())) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	private List<String> findIdsExcept(SQLiteDatabase db, Set<String> idsToKeep) {
+		List<String> ids = Lists.newArrayList();
+		Cursor cursor = null;
+		try {
+			cursor = db.query(getTableName(), new String[] { getIdColumnName() }, null, null, null, null, null);
+			while (cursor.moveToNext()) {
+				String id = cursor.getString(0);
+				if (!idsToKeep.contains(id)) {
+					ids.add(id);
+				}
+			}
+		} finally {
+			if (cursor != null) {
+				cursor.close();
+			}
+		}
+		return ids;
+	}
+	
+	/**
+	 * Deletes all the rows whose id is not included on idsToKeep, using batches of parameterized DELETE statements.
+	 * 
+	 * @return the amount of deleted rows.
+	 */
+	private int deleteAllExcept(SQLiteDatabase db, Set<String> idsToKeep) {
+		if (idsToKeep.isEmpty()) {
+			return db.delete(getTableName(), "1", null);
+		}
+		List<String> idsToDelete = findIdsExcept(db, idsToKeep);
+		int deletedCount = 0;
+		for (int from = 0; from < idsToDelete.size(); from += MAX_PARAMETERS_PER_STATEMENT) {
+			List<String> batch = idsToDelete.subList(from, Math.min(from + MAX_PARAMETERS_PER_STATEMENT, idsToDelete.size()));
+			String[] selectionArgs = batch.toArray(new String[batch.size()]);
+			deletedCount += db.delete(getTableName(), getSelection(getIdColumnName(), selectionArgs), selectionArgs);
+		}
+		return deletedCount;
+	}
+	
 	@Override
 	public void remove(T item) {
 		remove(item.getId());
@@ -429,9 +1046,13 @@ public abstract class SQLiteRepository<T extends Entity> implements Repository<T
 	 * @param parentId id of parent entity.
 	 * @param clazz entity class.
 	 */
+	@SuppressWarnings("unchecked")
 	public static <T extends Entity> void replaceChildren(List<T> list, String parentId, Class<T> clazz) {
-		SQLiteRepository<T> repository = (SQLiteRepository<T>)AbstractApplication.get().getRepositoryInstance(clazz);
-		repository.replaceChildren(list, parentId);
+		Repository<T> repository = AbstractApplication.get().getRepositoryInstance(clazz);
+		((SQLiteRepository<T>)CachedRepository.unwrap(repository)).replaceChildren(list, parentId);
+		if (repository instanceof CachedRepository) {
+			((CachedRepository<T>)repository).clearCache();
+		}
 	}
 	
 	/**
@@ -509,6 +1130,69 @@ public abstract class SQLiteRepository<T extends Entity> implements Repository<T
 		}
 	}
 	
+	/**
+	 * Returns the indexes of the table. By default it includes an index for each {@link IndexedColumn} marked as
+	 * indexed and, if {@link #isRelationIndexingEnabled()}, for the parent id column and for each column with a
+	 * {@link Column#getReference()}. Override this method to add composite or partial indexes.
+	 * 
+	 * @return the indexes.
+	 */
+	protected List<Index> getIndexes() {
+		List<Index> indexes = Lists.newArrayList();
+		for (Column column : getColumns()) {
+			boolean indexed = (column instanceof IndexedColumn) && Boolean.TRUE.equals(((IndexedColumn)column).isIndexed());
+			boolean relation = column.getColumnName().equals(getParentIdColumnName()) || (column.getReference() != null);
+			if (indexed || (relation && isRelationIndexingEnabled())) {
+				indexes.add(new Index(getTableName() + "_" + column.getColumnName() + "_idx", column));
+			}
+		}
+		return indexes;
+	}
+	
+	/**
+	 * The parent id and the referenced columns are used by {@link #replaceChildren(List, String)} and by the ON DELETE
+	 * CASCADE constraints, so indexing them avoids full table scans. They are not indexed by default, because the
+	 * indexes are created on the existing tables when the database is upgraded, which could be slow for big tables.
+	 * 
+	 * @return whether the parent id and the referenced columns are indexed. By default it is false.
+	 */
+	protected Boolean isRelationIndexingEnabled() {
+		return false;
+	}
+	
+	/**
+	 * Runs EXPLAIN QUERY PLAN over the lookups done by the repository (by id, by parent id and by the first column of
+	 * each index) and returns a warning for each one which does a full table scan. Only for debugging purposes.
+	 * 
+	 * @return the warnings.
+	 */
+	public List<String> getQueryPlanWarnings() {
+		List<String> warnings = Lists.newArrayList();
+		@SuppressWarnings("resource")
+		SQLiteDatabase db = dbHelper.getReadableDatabase();
+		List<String> columnNames = Lists.newArrayList();
+		columnNames.add(getIdColumnName());
+		for (Column column : getColumns()) {
+			if (column.getColumnName().equals(getParentIdColumnName())) {
+				columnNames.add(getParentIdColumnName());
+			}
+		}
+		for (Index index : getIndexes()) {
+			String columnName = index.getColumns()[0].getColumnName();
+			if (!columnNames.contains(columnName)) {
+				columnNames.add(columnName);
+			}
+		}
+		for (String columnName : columnNames) {
+			String sql = SQLiteQueryBuilder.buildQueryString(false, getTableName(), getProjection(), columnName + "=?",
+				null, null, null, null);
+			if (SQLiteQueryPlanAnalyzer.isFullScan(db, sql, new String[] { "" })) {
+				warnings.add("Full table scan on " + getTableName() + " when querying by " + columnName);
+			}
+		}
+		return warnings;
+	}
+	
 	/**
 	 * Returns a list of statements to upgrade the SQL scheme.
 	 * 
@@ -519,14 +1203,19 @@ public abstract class SQLiteRepository<T extends Entity> implements Repository<T
 	}
 	
 	/**
-	 * Returns the default projection which includes all the columns defined by {@link #getColumns()}
+	 * Returns the default projection which includes all the columns defined by {@link #getColumns()}. It is created
+	 * only once.
 	 * 
 	 * @return the projection.
 	 */
 	protected String[] getProjection() {
-		String[] projection = new String[getColumns().length];
-		for (int i = 0; i < projection.length; i++) {
-			projection[i] = getColumns()[i].getColumnName();
+		if (projection == null) {
+			Column[] columns = getColumns();
+			String[] projection = new String[columns.length];
+			for (int i = 0; i < projection.length; i++) {
+				projection[i] = columns[i].getColumnName();
+			}
+			this.projection = projection;
 		}
 		return projection;
 	}
@@ -5,9 +5,13 @@ import android.database.Cursor;
 
 import com.jdroid.android.sqlite.Column;
 import com.jdroid.android.sqlite.SQLiteHelper;
+import com.jdroid.android.sqlite.SQLiteRowReader;
+import com.jdroid.java.collections.Maps;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Generic repository to store {@link String} objects.
@@ -15,21 +19,42 @@ import java.util.List;
  */
 public abstract class StringEntityRepository extends SQLiteRepository<StringEntity> {
 	
+	private Column idColumn;
+	private Column parentIdColumn;
+	private Column valueColumn;
+	
 	public StringEntityRepository(SQLiteHelper dbHelper) {
 		super(dbHelper);
 	}
 	
+	public StringEntityRepository(SQLiteHelper dbHelper, EntityChildrenListener<StringEntity> entityChildrenListener) {
+		super(dbHelper, entityChildrenListener);
+	}
+	
 	/**
 	 * @see SQLiteRepository#createObjectFromCursor(android.database.Cursor)
 	 */
 	@Override
 	protected StringEntity createObjectFromCursor(Cursor cursor) {
+		return createObjectFromRow(new SQLiteRowReader(cursor, getColumns()));
+	}
+	
+	/**
+	 * @see SQLiteRepository#createObjectFromRow(SQLiteRowReader)
+	 */
+	@Override
+	protected StringEntity createObjectFromRow(SQLiteRowReader rowReader) {
+		if (idColumn == null) {
+			idColumn = getColumn(Column.ID);
+			parentIdColumn = getColumn(Column.PARENT_ID);
+			valueColumn = getColumn(Column.VALUE);
+		}
 		StringEntity entity = new StringEntity();
-		entity.setId((String)getColumn(Column.ID).readValue(cursor));
-		if (cursor.getColumnIndex(Column.PARENT_ID) >= 0) {
-			entity.setParentId((String)getColumn(Column.PARENT_ID).readValue(cursor));
+		entity.setId(rowReader.<String>readValue(idColumn));
+		if (parentIdColumn != null && rowReader.hasColumn(parentIdColumn)) {
+			entity.setParentId(rowReader.<String>readValue(parentIdColumn));
 		}
-		entity.setValue((String)getColumn(Column.VALUE).readValue(cursor));
+		entity.setValue(rowReader.<String>readValue(valueColumn));
 		return entity;
 	}
 	
@@ -110,6 +135,25 @@ public abstract class StringEntityRepository extends SQLiteRepository<StringEnti
 		return strings;
 	}
 	
+	/**
+	 * This method returns the lists of strings associated with each of the given parent ids, using a single query for
+	 * all of them.
+	 * 
+	 * @param parentIds ids of the parent entities.
+	 * @return the list of strings of each parent. The parents without strings are not included.
+	 */
+	public Map<String, List<String>> getStringChildren(Collection<String> parentIds) {
+		Map<String, List<String>> stringsMap = Maps.newHashMap();
+		for (Map.Entry<String, List<StringEntity>> entry : findByParentIds(parentIds).entrySet()) {
+			ArrayList<String> strings = new ArrayList<>();
+			for (StringEntity entity : entry.getValue()) {
+				strings.add(entity.getValue());
+			}
+			stringsMap.put(entry.getKey(), strings);
+		}
+		return stringsMap;
+	}
+	
 	/**
 	 * Returns all strings.
 	 * 
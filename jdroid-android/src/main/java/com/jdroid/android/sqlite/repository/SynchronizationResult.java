@@ -0,0 +1,50 @@
+package com.jdroid.android.sqlite.repository;
+
+/**
+ * Amount of rows affected by {@link SQLiteRepository#synchronize(java.util.Collection)}.
+ */
+public class SynchronizationResult {
+	
+	private int insertedCount;
+	private int updatedCount;
+	private int unchangedCount;
+	private int deletedCount;
+	
+	void addInsertedCount(int count) {
+		insertedCount += count;
+	}
+	
+	void incrementUpdatedCount() {
+		updatedCount++;
+	}
+	
+	void incrementUnchangedCount() {
+		unchangedCount++;
+	}
+	
+	void addDeletedCount(int count) {
+		deletedCount += count;
+	}
+	
+	public int getInsertedCount() {
+		return insertedCount;
+	}
+	
+	public int getUpdatedCount() {
+		return updatedCount;
+	}
+	
+	public int getUnchangedCount() {
+		return unchangedCount;
+	}
+	
+	public int getDeletedCount() {
+		return deletedCount;
+	}
+	
+	@Override
+	public String toString() {
+		return "SynchronizationResult{inserted=" + insertedCount + ", updated=" + updatedCount + ", unchanged="
+				+ unchangedCount + ", deleted=" + deletedCount + "}";
+	}
+}
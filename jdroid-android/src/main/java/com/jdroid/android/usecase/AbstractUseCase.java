@@ -5,17 +5,35 @@ import android.support.annotation.RestrictTo;
 import android.support.annotation.WorkerThread;
 
 import com.jdroid.android.application.AbstractApplication;
+import com.jdroid.android.usecase.executor.UseCaseCategory;
+import com.jdroid.android.usecase.executor.UseCaseExecutorCategory;
+import com.jdroid.android.usecase.executor.UseCasePriority;
+import com.jdroid.android.usecase.listener.CancellableUseCaseListener;
 import com.jdroid.android.usecase.listener.UseCaseListener;
+import com.jdroid.android.usecase.resilience.Bulkhead;
+import com.jdroid.android.usecase.resilience.CircuitBreaker;
+import com.jdroid.android.usecase.resilience.ResilienceRegistry;
+import com.jdroid.android.usecase.resilience.RetryPolicy;
 import com.jdroid.java.collections.Lists;
+import com.jdroid.java.concurrent.LowPriorityThreadFactory;
 import com.jdroid.java.date.DateUtils;
 import com.jdroid.java.exception.AbstractException;
 import com.jdroid.java.exception.UnexpectedException;
+import com.jdroid.java.http.Server;
 import com.jdroid.java.utils.LoggerUtils;
 
 import org.slf4j.Logger;
 
 import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import static android.support.annotation.RestrictTo.Scope.LIBRARY;
 
@@ -29,95 +47,415 @@ public abstract class AbstractUseCase implements Runnable, Serializable {
 		NOT_INVOKED,
 		IN_PROGRESS,
 		FINISHED_SUCCESSFUL,
-		FINISHED_FAILED;
+		FINISHED_FAILED,
+		CANCELLED;
 	}
 	
-	private volatile List<UseCaseListener> listeners = Lists.newArrayList();
+	private static final ScheduledExecutorService TIMEOUT_SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+		new LowPriorityThreadFactory());
+	
+	private static final UseCaseListener[] NO_LISTENERS = new UseCaseListener[0];
+	
+	private static final long NO_RETRY = -1;
+	
+	private enum Notification {
+		START,
+		FINISHED,
+		FAILED,
+		CANCELLED;
+	}
+	
+	/**
+	 * Copy on write array: it is replaced on each add or remove, so the notifications iterate it without locking or
+	 * allocating, even while listeners are added or removed from another thread.
+	 */
+	private volatile UseCaseListener[] listeners = NO_LISTENERS;
+	private transient NotificationRunnable[] notificationRunnables;
 	private Handler handler;
 
 	private volatile UseCaseStatus useCaseStatus = UseCaseStatus.NOT_INVOKED;
 	private AbstractException abstractException;
+	private volatile AbstractException failureNotificationException;
 	private volatile Boolean notified = false;
 	
 	private Long executionTime = 0L;
 	private int exceptionPriorityLevel = AbstractException.NORMAL_PRIORITY;
+	private UseCasePriority priority = UseCasePriority.VISIBLE;
+	
+	// Token of the last started execution, used to cancel it
+	private transient volatile CancellationToken cancellationToken;
+	// Token of the execution running on each thread, so a superseded execution doesn't see the token of the new one
+	private transient volatile ThreadLocal<CancellationToken> executionTokens;
+	private transient volatile Future<?> future;
 
 	/**
-	 * Executes the use case.
+	 * Executes the use case. The waits between the retried attempts keep the current thread.
 	 */
 	@Override
 	public final void run() {
+		execute(1, false);
+	}
+	
+	/**
+	 * Executes the use case from the given attempt. If the attempt fails and should be retried, it doesn't wait for the
+	 * next one, so the executor thread is released while waiting.
+	 * 
+	 * @param attempt the number of the attempt, starting at 1.
+	 * @return the milliseconds to wait before executing the next attempt, or a negative value if the execution
+	 * finished.
+	 */
+	@RestrictTo(LIBRARY)
+	public long runAttempt(int attempt) {
+		return execute(attempt, true);
+	}
+	
+	private long execute(int attempt, boolean deferRetries) {
 		
-		LOGGER.debug("Executing " + getClass().getSimpleName());
-		markAsInProgress();
-
-		if (!Lists.isNullOrEmpty(listeners)) {
-			Runnable startUseCaseRunnable = new Runnable() {
-				@Override
-				public void run() {
-					for (UseCaseListener listener : listeners) {
-						notifyUseCaseStart(listener);
-					}
-				}
-			};
-			if (handler != null) {
-				handler.post(startUseCaseRunnable);
-			} else {
-				startUseCaseRunnable.run();
-			}
+		CancellationToken token = new CancellationToken(Thread.currentThread());
+		cancellationToken = token;
+		getExecutionTokens().set(token);
+		ScheduledFuture<?> timeoutFuture = null;
+		
+		if (LOGGER.isDebugEnabled()) {
+			LOGGER.debug("Executing " + getClass().getSimpleName() + (attempt > 1 ? ". Attempt " + attempt : ""));
+		}
+		if (attempt == 1) {
+			markAsInProgress();
+			notifyStart();
 		}
 
+		final Long timeoutMillis = getTimeoutMillis();
+		long startNanos = System.nanoTime();
+		boolean failed = false;
+		long retryDelayMillis = NO_RETRY;
 		try {
+			if (timeoutMillis != null) {
+				timeoutFuture = TIMEOUT_SCHEDULER.schedule(token, timeoutMillis, TimeUnit.MILLISECONDS);
+			}
 			
-			LOGGER.debug("Started " + getClass().getSimpleName());
+			if (LOGGER.isDebugEnabled()) {
+				LOGGER.debug("Started " + getClass().getSimpleName());
+			}
 			long startTime = DateUtils.nowMillis();
-			doExecute();
+			retryDelayMillis = executeWithRetries(attempt, deferRetries);
+			if (retryDelayMillis >= 0) {
+				// The use case is still in progress, until its next attempt finishes
+				failed = true;
+				return retryDelayMillis;
+			}
+			if (token.isCancelled()) {
+				throw new UseCaseCancelledException(getClass().getSimpleName() + " cancelled");
+			}
+			if (isSuperseded(token)) {
+				LOGGER.debug("Discarded the result of a superseded execution of " + getClass().getSimpleName());
+				return NO_RETRY;
+			}
 			executionTime = DateUtils.nowMillis() - startTime;
-			LOGGER.debug("Finished " + getClass().getSimpleName() + ". Execution time: "
-					+ DateUtils.formatDuration(executionTime));
+			if (LOGGER.isDebugEnabled()) {
+				LOGGER.debug("Finished " + getClass().getSimpleName() + ". Execution time: "
+						+ DateUtils.formatDuration(executionTime));
+			}
 			
 			markAsSuccessful();
 
 			AbstractApplication.get().getCoreAnalyticsSender().trackUseCaseTiming(getClass(), executionTime);
 
-			if (!Lists.isNullOrEmpty(listeners)) {
-				Runnable finishedUseCaseRunnable = new Runnable() {
-					@Override
-					public void run() {
-						for (UseCaseListener listener : listeners) {
-							notifyFinishedUseCase(listener);
-						}
-						markAsNotified();
-					}
-				};
-				if (handler != null) {
-					handler.post(finishedUseCaseRunnable);
-				} else {
-					finishedUseCaseRunnable.run();
+			notifyFinished();
+
+		} catch (RuntimeException e) {
+			if (isSuperseded(token)) {
+				// A new execution has started, so the status belongs to it
+				LOGGER.debug("Superseded execution of " + getClass().getSimpleName() + " finished");
+			} else if (token.isTimedOut()) {
+				AbstractException abstractException = wrapException(new UseCaseTimeoutException(getClass().getSimpleName()
+						+ " exceeded its timeout of " + timeoutMillis + " ms"));
+				markAsFailed(abstractException);
+				logHandledException(abstractException);
+				notifyFailed(abstractException);
+				failed = true;
+			} else if (token.isCancelled()) {
+				if (LOGGER.isDebugEnabled()) {
+					LOGGER.debug("Cancelled " + getClass().getSimpleName());
 				}
-			}
+				markAsCancelled();
+				notifyCancelled();
+			} else {
+				final AbstractException abstractException = wrapException(e);
+				markAsFailed(abstractException);
+				logHandledException(abstractException);
 
+				notifyFailed(abstractException);
+				failed = true;
+			}
+		} catch (Error e) {
+			// The listeners are notified, and the error is thrown to reach the uncaught exception handler
+			if (!isSuperseded(token)) {
+				AbstractException abstractException = wrapException(new UnexpectedException(e));
+				markAsFailed(abstractException);
+				notifyFailed(abstractException);
+			}
+			failed = true;
+			throw e;
+		} finally {
+			AbstractApplication.get().getUseCaseMetricsRegistry().recordExecution(getClass(), System.nanoTime() - startNanos,
+				failed);
+			token.finish();
+			getExecutionTokens().remove();
+			if (timeoutFuture != null) {
+				timeoutFuture.cancel(false);
+			}
+			if (token.isCancelled()) {
+				// Clears the interruption, so it doesn't affect the next task executed by this thread
+				Thread.interrupted();
+			}
+			if (getCoalescingKey() != null && !isSuperseded(token) && retryDelayMillis < 0) {
+				UseCaseCoalescer.get().onFinished(this);
+			}
+		}
+		return NO_RETRY;
+	}
+	
+	/**
+	 * @return true if a new execution of this use case has started after the one of the given token.
+	 */
+	private boolean isSuperseded(CancellationToken token) {
+		return cancellationToken != token;
+	}
+	
+	private ThreadLocal<CancellationToken> getExecutionTokens() {
+		ThreadLocal<CancellationToken> tokens = executionTokens;
+		if (tokens == null) {
+			synchronized (this) {
+				if (executionTokens == null) {
+					executionTokens = new ThreadLocal<>();
+				}
+				tokens = executionTokens;
+			}
+		}
+		return tokens;
+	}
+	
+	/**
+	 * Cancels the current execution of this use case. If it is waiting on the executor, it is not started. If it is in
+	 * progress, its thread is interrupted and {@link #isCancellationRequested()} returns true, so {@link #doExecute()}
+	 * can stop early; its result is discarded and the status is {@link UseCaseStatus#CANCELLED}.
+	 */
+	public void cancel() {
+		Future<?> future = this.future;
+		if (future != null) {
+			future.cancel(false);
+		}
+		CancellationToken token = cancellationToken;
+		if (token != null) {
+			token.cancel(false);
+		}
+		if (getCoalescingKey() != null) {
+			UseCaseCoalescer.get().onCancelled(this);
+		}
+	}
+	
+	/**
+	 * @return true if the execution running on the current thread has been cancelled. It should be checked by
+	 * {@link #doExecute()} between long steps. Each execution checks its own cancellation, so an execution superseded
+	 * by a new one keeps seeing its cancellation.
+	 */
+	protected Boolean isCancellationRequested() {
+		ThreadLocal<CancellationToken> tokens = executionTokens;
+		CancellationToken token = tokens != null ? tokens.get() : null;
+		return token != null && token.isCancelled();
+	}
+	
+	/**
+	 * @return true if the last started execution has been cancelled. It can be invoked from any thread.
+	 */
+	boolean isLastExecutionCancelled() {
+		CancellationToken token = cancellationToken;
+		return token != null && token.isCancelled();
+	}
+	
+	/**
+	 * Stops the execution if it has been cancelled.
+	 * 
+	 * @throws UseCaseCancelledException if the current execution has been cancelled.
+	 */
+	protected void throwIfCancelled() {
+		if (isCancellationRequested()) {
+			throw new UseCaseCancelledException(getClass().getSimpleName() + " cancelled");
+		}
+	}
+	
+	/**
+	 * @return the max milliseconds the execution can take. When it is exceeded, the execution is cancelled and the use
+	 * case fails with a {@link UseCaseTimeoutException}. By default it is null, so there is no timeout.
+	 */
+	protected Long getTimeoutMillis() {
+		return null;
+	}
+	
+	@RestrictTo(LIBRARY)
+	public void setFuture(Future<?> future) {
+		this.future = future;
+	}
+	
+	@RestrictTo(LIBRARY)
+	public Future<?> getFuture() {
+		return future;
+	}
+	
+	/**
+	 * Marks this use case as in progress because an equivalent use case is executing, and notifies its listeners.
+	 */
+	void startCoalesced() {
+		markAsInProgress();
+		notifyStart();
+	}
+	
+	/**
+	 * Finishes this use case with the result of the equivalent use case which was executed on its behalf.
+	 * 
+	 * @param result the result returned by {@link #getCoalescingResult()} on the executed use case.
+	 */
+	void finishCoalesced(Object result) {
+		try {
+			setCoalescingResult(result);
+			executionTime = 0L;
+			markAsSuccessful();
+			notifyFinished();
 		} catch (RuntimeException e) {
-			final AbstractException abstractException = wrapException(e);
+			AbstractException abstractException = wrapException(e);
 			markAsFailed(abstractException);
 			logHandledException(abstractException);
-
-			if (!Lists.isNullOrEmpty(listeners)) {
-				Runnable finishedFailedUseCaseRunnable = new Runnable() {
-					@Override
-					public void run() {
-						for (UseCaseListener listener : listeners) {
-							notifyFailedUseCase(abstractException, listener);
+			notifyFailed(abstractException);
+		}
+	}
+	
+	/**
+	 * Fails this use case because the equivalent use case which was executed on its behalf failed, or because it
+	 * couldn't be executed.
+	 * 
+	 * @param exception the failure.
+	 */
+	void failCoalesced(Exception exception) {
+		AbstractException abstractException = wrapException(exception);
+		markAsFailed(abstractException);
+		notifyFailed(abstractException);
+	}
+	
+	/**
+	 * Invoked when the task of this use case is cancelled before starting, or while waiting to retry a failed attempt,
+	 * so it is not executed again. The listeners are notified here, since no execution will do it.
+	 */
+	@RestrictTo(LIBRARY)
+	public void onTaskCancelled() {
+		if (LOGGER.isDebugEnabled()) {
+			LOGGER.debug("Cancelled " + getClass().getSimpleName() + " before starting");
+		}
+		markAsCancelled();
+		notifyCancelled();
+		if (getCoalescingKey() != null) {
+			UseCaseCoalescer.get().onTaskCancelled(this);
+		}
+	}
+	
+	/**
+	 * Invoked when the next attempt of this use case can't be queued on its executor, so the execution fails.
+	 * 
+	 * @param exception the rejection.
+	 */
+	@RestrictTo(LIBRARY)
+	public void onRetryRejected(RejectedExecutionException exception) {
+		AbstractException abstractException = wrapException(exception);
+		markAsFailed(abstractException);
+		logHandledException(abstractException);
+		notifyFailed(abstractException);
+		if (getCoalescingKey() != null) {
+			UseCaseCoalescer.get().onFinished(this);
+		}
+	}
+	
+	private void notifyStart() {
+		notifyListeners(Notification.START);
+	}
+	
+	private void notifyFinished() {
+		notifyListeners(Notification.FINISHED);
+	}
+	
+	void notifyCancelled() {
+		notifyListeners(Notification.CANCELLED);
+	}
+	
+	private void notifyFailed(AbstractException abstractException) {
+		// Kept apart from the status, so a new execution doesn't clear it before the notification is dispatched
+		failureNotificationException = abstractException;
+		notifyListeners(Notification.FAILED);
+	}
+	
+	private void notifyListeners(Notification notification) {
+		if (listeners.length > 0) {
+			NotificationRunnable notificationRunnable = getNotificationRunnable(notification);
+			notificationRunnable.postNanos = System.nanoTime();
+			if (handler != null) {
+				handler.post(notificationRunnable);
+			} else {
+				notificationRunnable.run();
+			}
+		}
+	}
+	
+	private NotificationRunnable getNotificationRunnable(Notification notification) {
+		NotificationRunnable[] runnables = notificationRunnables;
+		if (runnables == null) {
+			runnables = new NotificationRunnable[Notification.values().length];
+			for (Notification each : Notification.values()) {
+				runnables[each.ordinal()] = new NotificationRunnable(each);
+			}
+			notificationRunnables = runnables;
+		}
+		return runnables[notification.ordinal()];
+	}
+	
+	/**
+	 * Notifies all the listeners. There is one instance for each kind of notification, reused on each execution.
+	 */
+	private class NotificationRunnable implements Runnable {
+		
+		private Notification notification;
+		
+		// If the same notification is posted again before being dispatched, the latency is measured from the last post
+		private volatile long postNanos;
+		
+		public NotificationRunnable(Notification notification) {
+			this.notification = notification;
+		}
+		
+		@Override
+		public void run() {
+			UseCaseListener[] currentListeners = listeners;
+			for (int i = 0; i < currentListeners.length; i++) {
+				UseCaseListener listener = currentListeners[i];
+				switch (notification) {
+					case START:
+						notifyUseCaseStart(listener);
+						break;
+					case FINISHED:
+						notifyFinishedUseCase(listener);
+						break;
+					case FAILED:
+						notifyFailedUseCase(failureNotificationException, listener);
+						break;
+					case CANCELLED:
+						if (listener instanceof CancellableUseCaseListener) {
+							notifyCancelledUseCase((CancellableUseCaseListener)listener);
 						}
-						markAsNotified();
-					}
-				};
-				if (handler != null) {
-					handler.post(finishedFailedUseCaseRunnable);
-				} else {
-					finishedFailedUseCaseRunnable.run();
+						break;
 				}
 			}
+			if (notification != Notification.START) {
+				markAsNotified();
+			}
+			AbstractApplication.get().getUseCaseMetricsRegistry().recordNotification(AbstractUseCase.this.getClass(),
+				System.nanoTime() - postNanos);
 		}
 	}
 
@@ -143,6 +481,160 @@ public abstract class AbstractUseCase implements Runnable, Serializable {
 		return executionTime;
 	}
 	
+	/**
+	 * @return the category which defines the executor of this use case. By default it is the one declared with
+	 * {@link UseCaseExecutorCategory}, or {@link UseCaseCategory#NETWORK} if it is not annotated.
+	 */
+	public UseCaseCategory getCategory() {
+		UseCaseExecutorCategory executorCategory = getClass().getAnnotation(UseCaseExecutorCategory.class);
+		return executorCategory != null ? executorCategory.value() : UseCaseCategory.NETWORK;
+	}
+	
+	/**
+	 * @return the priority used to start this use case before the others of its category. By default it is
+	 * {@link UseCasePriority#VISIBLE}.
+	 */
+	public UseCasePriority getPriority() {
+		return priority;
+	}
+	
+	public void setPriority(UseCasePriority priority) {
+		this.priority = priority;
+	}
+	
+	/**
+	 * Enables the request coalescing for this use case. While a use case is in progress, the execution of another use
+	 * case with the same key is not started: it waits for the in progress one and takes its result using
+	 * {@link #getCoalescingResult()} and {@link #setCoalescingResult(Object)}. The key must include all the parameters
+	 * which affect the result.
+	 * 
+	 * @return the coalescing key, or null to disable the coalescing. By default it is null.
+	 */
+	public String getCoalescingKey() {
+		return null;
+	}
+	
+	/**
+	 * @return the milliseconds while the result of a successful coalesced execution is reused by new executions with the
+	 * same {@link #getCoalescingKey()}. By default it is 0, so the result is not reused.
+	 */
+	public long getCoalescingTTL() {
+		return 0;
+	}
+	
+	/**
+	 * Returns the result of a successful execution, to be shared with the equivalent use cases executed on its behalf.
+	 * It must be implemented when {@link #getCoalescingKey()} is not null. The result is shared by all of them and
+	 * memoized during {@link #getCoalescingTTL()}, so it must not be modified nor reference this use case.
+	 * 
+	 * @return the result.
+	 */
+	protected Object getCoalescingResult() {
+		return null;
+	}
+	
+	/**
+	 * Sets the result of an equivalent use case which was executed on behalf of this one. It must be implemented when
+	 * {@link #getCoalescingKey()} is not null.
+	 * 
+	 * @param result the result returned by {@link #getCoalescingResult()} on the executed use case.
+	 */
+	protected void setCoalescingResult(Object result) {
+		// Do nothing
+	}
+	
+	/**
+	 * @return the server called by {@link #doExecute()}. If it is not null, the executions are limited by the
+	 * {@link CircuitBreaker} and the {@link Bulkhead} of the server. By default it is null.
+	 */
+	protected Server getServer() {
+		return null;
+	}
+	
+	/**
+	 * @return the policy to retry the failed executions, or null to not retry them. By default it is null. When the use
+	 * case is executed by its executor, the next attempt is queued again after the wait, so no thread is kept while
+	 * waiting, and each attempt has its own timeout. When {@link #run()} is invoked directly, the waits keep the
+	 * current thread, and are interrupted if the use case is cancelled.
+	 */
+	protected RetryPolicy getRetryPolicy() {
+		return null;
+	}
+	
+	/**
+	 * @return the milliseconds to wait before the next attempt, if it is deferred, or {@link #NO_RETRY} if the execution
+	 * succeeded.
+	 */
+	private long executeWithRetries(int attempt, boolean deferRetries) {
+		RetryPolicy retryPolicy = getRetryPolicy();
+		while (true) {
+			try {
+				executeAttempt();
+				return NO_RETRY;
+			} catch (RuntimeException e) {
+				if (retryPolicy == null || isCancellationRequested() || !retryPolicy.shouldRetry(e, attempt)) {
+					throw e;
+				}
+				long delayMillis = retryPolicy.getDelayMillis(attempt);
+				LOGGER.info("Attempt " + attempt + " of " + getClass().getSimpleName() + " failed. Retrying in "
+						+ delayMillis + " ms");
+				if (deferRetries) {
+					return delayMillis;
+				}
+				try {
+					Thread.sleep(delayMillis);
+				} catch (InterruptedException interruptedException) {
+					throw new UseCaseCancelledException(getClass().getSimpleName() + " cancelled");
+				}
+				attempt++;
+			}
+		}
+	}
+	
+	private void executeAttempt() {
+		Server server = getServer();
+		if (server == null) {
+			doExecute();
+			return;
+		}
+		
+		ResilienceRegistry resilienceRegistry = AbstractApplication.get().getResilienceRegistry();
+		Bulkhead bulkhead = resilienceRegistry.getBulkhead(server);
+		try {
+			bulkhead.acquire();
+		} catch (InterruptedException e) {
+			throw new UseCaseCancelledException(getClass().getSimpleName() + " cancelled");
+		}
+		try {
+			CircuitBreaker circuitBreaker = resilienceRegistry.getCircuitBreaker(server);
+			long permission = circuitBreaker.acquirePermission();
+			boolean settled = false;
+			try {
+				doExecute();
+				settled = true;
+				circuitBreaker.onSuccess(permission);
+			} catch (RuntimeException e) {
+				settled = true;
+				if (isCancellationRequested()) {
+					circuitBreaker.onIgnored(permission);
+				} else if (circuitBreaker.isFailure(e)) {
+					circuitBreaker.onFailure(permission);
+				} else {
+					circuitBreaker.onSuccess(permission);
+				}
+				throw e;
+			} finally {
+				// An error tells nothing about the server, but the permission must be released, or a trial call would
+				// keep the circuit half open forever
+				if (!settled) {
+					circuitBreaker.onIgnored(permission);
+				}
+			}
+		} finally {
+			bulkhead.release();
+		}
+	}
+	
 	/**
 	 * Override this method with the use case functionality to be executed
 	 */
@@ -159,7 +651,9 @@ public abstract class AbstractUseCase implements Runnable, Serializable {
 	@RestrictTo(LIBRARY)
 	public void notifyUseCaseStart(UseCaseListener listener) {
 		try {
-			LOGGER.debug("Notifying " + getClass().getSimpleName() + " start to listener " + listener.getClass().getSimpleName());
+			if (LOGGER.isDebugEnabled()) {
+				LOGGER.debug("Notifying " + getClass().getSimpleName() + " start to listener " + listener.getClass().getSimpleName());
+			}
 			listener.onStartUseCase();
 		} catch (Exception e) {
 			AbstractException abstractException = wrapException(e);
@@ -177,7 +671,9 @@ public abstract class AbstractUseCase implements Runnable, Serializable {
 	@RestrictTo(LIBRARY)
 	public void notifyFinishedUseCase(UseCaseListener listener) {
 		try {
-			LOGGER.debug("Notifying " + getClass().getSimpleName() + " finish to listener " + listener.getClass().getSimpleName());
+			if (LOGGER.isDebugEnabled()) {
+				LOGGER.debug("Notifying " + getClass().getSimpleName() + " finish to listener " + listener.getClass().getSimpleName());
+			}
 			listener.onFinishUseCase();
 		} catch (Exception e) {
 			AbstractException abstractException = wrapException(e);
@@ -195,7 +691,9 @@ public abstract class AbstractUseCase implements Runnable, Serializable {
 	@RestrictTo(LIBRARY)
 	public void notifyFailedUseCase(AbstractException exception, UseCaseListener listener) {
 		try {
-			LOGGER.debug("Notifying " + getClass().getSimpleName() + " finish failed to listener " + listener.getClass().getSimpleName());
+			if (LOGGER.isDebugEnabled()) {
+				LOGGER.debug("Notifying " + getClass().getSimpleName() + " finish failed to listener " + listener.getClass().getSimpleName());
+			}
 			listener.onFinishFailedUseCase(exception);
 		} catch (Exception e) {
 			AbstractException abstractException = wrapException(e);
@@ -203,19 +701,43 @@ public abstract class AbstractUseCase implements Runnable, Serializable {
 		}
 	}
 	
+	/**
+	 * Notifies the listener that the use case has been cancelled.
+	 * 
+	 * @param listener The listener to notify.
+	 */
+	@RestrictTo(LIBRARY)
+	public void notifyCancelledUseCase(CancellableUseCaseListener listener) {
+		try {
+			if (LOGGER.isDebugEnabled()) {
+				LOGGER.debug("Notifying " + getClass().getSimpleName() + " cancellation to listener " + listener.getClass().getSimpleName());
+			}
+			listener.onCancelUseCase();
+		} catch (Exception e) {
+			AbstractException abstractException = wrapException(e);
+			logHandledException(abstractException);
+		}
+	}
+	
 	/**
 	 * @return the listeners
 	 */
 	protected List<UseCaseListener> getListeners() {
-		return listeners;
+		return Collections.unmodifiableList(Arrays.asList(listeners));
 	}
 	
 	/**
 	 * @param listener the listener to add
 	 */
 	public void addListener(UseCaseListener listener) {
-		if (listener != null && !listeners.contains(listener)) {
-			this.listeners.add(listener);
+		if (listener != null) {
+			synchronized (this) {
+				if (!getListeners().contains(listener)) {
+					UseCaseListener[] newListeners = Arrays.copyOf(listeners, listeners.length + 1);
+					newListeners[listeners.length] = listener;
+					listeners = newListeners;
+				}
+			}
 		}
 	}
 	
@@ -224,7 +746,12 @@ public abstract class AbstractUseCase implements Runnable, Serializable {
 	 */
 	public void removeListener(UseCaseListener listener) {
 		if (listener != null) {
-			this.listeners.remove(listener);
+			synchronized (this) {
+				List<UseCaseListener> newListeners = Lists.newArrayList(getListeners());
+				if (newListeners.remove(listener)) {
+					listeners = newListeners.toArray(new UseCaseListener[newListeners.size()]);
+				}
+			}
 		}
 	}
 	
@@ -244,6 +771,10 @@ public abstract class AbstractUseCase implements Runnable, Serializable {
 		return UseCaseStatus.FINISHED_FAILED.equals(useCaseStatus);
 	}
 	
+	public Boolean isCancelled() {
+		return UseCaseStatus.CANCELLED.equals(useCaseStatus);
+	}
+	
 	/**
 	 * @return If the use case has finished, regardless of the success or failure of its execution.
 	 */
@@ -273,6 +804,10 @@ public abstract class AbstractUseCase implements Runnable, Serializable {
 		this.useCaseStatus = UseCaseStatus.FINISHED_SUCCESSFUL;
 	}
 	
+	protected void markAsCancelled() {
+		this.useCaseStatus = UseCaseStatus.CANCELLED;
+	}
+	
 	protected void markAsFailed(AbstractException abstractException) {
 		this.useCaseStatus = UseCaseStatus.FINISHED_FAILED;
 		this.abstractException = abstractException;
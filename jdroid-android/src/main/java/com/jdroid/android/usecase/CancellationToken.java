@@ -0,0 +1,51 @@
+package com.jdroid.android.usecase;
+
+/**
+ * Cancellation state of an execution of a use case. Once cancelled, the thread executing the use case is interrupted,
+ * so blocking calls can finish early. The use cases should check {@link #isCancelled()} between steps.
+ */
+public class CancellationToken implements Runnable {
+	
+	private Thread thread;
+	private volatile boolean cancelled = false;
+	private volatile boolean timedOut = false;
+	private boolean finished = false;
+	
+	CancellationToken(Thread thread) {
+		this.thread = thread;
+	}
+	
+	synchronized void cancel(boolean timeout) {
+		if (!finished && !cancelled) {
+			timedOut = timeout;
+			cancelled = true;
+			thread.interrupt();
+		}
+	}
+	
+	/**
+	 * Cancels the execution because its timeout has expired.
+	 */
+	@Override
+	public void run() {
+		cancel(true);
+	}
+	
+	/**
+	 * Marks the execution as finished, so the thread is not interrupted after that.
+	 */
+	synchronized void finish() {
+		finished = true;
+	}
+	
+	public boolean isCancelled() {
+		return cancelled;
+	}
+	
+	/**
+	 * @return true if the execution was cancelled because it exceeded its timeout.
+	 */
+	public boolean isTimedOut() {
+		return timedOut;
+	}
+}
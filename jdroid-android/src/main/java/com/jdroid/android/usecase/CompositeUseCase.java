@@ -0,0 +1,176 @@
+package com.jdroid.android.usecase;
+
+import com.jdroid.android.application.AbstractApplication;
+import com.jdroid.android.usecase.executor.UseCaseExecutorRegistry;
+import com.jdroid.android.usecase.executor.UseCaseTask;
+import com.jdroid.java.collections.Lists;
+import com.jdroid.java.exception.AbstractException;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Use case which executes other use cases, so the listeners see a single start and finish for all of them.
+ * <p>
+ * In {@link Mode#PARALLEL} mode, the use cases are executed at the same time on the executors of its categories, and
+ * this use case finishes when all of them finish, so the total latency is the one of the slowest use case. In
+ * {@link Mode#SEQUENTIAL} mode, the use cases are executed one after another, and the execution stops on the first
+ * failure, so each use case can depend on the results of the previous ones.
+ * <p>
+ * A use case cancelled on its own fails this use case with a {@link UseCaseCancelledException}, since its results
+ * are missing. If only one use case fails, its exception is the failure of this use case. If many of them fail, the failure is a
+ * {@link CompositeUseCaseException}. The results are read from each use case.
+ * <p>
+ * The thread executing this use case waits for the others. The use cases which are still queued when they are waited
+ * for are executed on that thread instead, so this use case never waits for a thread of its own executor, even if the
+ * composite and its use cases share a saturated one.
+ */
+public class CompositeUseCase extends AbstractUseCase {
+	
+	private static final long serialVersionUID = 1290364157036420877L;
+	
+	private static final long QUEUED_CHECK_MILLIS = 100;
+	
+	public enum Mode {
+		PARALLEL,
+		SEQUENTIAL;
+	}
+	
+	private Mode mode;
+	private List<AbstractUseCase> useCases = Lists.newArrayList();
+	
+	public CompositeUseCase(Mode mode, AbstractUseCase... useCases) {
+		this.mode = mode;
+		for (AbstractUseCase useCase : useCases) {
+			addUseCase(useCase);
+		}
+	}
+	
+	public void addUseCase(AbstractUseCase useCase) {
+		useCases.add(useCase);
+	}
+	
+	@Override
+	protected void doExecute() {
+		List<AbstractException> exceptions;
+		if (mode == Mode.PARALLEL) {
+			exceptions = executeParallel();
+		} else {
+			exceptions = executeSequential();
+		}
+		
+		if (exceptions.size() == 1) {
+			throw exceptions.get(0);
+		} else if (exceptions.size() > 1) {
+			throw new CompositeUseCaseException(exceptions);
+		}
+	}
+	
+	private List<AbstractException> executeParallel() {
+		UseCaseExecutorRegistry registry = AbstractApplication.get().getUseCaseExecutorRegistry();
+		List<UseCaseTask> tasks = Lists.newArrayList();
+		for (AbstractUseCase useCase : useCases) {
+			tasks.add(registry.execute(useCase));
+		}
+		
+		List<AbstractException> exceptions = Lists.newArrayList();
+		for (int i = 0; i < tasks.size(); i++) {
+			boolean cancelled = await(registry, tasks.get(i));
+			addFailure(exceptions, useCases.get(i), cancelled);
+		}
+		return exceptions;
+	}
+	
+	/**
+	 * Only the use cases executed until the first failure are considered, so the status of the skipped ones, which
+	 * could be the one of a previous execution, doesn't affect the result.
+	 */
+	private List<AbstractException> executeSequential() {
+		UseCaseExecutorRegistry registry = AbstractApplication.get().getUseCaseExecutorRegistry();
+		List<AbstractException> exceptions = Lists.newArrayList();
+		for (AbstractUseCase useCase : useCases) {
+			throwIfCancelled();
+			boolean cancelled = await(registry, registry.execute(useCase));
+			addFailure(exceptions, useCase, cancelled);
+			if (!exceptions.isEmpty()) {
+				break;
+			}
+		}
+		return exceptions;
+	}
+	
+	/**
+	 * Waits for the task of a use case. While it is queued, it could be waiting for the thread blocked here, so it is
+	 * executed on this thread instead. It is checked again while waiting, because a failed attempt is queued again after
+	 * its retry delay.
+	 * 
+	 * @return true if the task was cancelled before starting, so the status of the use case is the one of its previous
+	 * execution.
+	 */
+	private boolean await(UseCaseExecutorRegistry registry, UseCaseTask task) {
+		try {
+			while (true) {
+				if (registry.remove(task)) {
+					task.run();
+				}
+				try {
+					task.get(QUEUED_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+					return false;
+				} catch (CancellationException e) {
+					return true;
+				} catch (TimeoutException e) {
+					// Still in progress or waiting for a retry
+				}
+			}
+		} catch (InterruptedException e) {
+			for (AbstractUseCase useCase : useCases) {
+				useCase.cancel();
+			}
+			throw new UseCaseCancelledException(getClass().getSimpleName() + " cancelled");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RejectedExecutionException) {
+				// The use case has failed because its retry couldn't be queued
+				return false;
+			}
+			// The use cases handle its own exceptions, so this should not happen
+			throw wrapExecutionException(e);
+		}
+	}
+	
+	private RuntimeException wrapExecutionException(ExecutionException e) {
+		return e.getCause() instanceof RuntimeException ? (RuntimeException)e.getCause() : new RuntimeException(e.getCause());
+	}
+	
+	/**
+	 * Adds the failure of an executed use case, if any. A cancelled use case is a failure, since its results are
+	 * missing.
+	 */
+	private void addFailure(List<AbstractException> exceptions, AbstractUseCase useCase, boolean cancelled) {
+		if (cancelled || useCase.isCancelled()) {
+			exceptions.add(new UseCaseCancelledException(useCase.getClass().getSimpleName() + " cancelled"));
+		} else if (useCase.isFinishFailed()) {
+			exceptions.add(useCase.getAbstractException());
+		}
+	}
+	
+	@Override
+	public void cancel() {
+		super.cancel();
+		for (AbstractUseCase useCase : useCases) {
+			useCase.cancel();
+		}
+	}
+	
+	public List<AbstractUseCase> getUseCases() {
+		return Collections.unmodifiableList(useCases);
+	}
+	
+	public Mode getMode() {
+		return mode;
+	}
+}
@@ -0,0 +1,27 @@
+package com.jdroid.android.usecase;
+
+import com.jdroid.java.exception.AbstractException;
+
+import java.util.List;
+
+/**
+ * Failure of a {@link CompositeUseCase} when more than one of its use cases fails. The first failure is used as cause.
+ */
+public class CompositeUseCaseException extends AbstractException {
+	
+	private static final long serialVersionUID = -6153917624839285072L;
+	
+	private List<AbstractException> exceptions;
+	
+	public CompositeUseCaseException(List<AbstractException> exceptions) {
+		super(exceptions.size() + " use cases failed", exceptions.get(0));
+		this.exceptions = exceptions;
+	}
+	
+	/**
+	 * @return the failures of each failed use case, in the order the use cases were added.
+	 */
+	public List<AbstractException> getExceptions() {
+		return exceptions;
+	}
+}
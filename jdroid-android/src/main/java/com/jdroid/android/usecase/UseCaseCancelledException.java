@@ -0,0 +1,16 @@
+package com.jdroid.android.usecase;
+
+import com.jdroid.java.exception.AbstractException;
+
+/**
+ * Thrown by {@link AbstractUseCase#throwIfCancelled()} to stop the execution of a cancelled use case.
+ */
+public class UseCaseCancelledException extends AbstractException {
+	
+	private static final long serialVersionUID = -2216436066046325741L;
+	
+	public UseCaseCancelledException(String message) {
+		super(message);
+		setPriorityLevel(AbstractException.LOW_PRIORITY);
+	}
+}
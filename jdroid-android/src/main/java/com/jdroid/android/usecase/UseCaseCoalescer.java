@@ -0,0 +1,237 @@
+package com.jdroid.android.usecase;
+
+import com.jdroid.android.application.AbstractApplication;
+import com.jdroid.java.collections.Lists;
+import com.jdroid.java.collections.Maps;
+import com.jdroid.java.date.DateUtils;
+import com.jdroid.java.utils.LoggerUtils;
+
+import org.slf4j.Logger;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Avoids executing at the same time use cases with the same {@link AbstractUseCase#getCoalescingKey()}. The use cases
+ * requested while an equivalent one is in progress are attached to it, and finished with its result. If the in
+ * progress use case is cancelled, one of the attached use cases is executed instead. The successful results are also
+ * reused during {@link AbstractUseCase#getCoalescingTTL()}.
+ */
+class UseCaseCoalescer {
+	
+	private static final Logger LOGGER = LoggerUtils.getLogger(UseCaseCoalescer.class);
+	
+	private static final UseCaseCoalescer INSTANCE = new UseCaseCoalescer();
+	
+	private Map<String, AbstractUseCase> inProgressUseCases = Maps.newHashMap();
+	private Map<String, List<AbstractUseCase>> attachedUseCases = Maps.newHashMap();
+	private Map<String, MemoizedResult> memoizedResults = Maps.newHashMap();
+	
+	// Cancelled use cases executed again before their cancelled execution finished
+	private Set<AbstractUseCase> pendingUseCases = Collections.newSetFromMap(
+		new IdentityHashMap<AbstractUseCase, Boolean>());
+	
+	public static UseCaseCoalescer get() {
+		return INSTANCE;
+	}
+	
+	public void execute(AbstractUseCase useCase) {
+		String key = getKey(useCase);
+		MemoizedResult memoizedResult;
+		synchronized (this) {
+			AbstractUseCase inProgressUseCase = inProgressUseCases.get(key);
+			if (inProgressUseCase == useCase) {
+				if (useCase.isLastExecutionCancelled()) {
+					pendingUseCases.add(useCase);
+				}
+				return;
+			} else if (inProgressUseCase != null) {
+				getAttachedUseCases(key).add(useCase);
+				useCase.startCoalesced();
+				LOGGER.debug("Attached " + useCase.getClass().getSimpleName() + " to the in progress execution");
+				return;
+			}
+			
+			evictExpiredResults();
+			memoizedResult = memoizedResults.get(key);
+			if (memoizedResult == null) {
+				inProgressUseCases.put(key, useCase);
+			}
+		}
+		
+		if (memoizedResult != null) {
+			LOGGER.debug("Reusing the memoized result of " + useCase.getClass().getSimpleName());
+			useCase.startCoalesced();
+			useCase.finishCoalesced(memoizedResult.result);
+		} else {
+			try {
+				AbstractApplication.get().getUseCaseExecutorRegistry().execute(useCase);
+			} catch (RejectedExecutionException e) {
+				executeAttachedUseCases(key, release(key, useCase));
+				throw e;
+			}
+		}
+	}
+	
+	/**
+	 * Invoked on the worker thread when a coalesced use case finishes.
+	 */
+	public void onFinished(AbstractUseCase useCase) {
+		String key = getKey(useCase);
+		Object result = useCase.isFinishSuccessful() ? useCase.getCoalescingResult() : null;
+		List<AbstractUseCase> useCases;
+		boolean pending;
+		synchronized (this) {
+			if (inProgressUseCases.get(key) != useCase) {
+				return;
+			}
+			useCases = release(key, useCase);
+			pending = pendingUseCases.remove(useCase);
+			if (useCase.isFinishSuccessful() && useCase.getCoalescingTTL() > 0) {
+				long expiration = DateUtils.nowMillis() + useCase.getCoalescingTTL();
+				memoizedResults.put(key, new MemoizedResult(result, expiration));
+			}
+		}
+		if (useCase.isCancelled()) {
+			executeAttachedUseCases(key, useCases);
+		} else if (useCases != null) {
+			for (AbstractUseCase each : useCases) {
+				if (useCase.isFinishSuccessful()) {
+					each.finishCoalesced(result);
+				} else {
+					each.failCoalesced(useCase.getAbstractException());
+				}
+			}
+		}
+		if (pending) {
+			execute(useCase);
+		}
+	}
+	
+	/**
+	 * Invoked when the task of a coalesced use case is cancelled. If it was waiting on the executor, the use case is
+	 * never executed, so one of the attached use cases is executed instead.
+	 */
+	public void onTaskCancelled(AbstractUseCase useCase) {
+		String key = getKey(useCase);
+		List<AbstractUseCase> useCases;
+		boolean pending;
+		synchronized (this) {
+			if (inProgressUseCases.get(key) != useCase) {
+				return;
+			}
+			useCases = release(key, useCase);
+			pending = pendingUseCases.remove(useCase);
+		}
+		executeAttachedUseCases(key, useCases);
+		if (pending) {
+			execute(useCase);
+		}
+	}
+	
+	/**
+	 * Detaches a cancelled use case from the in progress one it was waiting for.
+	 */
+	public void onCancelled(AbstractUseCase useCase) {
+		String key = getKey(useCase);
+		boolean detached;
+		synchronized (this) {
+			List<AbstractUseCase> useCases = attachedUseCases.get(key);
+			detached = useCases != null && useCases.remove(useCase);
+		}
+		if (detached) {
+			useCase.markAsCancelled();
+			useCase.notifyCancelled();
+		}
+	}
+	
+	/**
+	 * Discards all the memoized results.
+	 */
+	public synchronized void clearMemoizedResults() {
+		memoizedResults.clear();
+	}
+	
+	/**
+	 * Executes the first of the attached use cases, and attaches the others to it. If an equivalent use case was
+	 * started in the meantime, all of them are attached to it.
+	 */
+	private void executeAttachedUseCases(String key, List<AbstractUseCase> useCases) {
+		while ((useCases != null) && !useCases.isEmpty()) {
+			AbstractUseCase useCase = useCases.remove(0);
+			synchronized (this) {
+				if (inProgressUseCases.containsKey(key)) {
+					List<AbstractUseCase> currentUseCases = getAttachedUseCases(key);
+					currentUseCases.add(useCase);
+					currentUseCases.addAll(useCases);
+					return;
+				}
+				inProgressUseCases.put(key, useCase);
+				getAttachedUseCases(key).addAll(useCases);
+			}
+			LOGGER.debug("Executing the attached " + useCase.getClass().getSimpleName() + " instead of the cancelled one");
+			try {
+				AbstractApplication.get().getUseCaseExecutorRegistry().execute(useCase);
+				return;
+			} catch (RejectedExecutionException e) {
+				useCases = release(key, useCase);
+				useCase.failCoalesced(e);
+			}
+		}
+	}
+	
+	/**
+	 * Removes the in progress use case of the key.
+	 * 
+	 * @return the use cases which were attached to it, or null.
+	 */
+	private synchronized List<AbstractUseCase> release(String key, AbstractUseCase useCase) {
+		if (inProgressUseCases.get(key) != useCase) {
+			return null;
+		}
+		inProgressUseCases.remove(key);
+		return attachedUseCases.remove(key);
+	}
+	
+	private List<AbstractUseCase> getAttachedUseCases(String key) {
+		List<AbstractUseCase> useCases = attachedUseCases.get(key);
+		if (useCases == null) {
+			useCases = Lists.newArrayList();
+			attachedUseCases.put(key, useCases);
+		}
+		return useCases;
+	}
+	
+	private void evictExpiredResults() {
+		long now = DateUtils.nowMillis();
+		Iterator<MemoizedResult> iterator = memoizedResults.values().iterator();
+		while (iterator.hasNext()) {
+			if (iterator.next().expiration <= now) {
+				iterator.remove();
+			}
+		}
+	}
+	
+	private static String getKey(AbstractUseCase useCase) {
+		return useCase.getClass().getName() + "#" + useCase.getCoalescingKey();
+	}
+	
+	/**
+	 * Result of a successful execution, without the use case which produced it, so its listeners are not retained.
+	 */
+	private static class MemoizedResult {
+	
+		private Object result;
+		private long expiration;
+		
+		public MemoizedResult(Object result, long expiration) {
+			this.result = result;
+			this.expiration = expiration;
+		}
+	}
+}
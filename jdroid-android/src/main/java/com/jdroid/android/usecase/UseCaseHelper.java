@@ -4,6 +4,8 @@ import android.os.Handler;
 import android.os.Looper;
 import android.support.annotation.MainThread;
 
+import com.jdroid.android.application.AbstractApplication;
+import com.jdroid.android.usecase.executor.UseCasePriority;
 import com.jdroid.android.usecase.listener.UseCaseListener;
 import com.jdroid.java.concurrent.ExecutorUtils;
 
@@ -43,7 +45,7 @@ public class UseCaseHelper {
 					executeUseCase(useCase);
 				}
 
-			} else if (useCase.isNotInvoked()
+			} else if ((useCase.isNotInvoked() || useCase.isCancelled())
 					&& (useCaseTrigger.equals(UseCaseTrigger.ONCE) || useCaseTrigger.equals(UseCaseTrigger.ALWAYS))) {
 				executeUseCase(useCase);
 			}
@@ -57,11 +59,44 @@ public class UseCaseHelper {
 		}
 	}
 
+	/**
+	 * Executes the use case on the executor of its {@link AbstractUseCase#getCategory()}. If the use case has a
+	 * {@link AbstractUseCase#getCoalescingKey()} and an equivalent use case is in progress, it is attached to it instead.
+	 */
 	public static void executeUseCase(AbstractUseCase useCase) {
-		ExecutorUtils.execute(useCase);
+		if (useCase.getCoalescingKey() != null) {
+			UseCaseCoalescer.get().execute(useCase);
+		} else {
+			AbstractApplication.get().getUseCaseExecutorRegistry().execute(useCase);
+		}
+	}
+
+	/**
+	 * Raises the use case to {@link UseCasePriority#VISIBLE} if it is queued with a lower priority. It should be
+	 * invoked when the screen which displays its result is resumed.
+	 */
+	@MainThread
+	public static void promoteUseCase(AbstractUseCase useCase) {
+		if (useCase != null) {
+			AbstractApplication.get().getUseCaseExecutorRegistry().promote(useCase, UseCasePriority.VISIBLE);
+		}
 	}
 
-	public static void executeUseCase(AbstractUseCase useCase, Long delaySeconds) {
-		ExecutorUtils.schedule(useCase, delaySeconds);
+	/**
+	 * Discards the results memoized by the use cases with {@link AbstractUseCase#getCoalescingTTL()}.
+	 */
+	public static void clearCoalescedResults() {
+		UseCaseCoalescer.get().clearMemoizedResults();
+	}
+
+	public static void executeUseCase(final AbstractUseCase useCase, Long delaySeconds) {
+		// The shared scheduler only waits for the delay, the use case is executed on its own executor
+		ExecutorUtils.schedule(new Runnable() {
+
+			@Override
+			public void run() {
+				executeUseCase(useCase);
+			}
+		}, delaySeconds);
 	}
 }
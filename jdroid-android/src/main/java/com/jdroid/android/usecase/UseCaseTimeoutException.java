@@ -0,0 +1,15 @@
+package com.jdroid.android.usecase;
+
+import com.jdroid.java.exception.AbstractException;
+
+/**
+ * Failure of a use case which didn't finish within its {@link AbstractUseCase#getTimeoutMillis()}.
+ */
+public class UseCaseTimeoutException extends AbstractException {
+	
+	private static final long serialVersionUID = 5946420939208410137L;
+	
+	public UseCaseTimeoutException(String message) {
+		super(message);
+	}
+}
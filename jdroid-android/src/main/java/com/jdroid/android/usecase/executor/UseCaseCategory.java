@@ -0,0 +1,47 @@
+package com.jdroid.android.usecase.executor;
+
+/**
+ * Kind of work done by a use case. Each category is executed on its own pool, so for example slow network use cases
+ * don't starve quick local ones.
+ */
+public enum UseCaseCategory {
+	
+	/**
+	 * File system or database reads.
+	 */
+	IO(4, null),
+	
+	/**
+	 * Remote calls. It is the default category.
+	 */
+	NETWORK(6, null),
+	
+	/**
+	 * CPU bound work, like parsing or image processing.
+	 */
+	CPU(Math.max(2, Runtime.getRuntime().availableProcessors()), null),
+	
+	/**
+	 * Database writes. They are executed one at a time, in order, so they don't compete for the database lock.
+	 */
+	DB_WRITE(1, null);
+	
+	private int defaultPoolSize;
+	private Integer defaultQueueCapacity;
+	
+	UseCaseCategory(int defaultPoolSize, Integer defaultQueueCapacity) {
+		this.defaultPoolSize = defaultPoolSize;
+		this.defaultQueueCapacity = defaultQueueCapacity;
+	}
+	
+	public int getDefaultPoolSize() {
+		return defaultPoolSize;
+	}
+	
+	/**
+	 * @return the default max amount of queued use cases, or null if the queue is not bounded.
+	 */
+	public Integer getDefaultQueueCapacity() {
+		return defaultQueueCapacity;
+	}
+}
@@ -0,0 +1,23 @@
+package com.jdroid.android.usecase.executor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the {@link UseCaseCategory} of a use case, so it is executed on the pool of that category. For example:
+ * <pre>
+ * &#64;UseCaseExecutorCategory(UseCaseCategory.DB_WRITE)
+ * public class SaveDraftUseCase extends AbstractUseCase { ... }
+ * </pre>
+ * Use cases can also override {@link com.jdroid.android.usecase.AbstractUseCase#getCategory()}.
+ */
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface UseCaseExecutorCategory {
+	
+	UseCaseCategory value();
+}
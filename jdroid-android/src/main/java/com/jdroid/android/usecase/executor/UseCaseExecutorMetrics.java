@@ -0,0 +1,83 @@
+package com.jdroid.android.usecase.executor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Execution metrics of a {@link UseCaseCategory}. The queue wait is the time between the submission of a use case and
+ * the start of its execution; the run time is the execution time itself.
+ */
+public class UseCaseExecutorMetrics {
+	
+	private UseCaseCategory category;
+	
+	private AtomicLong executedCount = new AtomicLong();
+	private AtomicLong rejectedCount = new AtomicLong();
+	private AtomicLong totalQueueWaitNanos = new AtomicLong();
+	private AtomicLong maxQueueWaitNanos = new AtomicLong();
+	private AtomicLong totalRunNanos = new AtomicLong();
+	private AtomicLong maxRunNanos = new AtomicLong();
+	
+	public UseCaseExecutorMetrics(UseCaseCategory category) {
+		this.category = category;
+	}
+	
+	void recordQueueWait(long nanos) {
+		totalQueueWaitNanos.addAndGet(nanos);
+		updateMax(maxQueueWaitNanos, nanos);
+	}
+	
+	void recordRun(long nanos) {
+		executedCount.incrementAndGet();
+		totalRunNanos.addAndGet(nanos);
+		updateMax(maxRunNanos, nanos);
+	}
+	
+	void recordRejection() {
+		rejectedCount.incrementAndGet();
+	}
+	
+	private static void updateMax(AtomicLong max, long value) {
+		long current = max.get();
+		while (value > current && !max.compareAndSet(current, value)) {
+			current = max.get();
+		}
+	}
+	
+	public UseCaseCategory getCategory() {
+		return category;
+	}
+	
+	public long getExecutedCount() {
+		return executedCount.get();
+	}
+	
+	public long getRejectedCount() {
+		return rejectedCount.get();
+	}
+	
+	public long getAverageQueueWaitMillis() {
+		long count = executedCount.get();
+		return count > 0 ? TimeUnit.NANOSECONDS.toMillis(totalQueueWaitNanos.get() / count) : 0;
+	}
+	
+	public long getMaxQueueWaitMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(maxQueueWaitNanos.get());
+	}
+	
+	public long getAverageRunMillis() {
+		long count = executedCount.get();
+		return count > 0 ? TimeUnit.NANOSECONDS.toMillis(totalRunNanos.get() / count) : 0;
+	}
+	
+	public long getMaxRunMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(maxRunNanos.get());
+	}
+	
+	@Override
+	public String toString() {
+		return category + " [executed: " + getExecutedCount() + ", rejected: " + getRejectedCount()
+				+ ", avg queue wait: " + getAverageQueueWaitMillis() + " ms, max queue wait: " + getMaxQueueWaitMillis()
+				+ " ms, avg run: " + getAverageRunMillis() + " ms, max run: " + getMaxRunMillis() + " ms]";
+	}
+}
@@ -0,0 +1,167 @@
+package com.jdroid.android.usecase.executor;
+
+import com.jdroid.android.usecase.AbstractUseCase;
+import com.jdroid.java.collections.Lists;
+import com.jdroid.java.concurrent.LowPriorityThreadFactory;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps an executor for each {@link UseCaseCategory}. The executors are created the first time a use case of its
+ * category is executed. Override {@link #createExecutor(UseCaseCategory)} to customize the sizing or the queue policy
+ * of a category.
+ * <p>
+ * The queued use cases of each category are started by its {@link UseCasePriority}, using a
+ * {@link UseCasePriorityQueue}, except the {@link UseCaseCategory#DB_WRITE} ones, which are started in submission
+ * order, so the writes are applied in the same order they were requested.
+ */
+public class UseCaseExecutorRegistry {
+	
+	private static final ScheduledExecutorService RETRY_SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+		new LowPriorityThreadFactory());
+	
+	private Map<UseCaseCategory, UseCaseThreadPoolExecutor> executors = new EnumMap<>(UseCaseCategory.class);
+	private boolean inBackground;
+	
+	/**
+	 * Executes the use case on the executor of its category.
+	 * 
+	 * @param useCase the use case.
+	 * @return the submitted task.
+	 */
+	public UseCaseTask execute(AbstractUseCase useCase) {
+		UseCaseTask useCaseTask = new UseCaseTask(useCase);
+		useCase.setFuture(useCaseTask);
+		getExecutor(useCase.getCategory()).execute(useCaseTask);
+		return useCaseTask;
+	}
+	
+	public UseCaseThreadPoolExecutor getExecutor(UseCaseCategory category) {
+		synchronized (executors) {
+			UseCaseThreadPoolExecutor executor = executors.get(category);
+			if (executor == null) {
+				executor = createExecutor(category);
+				setInBackground(executor, inBackground);
+				executors.put(category, executor);
+			}
+			return executor;
+		}
+	}
+	
+	/**
+	 * Creates the executor of the given category, using its default pool size and queue capacity.
+	 * 
+	 * @param category the category.
+	 * @return the executor.
+	 */
+	protected UseCaseThreadPoolExecutor createExecutor(UseCaseCategory category) {
+		BlockingQueue<Runnable> queue;
+		Integer capacity = category.getDefaultQueueCapacity();
+		if (category == UseCaseCategory.DB_WRITE) {
+			queue = capacity != null ? new ArrayBlockingQueue<Runnable>(capacity) : new LinkedBlockingQueue<Runnable>();
+		} else if (capacity != null) {
+			queue = new UseCasePriorityQueue(capacity);
+		} else {
+			queue = new UseCasePriorityQueue();
+		}
+		return new UseCaseThreadPoolExecutor(category, category.getDefaultPoolSize(), queue);
+	}
+	
+	/**
+	 * Queues the task again after the delay, to execute the next attempt of its use case.
+	 * 
+	 * @param useCaseTask the task.
+	 * @param delayMillis the milliseconds to wait.
+	 */
+	void scheduleRetry(final UseCaseTask useCaseTask, long delayMillis) {
+		RETRY_SCHEDULER.schedule(new Runnable() {
+			
+			@Override
+			public void run() {
+				if (useCaseTask.isDone()) {
+					return;
+				}
+				useCaseTask.resetSubmitTime();
+				try {
+					getExecutor(useCaseTask.getUseCase().getCategory()).execute(useCaseTask);
+				} catch (RejectedExecutionException e) {
+					useCaseTask.reject(e);
+				}
+			}
+		}, delayMillis, TimeUnit.MILLISECONDS);
+	}
+	
+	/**
+	 * Removes the task from the queue of its executor, so it can be executed on the current thread instead.
+	 * 
+	 * @param useCaseTask the task.
+	 * @return true if the task was queued, so it hasn't started.
+	 */
+	public boolean remove(UseCaseTask useCaseTask) {
+		return getExecutor(useCaseTask.getUseCase().getCategory()).remove(useCaseTask);
+	}
+	
+	/**
+	 * Raises the priority of the use case if it is queued with a lower one. It doesn't change the priority of its
+	 * next executions, and it has no effect on the {@link UseCaseCategory#DB_WRITE} use cases, which are started in
+	 * submission order.
+	 * 
+	 * @param useCase the use case.
+	 * @param priority the new priority.
+	 */
+	public void promote(AbstractUseCase useCase, UseCasePriority priority) {
+		Future<?> future = useCase.getFuture();
+		if (future instanceof UseCaseTask && !future.isDone()) {
+			UseCaseTask useCaseTask = (UseCaseTask)future;
+			if (priority.isHigherThan(useCaseTask.getPriority())) {
+				BlockingQueue<Runnable> queue = getExecutor(useCase.getCategory()).getQueue();
+				if (queue instanceof UseCasePriorityQueue) {
+					((UseCasePriorityQueue)queue).reprioritize(useCaseTask, priority);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Demotes or defers the queued use cases while the application is in background. See {@link UseCasePriorityQueue}.
+	 * 
+	 * @param inBackground whether the application is in background.
+	 */
+	public void setInBackground(boolean inBackground) {
+		synchronized (executors) {
+			this.inBackground = inBackground;
+			for (UseCaseThreadPoolExecutor executor : executors.values()) {
+				setInBackground(executor, inBackground);
+			}
+		}
+	}
+	
+	private void setInBackground(UseCaseThreadPoolExecutor executor, boolean inBackground) {
+		if (executor.getQueue() instanceof UseCasePriorityQueue) {
+			((UseCasePriorityQueue)executor.getQueue()).setInBackground(inBackground);
+		}
+	}
+	
+	/**
+	 * @return the metrics of the categories whose executor has been created.
+	 */
+	public List<UseCaseExecutorMetrics> getMetrics() {
+		List<UseCaseExecutorMetrics> metrics = Lists.newArrayList();
+		synchronized (executors) {
+			for (UseCaseThreadPoolExecutor executor : executors.values()) {
+				metrics.add(executor.getMetrics());
+			}
+		}
+		return metrics;
+	}
+}
@@ -0,0 +1,33 @@
+package com.jdroid.android.usecase.executor;
+
+/**
+ * Urgency of a use case. The queued use cases of each {@link UseCaseCategory} are started in priority order, so a
+ * prefetch doesn't delay the use case the user is waiting for.
+ */
+public enum UseCasePriority {
+	
+	/**
+	 * The user can't interact with the screen until the use case finishes.
+	 */
+	UI_BLOCKING,
+	
+	/**
+	 * The result is displayed on a visible screen. It is the default priority.
+	 */
+	VISIBLE,
+	
+	/**
+	 * The result could be displayed soon, for example the next page of a list. They are deferred while the
+	 * application is in background.
+	 */
+	PREFETCH,
+	
+	/**
+	 * The result is not displayed, like a synchronization or a cache refresh.
+	 */
+	BACKGROUND;
+	
+	public Boolean isHigherThan(UseCasePriority priority) {
+		return ordinal() < priority.ordinal();
+	}
+}
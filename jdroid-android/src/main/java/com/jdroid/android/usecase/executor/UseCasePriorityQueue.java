@@ -0,0 +1,441 @@
+package com.jdroid.android.usecase.executor;
+
+import com.jdroid.java.collections.Lists;
+
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Queue of a {@link UseCaseThreadPoolExecutor} which returns the queued tasks by its {@link UseCasePriority}, and in
+ * submission order for the same priority. The runnables which are not a {@link UseCaseTask} have
+ * {@link UseCasePriority#VISIBLE} priority.
+ * <p>
+ * To avoid starvation, a task is promoted one priority for each aging interval it waits on the queue.
+ * <p>
+ * While the application is in background, no screen is waiting for a result, so all the priorities are demoted to
+ * {@link UseCasePriority#BACKGROUND} and the tasks are returned in submission order, except the
+ * {@link UseCasePriority#PREFETCH} ones, which are deferred until the application is in foreground again.
+ */
+public class UseCasePriorityQueue extends AbstractQueue<Runnable> implements BlockingQueue<Runnable> {
+	
+	private static final long DEFAULT_AGING_NANOS = TimeUnit.SECONDS.toNanos(5);
+	
+	private int capacity;
+	private long agingNanos;
+	private Map<UseCasePriority, LinkedList<Entry>> deques = new EnumMap<>(UseCasePriority.class);
+	private int count;
+	private boolean inBackground;
+	
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition notEmpty = lock.newCondition();
+	private final Condition notFull = lock.newCondition();
+	
+	public UseCasePriorityQueue() {
+		this(Integer.MAX_VALUE);
+	}
+	
+	public UseCasePriorityQueue(int capacity) {
+		this(capacity, DEFAULT_AGING_NANOS);
+	}
+	
+	public UseCasePriorityQueue(int capacity, long agingNanos) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("The capacity must be positive");
+		}
+		this.capacity = capacity;
+		this.agingNanos = agingNanos;
+		for (UseCasePriority priority : UseCasePriority.values()) {
+			deques.put(priority, new LinkedList<Entry>());
+		}
+	}
+	
+	/**
+	 * @return the current time, in nanoseconds. It is used to measure how long a task has been queued.
+	 */
+	protected long nowNanos() {
+		return System.nanoTime();
+	}
+	
+	/**
+	 * Changes the priority of a queued task. It keeps its submission time, so it is not delayed by the tasks submitted
+	 * after it.
+	 * 
+	 * @param useCaseTask the task.
+	 * @param priority the new priority.
+	 * @return true if the task was queued.
+	 */
+	public boolean reprioritize(UseCaseTask useCaseTask, UseCasePriority priority) {
+		lock.lock();
+		try {
+			Entry entry = removeEntry(useCaseTask);
+			if (entry == null) {
+				return false;
+			}
+			useCaseTask.setPriority(priority);
+			insert(entry);
+			count++;
+			notEmpty.signal();
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * @param inBackground whether the application is in background.
+	 */
+	public void setInBackground(boolean inBackground) {
+		lock.lock();
+		try {
+			this.inBackground = inBackground;
+			if (!inBackground) {
+				// The deferred tasks can be returned now
+				notEmpty.signalAll();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	public boolean isInBackground() {
+		lock.lock();
+		try {
+			return inBackground;
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	@Override
+	public boolean offer(Runnable runnable) {
+		checkNotNull(runnable);
+		lock.lock();
+		try {
+			if (count == capacity) {
+				return false;
+			}
+			enqueue(runnable);
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	@Override
+	public boolean offer(Runnable runnable, long timeout, TimeUnit unit) throws InterruptedException {
+		checkNotNull(runnable);
+		long nanos = unit.toNanos(timeout);
+		lock.lockInterruptibly();
+		try {
+			while (count == capacity) {
+				if (nanos <= 0) {
+					return false;
+				}
+				nanos = notFull.awaitNanos(nanos);
+			}
+			enqueue(runnable);
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	@Override
+	public void put(Runnable runnable) throws InterruptedException {
+		checkNotNull(runnable);
+		lock.lockInterruptibly();
+		try {
+			while (count == capacity) {
+				notFull.await();
+			}
+			enqueue(runnable);
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	@Override
+	public Runnable take() throws InterruptedException {
+		lock.lockInterruptibly();
+		try {
+			Runnable runnable;
+			while ((runnable = dequeue()) == null) {
+				notEmpty.await();
+			}
+			return runnable;
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	@Override
+	public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+		long nanos = unit.toNanos(timeout);
+		lock.lockInterruptibly();
+		try {
+			Runnable runnable;
+			while ((runnable = dequeue()) == null) {
+				if (nanos <= 0) {
+					return null;
+				}
+				nanos = notEmpty.awaitNanos(nanos);
+			}
+			return runnable;
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	@Override
+	public Runnable poll() {
+		lock.lock();
+		try {
+			return dequeue();
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	@Override
+	public Runnable peek() {
+		lock.lock();
+		try {
+			Entry entry = selectNext();
+			return entry != null ? entry.runnable : null;
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * @return the amount of queued tasks, including the deferred ones.
+	 */
+	@Override
+	public int size() {
+		lock.lock();
+		try {
+			return count;
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	@Override
+	public int remainingCapacity() {
+		lock.lock();
+		try {
+			return capacity - count;
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	@Override
+	public boolean remove(Object object) {
+		lock.lock();
+		try {
+			return removeEntry(object) != null;
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	@Override
+	public void clear() {
+		lock.lock();
+		try {
+			for (LinkedList<Entry> deque : deques.values()) {
+				deque.clear();
+			}
+			count = 0;
+			notFull.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Drains all the tasks, including the deferred ones, so the executor can return them on shutdown.
+	 */
+	@Override
+	public int drainTo(Collection<? super Runnable> collection) {
+		return drainTo(collection, Integer.MAX_VALUE);
+	}
+	
+	@Override
+	public int drainTo(Collection<? super Runnable> collection, int maxElements) {
+		checkNotNull(collection);
+		if (collection == this) {
+			throw new IllegalArgumentException();
+		}
+		lock.lock();
+		try {
+			int drained = 0;
+			for (LinkedList<Entry> deque : deques.values()) {
+				while (drained < maxElements && !deque.isEmpty()) {
+					collection.add(deque.poll().runnable);
+					drained++;
+				}
+			}
+			count -= drained;
+			if (drained > 0) {
+				notFull.signalAll();
+			}
+			return drained;
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * @return an iterator over a snapshot of the queued tasks. Its {@link Iterator#remove()} removes the task from this
+	 * queue.
+	 */
+	@Override
+	public Iterator<Runnable> iterator() {
+		final List<Runnable> snapshot = Lists.newArrayList();
+		lock.lock();
+		try {
+			for (LinkedList<Entry> deque : deques.values()) {
+				for (Entry entry : deque) {
+					snapshot.add(entry.runnable);
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+		return new Iterator<Runnable>() {
+			
+			private Iterator<Runnable> iterator = snapshot.iterator();
+			private Runnable current;
+			
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+			
+			@Override
+			public Runnable next() {
+				current = iterator.next();
+				return current;
+			}
+			
+			@Override
+			public void remove() {
+				if (current == null) {
+					throw new IllegalStateException();
+				}
+				UseCasePriorityQueue.this.remove(current);
+				current = null;
+			}
+		};
+	}
+	
+	private void enqueue(Runnable runnable) {
+		insert(new Entry(runnable, nowNanos()));
+		count++;
+		notEmpty.signal();
+	}
+	
+	/**
+	 * Inserts the entry in submission order, so a reprioritized task is not placed after the tasks submitted later.
+	 */
+	private void insert(Entry entry) {
+		LinkedList<Entry> deque = deques.get(getPriority(entry.runnable));
+		ListIterator<Entry> iterator = deque.listIterator(deque.size());
+		while (iterator.hasPrevious()) {
+			if (iterator.previous().enqueueNanos - entry.enqueueNanos <= 0) {
+				iterator.next();
+				break;
+			}
+		}
+		iterator.add(entry);
+	}
+	
+	private Runnable dequeue() {
+		Entry entry = selectNext();
+		if (entry == null) {
+			return null;
+		}
+		deques.get(getPriority(entry.runnable)).poll();
+		count--;
+		notFull.signal();
+		return entry.runnable;
+	}
+	
+	/**
+	 * Each deque is in submission order, so only its head can be the next task.
+	 * 
+	 * @return the next task to execute, or null if there isn't any available.
+	 */
+	private Entry selectNext() {
+		long now = nowNanos();
+		Entry next = null;
+		int nextPriority = Integer.MAX_VALUE;
+		for (Map.Entry<UseCasePriority, LinkedList<Entry>> each : deques.entrySet()) {
+			Entry head = each.getValue().peek();
+			if (head == null || (inBackground && each.getKey() == UseCasePriority.PREFETCH)) {
+				continue;
+			}
+			int priority = inBackground ? UseCasePriority.BACKGROUND.ordinal() : getEffectivePriority(each.getKey(),
+				head, now);
+			if (priority < nextPriority || (priority == nextPriority && head.enqueueNanos - next.enqueueNanos < 0)) {
+				next = head;
+				nextPriority = priority;
+			}
+		}
+		return next;
+	}
+	
+	private int getEffectivePriority(UseCasePriority priority, Entry entry, long now) {
+		long promotions = agingNanos > 0 ? (now - entry.enqueueNanos) / agingNanos : 0;
+		return (int)Math.max(0, priority.ordinal() - promotions);
+	}
+	
+	private Entry removeEntry(Object runnable) {
+		for (LinkedList<Entry> deque : deques.values()) {
+			Iterator<Entry> iterator = deque.iterator();
+			while (iterator.hasNext()) {
+				Entry entry = iterator.next();
+				if (entry.runnable == runnable) {
+					iterator.remove();
+					count--;
+					notFull.signal();
+					return entry;
+				}
+			}
+		}
+		return null;
+	}
+	
+	private UseCasePriority getPriority(Runnable runnable) {
+		return runnable instanceof UseCaseTask ? ((UseCaseTask)runnable).getPriority() : UseCasePriority.VISIBLE;
+	}
+	
+	private static void checkNotNull(Object object) {
+		if (object == null) {
+			throw new NullPointerException();
+		}
+	}
+	
+	private static class Entry {
+		
+		private Runnable runnable;
+		private long enqueueNanos;
+		
+		public Entry(Runnable runnable, long enqueueNanos) {
+			this.runnable = runnable;
+			this.enqueueNanos = enqueueNanos;
+		}
+	}
+}
@@ -0,0 +1,142 @@
+package com.jdroid.android.usecase.executor;
+
+import com.jdroid.android.application.AbstractApplication;
+import com.jdroid.android.usecase.AbstractUseCase;
+
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Execution of a use case submitted to a {@link UseCaseThreadPoolExecutor}. It keeps the submission time, to measure
+ * the queue wait.
+ * <p>
+ * When an attempt of the use case fails and should be retried, the task is not completed: it is queued again after the
+ * retry delay, so no executor thread is kept while waiting. The task completes when the last attempt finishes.
+ */
+public class UseCaseTask extends FutureTask<Void> {
+	
+	private AbstractUseCase useCase;
+	private Execution execution;
+	private volatile long submitTimeNanos;
+	private volatile UseCasePriority priority;
+	
+	public UseCaseTask(AbstractUseCase useCase) {
+		this(useCase, new Execution(useCase));
+	}
+	
+	private UseCaseTask(AbstractUseCase useCase, Execution execution) {
+		super(execution, null);
+		this.useCase = useCase;
+		this.execution = execution;
+		submitTimeNanos = System.nanoTime();
+		priority = useCase.getPriority();
+	}
+	
+	@Override
+	public void run() {
+		boolean finished = runAndReset();
+		long retryDelayMillis = execution.takeRetryDelayMillis();
+		if (retryDelayMillis >= 0) {
+			// The next attempt can be cancelled while waiting, like the first one
+			execution.release();
+			if (!isCancelled()) {
+				AbstractApplication.get().getUseCaseExecutorRegistry().scheduleRetry(this, retryDelayMillis);
+			} else if (execution.claim()) {
+				useCase.onTaskCancelled();
+			}
+		} else if (finished) {
+			set(null);
+		}
+	}
+	
+	/**
+	 * Fails the task because its next attempt couldn't be queued.
+	 */
+	void reject(RejectedExecutionException exception) {
+		if (execution.claim()) {
+			useCase.onRetryRejected(exception);
+		}
+		setException(exception);
+	}
+	
+	/**
+	 * If the task is cancelled before the use case starts, the use case is never executed, so it is notified here.
+	 */
+	@Override
+	protected void done() {
+		super.done();
+		if (isCancelled() && execution.claim()) {
+			useCase.onTaskCancelled();
+		}
+	}
+	
+	public AbstractUseCase getUseCase() {
+		return useCase;
+	}
+	
+	public long getSubmitTimeNanos() {
+		return submitTimeNanos;
+	}
+	
+	void resetSubmitTime() {
+		submitTimeNanos = System.nanoTime();
+	}
+	
+	public UseCasePriority getPriority() {
+		return priority;
+	}
+	
+	/**
+	 * The priority of a queued task must be changed with {@link UseCasePriorityQueue#reprioritize}.
+	 */
+	void setPriority(UseCasePriority priority) {
+		this.priority = priority;
+	}
+	
+	/**
+	 * Executes the next attempt of the use case unless the task was cancelled first.
+	 */
+	private static class Execution implements Runnable {
+		
+		private static final long NO_RETRY = -1;
+		
+		private AbstractUseCase useCase;
+		private AtomicBoolean claimed = new AtomicBoolean(false);
+		private int attempt;
+		private long retryDelayMillis = NO_RETRY;
+		
+		public Execution(AbstractUseCase useCase) {
+			this.useCase = useCase;
+		}
+		
+		public boolean claim() {
+			return claimed.compareAndSet(false, true);
+		}
+		
+		/**
+		 * Allows the next attempt to be executed or cancelled.
+		 */
+		public void release() {
+			claimed.set(false);
+		}
+		
+		/**
+		 * @return the milliseconds to wait before the next attempt, or a negative value if the use case finished or was
+		 * not executed.
+		 */
+		public long takeRetryDelayMillis() {
+			long delayMillis = retryDelayMillis;
+			retryDelayMillis = NO_RETRY;
+			return delayMillis;
+		}
+		
+		@Override
+		public void run() {
+			if (claim()) {
+				attempt++;
+				retryDelayMillis = useCase.runAttempt(attempt);
+			}
+		}
+	}
+}
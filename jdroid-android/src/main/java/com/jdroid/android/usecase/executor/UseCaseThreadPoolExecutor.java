@@ -0,0 +1,90 @@
+package com.jdroid.android.usecase.executor;
+
+import com.jdroid.android.application.AbstractApplication;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed size pool which executes the use cases of a {@link UseCaseCategory} and records its
+ * {@link UseCaseExecutorMetrics}. The idle threads are terminated after the keep alive time.
+ */
+public class UseCaseThreadPoolExecutor extends ThreadPoolExecutor {
+	
+	private static final long KEEP_ALIVE_SECONDS = 30;
+	
+	private UseCaseExecutorMetrics metrics;
+	private ThreadLocal<Long> startTimeNanos = new ThreadLocal<>();
+	
+	public UseCaseThreadPoolExecutor(final UseCaseCategory category, int poolSize, BlockingQueue<Runnable> queue) {
+		super(poolSize, poolSize, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, queue, new ThreadFactory() {
+			
+			private AtomicInteger threadCount = new AtomicInteger();
+			
+			@Override
+			public Thread newThread(Runnable runnable) {
+				return new Thread(runnable, "UseCase-" + category.name() + "-" + threadCount.incrementAndGet());
+			}
+		});
+		allowCoreThreadTimeOut(true);
+		metrics = new UseCaseExecutorMetrics(category);
+		setRejectedExecutionHandler(new RejectedExecutionHandler() {
+			
+			@Override
+			public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+				metrics.recordRejection();
+				throw new RejectedExecutionException("Use case rejected by the " + metrics.getCategory() + " executor");
+			}
+		});
+	}
+	
+	@Override
+	protected void beforeExecute(Thread thread, Runnable runnable) {
+		super.beforeExecute(thread, runnable);
+		long now = System.nanoTime();
+		if (runnable instanceof UseCaseTask) {
+			UseCaseTask useCaseTask = (UseCaseTask)runnable;
+			long queueWait = now - useCaseTask.getSubmitTimeNanos();
+			metrics.recordQueueWait(queueWait);
+			AbstractApplication.get().getUseCaseMetricsRegistry().recordQueueWait(useCaseTask.getUseCase().getClass(),
+				queueWait);
+		}
+		startTimeNanos.set(now);
+	}
+	
+	@Override
+	protected void afterExecute(Runnable runnable, Throwable throwable) {
+		super.afterExecute(runnable, throwable);
+		Long startTime = startTimeNanos.get();
+		if (startTime != null) {
+			metrics.recordRun(System.nanoTime() - startTime);
+		}
+		
+		// The use case handles its exceptions, but the errors are captured by the task and nobody gets its result, so
+		// they are thrown again on the worker thread to reach the uncaught exception handler
+		if (throwable == null && runnable instanceof UseCaseTask) {
+			UseCaseTask useCaseTask = (UseCaseTask)runnable;
+			if (useCaseTask.isDone() && !useCaseTask.isCancelled()) {
+				try {
+					useCaseTask.get();
+				} catch (ExecutionException e) {
+					if (e.getCause() instanceof Error) {
+						throw (Error)e.getCause();
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+	}
+	
+	public UseCaseExecutorMetrics getMetrics() {
+		return metrics;
+	}
+}
@@ -0,0 +1,12 @@
+package com.jdroid.android.usecase.listener;
+
+/**
+ * {@link UseCaseListener} which is also notified when the use case is cancelled.
+ */
+public interface CancellableUseCaseListener extends UseCaseListener {
+	
+	/**
+	 * Called after the use case is cancelled
+	 */
+	public void onCancelUseCase();
+}
@@ -0,0 +1,136 @@
+package com.jdroid.android.usecase.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of durations, with the log-linear buckets used by HDR histograms: each power of two is split in
+ * {@link #SUB_BUCKETS} linear buckets, so the percentiles have a relative error below 7% from one microsecond to
+ * days, using a fixed amount of memory.
+ * <p>
+ * The recording is lock-free: it only increments atomic counters, so it can be invoked from any thread on the hot
+ * path. The reads are not atomic with the recordings, so a percentile can miss the values being recorded.
+ */
+public class UseCaseHistogram {
+	
+	private static final int SUB_BUCKET_BITS = 4;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	
+	// Values up to 2^40 microseconds (about 12 days). Greater values are recorded on the last bucket.
+	private static final int MAX_EXPONENT = 40;
+	private static final int BUCKETS = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+	
+	private AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private AtomicLong totalCount = new AtomicLong();
+	private AtomicLong totalMicros = new AtomicLong();
+	private AtomicLong maxMicros = new AtomicLong();
+	
+	/**
+	 * @param nanos the duration to record, in nanoseconds.
+	 */
+	public void record(long nanos) {
+		long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos));
+		counts.incrementAndGet(getBucketIndex(micros));
+		totalCount.incrementAndGet();
+		totalMicros.addAndGet(micros);
+		long max;
+		while (micros > (max = maxMicros.get())) {
+			if (maxMicros.compareAndSet(max, micros)) {
+				break;
+			}
+		}
+	}
+	
+	static int getBucketIndex(long micros) {
+		if (micros < SUB_BUCKETS) {
+			return (int)micros;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(micros);
+		if (exponent > MAX_EXPONENT) {
+			return BUCKETS - 1;
+		}
+		int shift = exponent - SUB_BUCKET_BITS;
+		int subBucket = (int)(micros >>> shift) - SUB_BUCKETS;
+		return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+	}
+	
+	/**
+	 * @return the greatest value recorded on the bucket, so the percentiles are never underestimated.
+	 */
+	static long getBucketUpperBound(int index) {
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+		int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+		int subBucket = (index - SUB_BUCKETS) % SUB_BUCKETS;
+		return ((long)(SUB_BUCKETS + subBucket + 1) << shift) - 1;
+	}
+	
+	/**
+	 * @param percentile a percentile, between 0 and 100.
+	 * @return the value, in microseconds, below or equal to which the given percentile of the values are. It is 0 if
+	 * nothing was recorded.
+	 */
+	public long getPercentileMicros(double percentile) {
+		long[] snapshot = new long[BUCKETS];
+		long count = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			snapshot[i] = counts.get(i);
+			count += snapshot[i];
+		}
+		if (count == 0) {
+			return 0;
+		}
+		long target = Math.max(1, (long)Math.ceil(count * Math.min(100, percentile) / 100));
+		long accumulated = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			accumulated += snapshot[i];
+			if (accumulated >= target) {
+				return Math.min(getBucketUpperBound(i), maxMicros.get());
+			}
+		}
+		return maxMicros.get();
+	}
+	
+	public long getCount() {
+		return totalCount.get();
+	}
+	
+	public long getMaxMicros() {
+		return maxMicros.get();
+	}
+	
+	public long getMeanMicros() {
+		long count = totalCount.get();
+		return count > 0 ? totalMicros.get() / count : 0;
+	}
+	
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			counts.set(i, 0);
+		}
+		totalCount.set(0);
+		totalMicros.set(0);
+		maxMicros.set(0);
+	}
+	
+	public Map<String, Object> toJsonMap() {
+		Map<String, Object> json = new LinkedHashMap<>();
+		json.put("count", getCount());
+		json.put("meanMicros", getMeanMicros());
+		json.put("p50Micros", getPercentileMicros(50));
+		json.put("p90Micros", getPercentileMicros(90));
+		json.put("p99Micros", getPercentileMicros(99));
+		json.put("maxMicros", getMaxMicros());
+		return json;
+	}
+	
+	@Override
+	public String toString() {
+		return "count=" + getCount() + ", p50=" + getPercentileMicros(50) + "us, p90=" + getPercentileMicros(90)
+				+ "us, p99=" + getPercentileMicros(99) + "us, max=" + getMaxMicros() + "us";
+	}
+}
@@ -0,0 +1,72 @@
+package com.jdroid.android.usecase.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics of the executions of a use case class.
+ */
+public class UseCaseMetrics {
+	
+	private String useCaseName;
+	private UseCaseHistogram queueWait = new UseCaseHistogram();
+	private UseCaseHistogram execution = new UseCaseHistogram();
+	private UseCaseHistogram notification = new UseCaseHistogram();
+	private AtomicLong failuresCount = new AtomicLong();
+	
+	public UseCaseMetrics(String useCaseName) {
+		this.useCaseName = useCaseName;
+	}
+	
+	public void recordFailure() {
+		failuresCount.incrementAndGet();
+	}
+	
+	public String getUseCaseName() {
+		return useCaseName;
+	}
+	
+	/**
+	 * @return the time between the submission to the executor and the start of the execution.
+	 */
+	public UseCaseHistogram getQueueWait() {
+		return queueWait;
+	}
+	
+	/**
+	 * @return the duration of the executions, successful or failed.
+	 */
+	public UseCaseHistogram getExecution() {
+		return execution;
+	}
+	
+	/**
+	 * @return the time between the post of a notification to the listeners and the end of its dispatch. It includes
+	 * the wait for the main thread.
+	 */
+	public UseCaseHistogram getNotification() {
+		return notification;
+	}
+	
+	public long getFailuresCount() {
+		return failuresCount.get();
+	}
+	
+	public void reset() {
+		queueWait.reset();
+		execution.reset();
+		notification.reset();
+		failuresCount.set(0);
+	}
+	
+	public Map<String, Object> toJsonMap() {
+		Map<String, Object> json = new LinkedHashMap<>();
+		json.put("useCase", useCaseName);
+		json.put("failures", getFailuresCount());
+		json.put("queueWait", queueWait.toJsonMap());
+		json.put("execution", execution.toJsonMap());
+		json.put("notification", notification.toJsonMap());
+		return json;
+	}
+}
@@ -0,0 +1,121 @@
+package com.jdroid.android.usecase.metrics;
+
+import com.jdroid.android.usecase.AbstractUseCase;
+import com.jdroid.java.collections.Lists;
+import com.jdroid.java.exception.UnexpectedException;
+import com.jdroid.java.json.JSONArray;
+import com.jdroid.java.json.JSONObject;
+import com.jdroid.java.utils.LoggerUtils;
+
+import org.slf4j.Logger;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In process registry of the {@link UseCaseMetrics} of each use case class. The metrics are recorded by the use case
+ * executors and by {@link AbstractUseCase}, and can be exported as JSON.
+ */
+public class UseCaseMetricsRegistry {
+	
+	private static final Logger LOGGER = LoggerUtils.getLogger(UseCaseMetricsRegistry.class);
+	
+	private ConcurrentMap<Class<?>, UseCaseMetrics> metrics = new ConcurrentHashMap<>();
+	private long startTime = System.currentTimeMillis();
+	
+	public UseCaseMetrics getMetrics(Class<? extends AbstractUseCase> useCaseClass) {
+		UseCaseMetrics useCaseMetrics = metrics.get(useCaseClass);
+		if (useCaseMetrics == null) {
+			useCaseMetrics = new UseCaseMetrics(useCaseClass.getSimpleName());
+			UseCaseMetrics previous = metrics.putIfAbsent(useCaseClass, useCaseMetrics);
+			if (previous != null) {
+				useCaseMetrics = previous;
+			}
+		}
+		return useCaseMetrics;
+	}
+	
+	public void recordQueueWait(Class<? extends AbstractUseCase> useCaseClass, long nanos) {
+		getMetrics(useCaseClass).getQueueWait().record(nanos);
+	}
+	
+	public void recordExecution(Class<? extends AbstractUseCase> useCaseClass, long nanos, boolean failed) {
+		UseCaseMetrics useCaseMetrics = getMetrics(useCaseClass);
+		useCaseMetrics.getExecution().record(nanos);
+		if (failed) {
+			useCaseMetrics.recordFailure();
+		}
+	}
+	
+	public void recordNotification(Class<? extends AbstractUseCase> useCaseClass, long nanos) {
+		getMetrics(useCaseClass).getNotification().record(nanos);
+	}
+	
+	/**
+	 * @return the metrics of all the executed use cases, sorted by name.
+	 */
+	public List<UseCaseMetrics> getAllMetrics() {
+		List<UseCaseMetrics> allMetrics = Lists.newArrayList(metrics.values());
+		Collections.sort(allMetrics, new Comparator<UseCaseMetrics>() {
+			
+			@Override
+			public int compare(UseCaseMetrics metrics1, UseCaseMetrics metrics2) {
+				return metrics1.getUseCaseName().compareTo(metrics2.getUseCaseName());
+			}
+		});
+		return allMetrics;
+	}
+	
+	public void reset() {
+		for (UseCaseMetrics each : metrics.values()) {
+			each.reset();
+		}
+		startTime = System.currentTimeMillis();
+	}
+	
+	public String toJson() {
+		List<Object> useCases = Lists.newArrayList();
+		for (UseCaseMetrics each : getAllMetrics()) {
+			useCases.add(new JSONObject(each.toJsonMap()));
+		}
+		Map<String, Object> json = new LinkedHashMap<>();
+		json.put("startTime", startTime);
+		json.put("endTime", System.currentTimeMillis());
+		json.put("useCases", new JSONArray(useCases));
+		return new JSONObject(json).toString();
+	}
+	
+	/**
+	 * Writes the metrics of all the use cases as JSON on the given file.
+	 * 
+	 * @param file the destination file. It is overwritten if it exists.
+	 */
+	public void export(File file) {
+		Writer writer = null;
+		try {
+			writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+			writer.write(toJson());
+		} catch (IOException e) {
+			throw new UnexpectedException(e);
+		} finally {
+			if (writer != null) {
+				try {
+					writer.close();
+				} catch (IOException e) {
+					LOGGER.warn("Error closing the use case metrics file", e);
+				}
+			}
+		}
+		LOGGER.debug("Exported use case metrics to " + file.getAbsolutePath());
+	}
+}
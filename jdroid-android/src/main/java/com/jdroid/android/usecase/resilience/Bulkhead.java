@@ -0,0 +1,51 @@
+package com.jdroid.android.usecase.resilience;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the concurrent calls to a server, so a slow server can't take all the executor threads. The max wait for a
+ * slot keeps the executor thread, so it should be 0, to fail immediately, or short.
+ */
+public class Bulkhead {
+	
+	private String name;
+	private int maxConcurrentCalls;
+	private long maxWaitMillis;
+	private Semaphore semaphore;
+	
+	public Bulkhead(String name, int maxConcurrentCalls, long maxWaitMillis) {
+		this.name = name;
+		this.maxConcurrentCalls = maxConcurrentCalls;
+		this.maxWaitMillis = maxWaitMillis;
+		semaphore = new Semaphore(maxConcurrentCalls, true);
+	}
+	
+	/**
+	 * Waits for a call slot. {@link #release()} must be invoked when the call finishes.
+	 * 
+	 * @throws BulkheadFullException if no slot is released during the max wait time.
+	 * @throws InterruptedException if the thread is interrupted while waiting.
+	 */
+	public void acquire() throws InterruptedException {
+		if (!semaphore.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+			throw new BulkheadFullException("Max concurrent calls (" + maxConcurrentCalls + ") reached for " + name);
+		}
+	}
+	
+	public void release() {
+		semaphore.release();
+	}
+	
+	public String getName() {
+		return name;
+	}
+	
+	public int getMaxConcurrentCalls() {
+		return maxConcurrentCalls;
+	}
+	
+	public int getActiveCalls() {
+		return maxConcurrentCalls - semaphore.availablePermits();
+	}
+}
@@ -0,0 +1,15 @@
+package com.jdroid.android.usecase.resilience;
+
+import com.jdroid.java.exception.ConnectionException;
+
+/**
+ * Thrown when the max amount of concurrent calls to a server is reached, and no call finished during the wait time.
+ */
+public class BulkheadFullException extends ConnectionException {
+	
+	private static final long serialVersionUID = -5083541207616524379L;
+	
+	public BulkheadFullException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,156 @@
+package com.jdroid.android.usecase.resilience;
+
+import com.jdroid.java.exception.ConnectionException;
+
+/**
+ * Stops calling a server after many consecutive failures, so a struggling server is not flooded with requests.
+ * <ul>
+ * <li>{@link State#CLOSED}: the calls are allowed. After {@link #getFailureThreshold()} consecutive failures, the
+ * circuit is opened.</li>
+ * <li>{@link State#OPEN}: the calls fail immediately with a {@link CircuitBreakerOpenException}. After
+ * {@link #getOpenDurationMillis()}, the circuit is half opened.</li>
+ * <li>{@link State#HALF_OPEN}: only one trial call is allowed. If it succeeds, the circuit is closed, otherwise it is
+ * opened again.</li>
+ * </ul>
+ * Each permission belongs to the state in which it was acquired, so the results of the calls allowed before a
+ * transition are ignored. For example, a slow call allowed while the circuit was closed can't close it again, nor end
+ * the trial call, after it was opened.
+ */
+public class CircuitBreaker {
+	
+	public enum State {
+		CLOSED,
+		OPEN,
+		HALF_OPEN;
+	}
+	
+	private String name;
+	private int failureThreshold;
+	private long openDurationMillis;
+	private CircuitBreakerListener listener;
+	
+	private State state = State.CLOSED;
+	private int consecutiveFailures;
+	private long openedTime;
+	private boolean trialInProgress;
+	private long generation;
+	
+	public CircuitBreaker(String name, int failureThreshold, long openDurationMillis, CircuitBreakerListener listener) {
+		this.name = name;
+		this.failureThreshold = failureThreshold;
+		this.openDurationMillis = openDurationMillis;
+		this.listener = listener;
+	}
+	
+	/**
+	 * Must be invoked before each call. If it doesn't throw an exception, one of {@link #onSuccess(long)},
+	 * {@link #onFailure(long)} or {@link #onIgnored(long)} must be invoked with the returned permission when the call
+	 * finishes.
+	 * 
+	 * @return the permission of the call.
+	 * @throws CircuitBreakerOpenException if the call is not allowed.
+	 */
+	public synchronized long acquirePermission() {
+		if (state == State.OPEN) {
+			if (System.currentTimeMillis() - openedTime >= openDurationMillis) {
+				transitionTo(State.HALF_OPEN);
+			} else {
+				throw new CircuitBreakerOpenException("Circuit open for " + name);
+			}
+		}
+		if (state == State.HALF_OPEN) {
+			if (trialInProgress) {
+				throw new CircuitBreakerOpenException("Circuit half open for " + name + ", waiting for the trial call");
+			}
+			trialInProgress = true;
+		}
+		return generation;
+	}
+	
+	/**
+	 * @param permission the permission returned by {@link #acquirePermission()}.
+	 */
+	public synchronized void onSuccess(long permission) {
+		if (permission != generation) {
+			return;
+		}
+		trialInProgress = false;
+		consecutiveFailures = 0;
+		if (state != State.CLOSED) {
+			transitionTo(State.CLOSED);
+		}
+	}
+	
+	/**
+	 * @param permission the permission returned by {@link #acquirePermission()}.
+	 */
+	public synchronized void onFailure(long permission) {
+		if (permission != generation) {
+			return;
+		}
+		trialInProgress = false;
+		consecutiveFailures++;
+		if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+			openedTime = System.currentTimeMillis();
+			transitionTo(State.OPEN);
+		}
+	}
+	
+	/**
+	 * Invoked when the call finished without telling anything about the server health, for example because it was
+	 * cancelled.
+	 * 
+	 * @param permission the permission returned by {@link #acquirePermission()}.
+	 */
+	public synchronized void onIgnored(long permission) {
+		if (permission == generation) {
+			trialInProgress = false;
+		}
+	}
+	
+	/**
+	 * @param exception the exception thrown by a call.
+	 * @return whether the exception means that the server is not healthy. By default, only the
+	 * {@link ConnectionException} are considered, because the other errors are answered by the server.
+	 */
+	public boolean isFailure(RuntimeException exception) {
+		return exception instanceof ConnectionException;
+	}
+	
+	public synchronized void reset() {
+		trialInProgress = false;
+		consecutiveFailures = 0;
+		if (state != State.CLOSED) {
+			transitionTo(State.CLOSED);
+		}
+	}
+	
+	private void transitionTo(State newState) {
+		State oldState = state;
+		state = newState;
+		generation++;
+		if (listener != null) {
+			listener.onStateTransition(this, oldState, newState);
+		}
+	}
+	
+	public String getName() {
+		return name;
+	}
+	
+	public synchronized State getState() {
+		return state;
+	}
+	
+	public synchronized int getConsecutiveFailures() {
+		return consecutiveFailures;
+	}
+	
+	public int getFailureThreshold() {
+		return failureThreshold;
+	}
+	
+	public long getOpenDurationMillis() {
+		return openDurationMillis;
+	}
+}
@@ -0,0 +1,9 @@
+package com.jdroid.android.usecase.resilience;
+
+public interface CircuitBreakerListener {
+	
+	/**
+	 * Invoked on the thread which causes the transition, while the circuit breaker is locked.
+	 */
+	void onStateTransition(CircuitBreaker circuitBreaker, CircuitBreaker.State oldState, CircuitBreaker.State newState);
+}
@@ -0,0 +1,16 @@
+package com.jdroid.android.usecase.resilience;
+
+import com.jdroid.java.exception.ConnectionException;
+
+/**
+ * Thrown without calling the server while its {@link CircuitBreaker} is open. It is a {@link ConnectionException}, so
+ * it is displayed to the user like a connection error.
+ */
+public class CircuitBreakerOpenException extends ConnectionException {
+	
+	private static final long serialVersionUID = 4658113254108475364L;
+	
+	public CircuitBreakerOpenException(String message) {
+		super(message);
+	}
+}
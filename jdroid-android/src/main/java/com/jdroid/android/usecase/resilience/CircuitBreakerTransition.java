@@ -0,0 +1,43 @@
+package com.jdroid.android.usecase.resilience;
+
+import java.util.Date;
+
+/**
+ * State change of a {@link CircuitBreaker}.
+ */
+public class CircuitBreakerTransition {
+	
+	private String circuitBreakerName;
+	private CircuitBreaker.State oldState;
+	private CircuitBreaker.State newState;
+	private Date date;
+	
+	public CircuitBreakerTransition(String circuitBreakerName, CircuitBreaker.State oldState,
+			CircuitBreaker.State newState, Date date) {
+		this.circuitBreakerName = circuitBreakerName;
+		this.oldState = oldState;
+		this.newState = newState;
+		this.date = date;
+	}
+	
+	public String getCircuitBreakerName() {
+		return circuitBreakerName;
+	}
+	
+	public CircuitBreaker.State getOldState() {
+		return oldState;
+	}
+	
+	public CircuitBreaker.State getNewState() {
+		return newState;
+	}
+	
+	public Date getDate() {
+		return date;
+	}
+	
+	@Override
+	public String toString() {
+		return circuitBreakerName + ": " + oldState + " -> " + newState;
+	}
+}
@@ -0,0 +1,125 @@
+package com.jdroid.android.usecase.resilience;
+
+import com.jdroid.java.collections.Lists;
+import com.jdroid.java.date.DateUtils;
+import com.jdroid.java.http.Server;
+import com.jdroid.java.utils.LoggerUtils;
+
+import org.slf4j.Logger;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Keeps a {@link CircuitBreaker} and a {@link Bulkhead} for each {@link Server}. They are created the first time a use
+ * case calls the server. Override {@link #createCircuitBreaker(String)} or {@link #createBulkhead(String)} to
+ * customize the limits of a server.
+ */
+public class ResilienceRegistry implements CircuitBreakerListener {
+	
+	private static final Logger LOGGER = LoggerUtils.getLogger(ResilienceRegistry.class);
+	
+	private static final int FAILURE_THRESHOLD = 5;
+	private static final long OPEN_DURATION_MILLIS = DateUtils.MILLIS_PER_SECOND * 30;
+	private static final int MAX_CONCURRENT_CALLS = 4;
+	// The calls don't wait for a slot, so a slow server doesn't keep executor threads waiting
+	private static final long BULKHEAD_MAX_WAIT_MILLIS = 0;
+	private static final int MAX_TRANSITIONS = 50;
+	
+	private ConcurrentMap<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+	private ConcurrentMap<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+	private List<CircuitBreakerListener> listeners = new CopyOnWriteArrayList<>();
+	private LinkedList<CircuitBreakerTransition> transitions = new LinkedList<>();
+	
+	public CircuitBreaker getCircuitBreaker(Server server) {
+		String name = getName(server);
+		CircuitBreaker circuitBreaker = circuitBreakers.get(name);
+		if (circuitBreaker == null) {
+			circuitBreaker = createCircuitBreaker(name);
+			CircuitBreaker previous = circuitBreakers.putIfAbsent(name, circuitBreaker);
+			if (previous != null) {
+				circuitBreaker = previous;
+			}
+		}
+		return circuitBreaker;
+	}
+	
+	public Bulkhead getBulkhead(Server server) {
+		String name = getName(server);
+		Bulkhead bulkhead = bulkheads.get(name);
+		if (bulkhead == null) {
+			bulkhead = createBulkhead(name);
+			Bulkhead previous = bulkheads.putIfAbsent(name, bulkhead);
+			if (previous != null) {
+				bulkhead = previous;
+			}
+		}
+		return bulkhead;
+	}
+	
+	protected String getName(Server server) {
+		return server.getClass().getSimpleName() + "." + server.getName();
+	}
+	
+	protected CircuitBreaker createCircuitBreaker(String name) {
+		return new CircuitBreaker(name, FAILURE_THRESHOLD, OPEN_DURATION_MILLIS, this);
+	}
+	
+	protected Bulkhead createBulkhead(String name) {
+		return new Bulkhead(name, MAX_CONCURRENT_CALLS, BULKHEAD_MAX_WAIT_MILLIS);
+	}
+	
+	@Override
+	public void onStateTransition(CircuitBreaker circuitBreaker, CircuitBreaker.State oldState,
+			CircuitBreaker.State newState) {
+		CircuitBreakerTransition transition = new CircuitBreakerTransition(circuitBreaker.getName(), oldState, newState,
+				DateUtils.now());
+		LOGGER.info("Circuit breaker transition. " + transition);
+		synchronized (transitions) {
+			transitions.addFirst(transition);
+			if (transitions.size() > MAX_TRANSITIONS) {
+				transitions.removeLast();
+			}
+		}
+		for (CircuitBreakerListener listener : listeners) {
+			listener.onStateTransition(circuitBreaker, oldState, newState);
+		}
+	}
+	
+	public void addListener(CircuitBreakerListener listener) {
+		listeners.add(listener);
+	}
+	
+	public void removeListener(CircuitBreakerListener listener) {
+		listeners.remove(listener);
+	}
+	
+	/**
+	 * @return the most recent state transitions of all the circuit breakers, from the newest to the oldest.
+	 */
+	public List<CircuitBreakerTransition> getTransitions() {
+		synchronized (transitions) {
+			return Lists.newArrayList(transitions);
+		}
+	}
+	
+	public List<CircuitBreaker> getCircuitBreakers() {
+		return Lists.newArrayList(circuitBreakers.values());
+	}
+	
+	public List<Bulkhead> getBulkheads() {
+		return Lists.newArrayList(bulkheads.values());
+	}
+	
+	/**
+	 * Closes all the circuit breakers.
+	 */
+	public void reset() {
+		for (CircuitBreaker each : circuitBreakers.values()) {
+			each.reset();
+		}
+	}
+}
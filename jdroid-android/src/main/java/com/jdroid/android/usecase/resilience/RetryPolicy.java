@@ -0,0 +1,83 @@
+package com.jdroid.android.usecase.resilience;
+
+import com.jdroid.java.exception.ConnectionException;
+
+import java.util.Random;
+
+/**
+ * Defines how many times a failed use case execution is retried, and how long to wait between attempts. The delays
+ * grow exponentially and use full jitter (a random delay between zero and the exponential one), so the clients which
+ * failed at the same time don't retry at the same time.
+ */
+public class RetryPolicy {
+	
+	private static final Random RANDOM = new Random();
+	
+	private int maxAttempts = 3;
+	private long initialDelayMillis = 500;
+	private double multiplier = 2;
+	private long maxDelayMillis = 10000;
+	
+	/**
+	 * @param exception the exception thrown by the last attempt.
+	 * @param attempt the number of the last attempt, starting at 1.
+	 * @return whether the execution should be attempted again.
+	 */
+	public boolean shouldRetry(RuntimeException exception, int attempt) {
+		return attempt < maxAttempts && isRetryable(exception);
+	}
+	
+	/**
+	 * @param exception the exception thrown by an attempt.
+	 * @return whether the failure is transient. By default, only the {@link ConnectionException} ones are, except when
+	 * the circuit is open or the bulkhead is full, because retrying would only add load to a saturated server.
+	 */
+	protected boolean isRetryable(RuntimeException exception) {
+		return exception instanceof ConnectionException && !(exception instanceof CircuitBreakerOpenException)
+				&& !(exception instanceof BulkheadFullException);
+	}
+	
+	/**
+	 * @param attempt the number of the failed attempt, starting at 1.
+	 * @return the milliseconds to wait before the next attempt.
+	 */
+	public long getDelayMillis(int attempt) {
+		double exponentialDelay = Math.min(maxDelayMillis, initialDelayMillis * Math.pow(multiplier, attempt - 1));
+		return (long)(RANDOM.nextDouble() * exponentialDelay);
+	}
+	
+	public int getMaxAttempts() {
+		return maxAttempts;
+	}
+	
+	/**
+	 * @param maxAttempts the max amount of attempts, including the first one.
+	 */
+	public void setMaxAttempts(int maxAttempts) {
+		this.maxAttempts = maxAttempts;
+	}
+	
+	public long getInitialDelayMillis() {
+		return initialDelayMillis;
+	}
+	
+	public void setInitialDelayMillis(long initialDelayMillis) {
+		this.initialDelayMillis = initialDelayMillis;
+	}
+	
+	public double getMultiplier() {
+		return multiplier;
+	}
+	
+	public void setMultiplier(double multiplier) {
+		this.multiplier = multiplier;
+	}
+	
+	public long getMaxDelayMillis() {
+		return maxDelayMillis;
+	}
+	
+	public void setMaxDelayMillis(long maxDelayMillis) {
+		this.maxDelayMillis = maxDelayMillis;
+	}
+}
@@ -9,6 +9,8 @@ import java.security.InvalidKeyException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
 
 import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
@@ -27,7 +29,20 @@ public class AndroidEncryptionUtils {
 	private static final String SHA_ALGORITHM = "SHA-1";
 	private static final String UTF_8 = "UTF-8";
 	
-	private static String base64Key;
+	private static volatile String base64Key;
+	private static volatile SecretKeySpec secretKeySpec;
+	
+	/**
+	 * The ciphers are expensive to create (provider lookup and key setup), and are not thread safe, so each thread
+	 * keeps its own initialized instances and reuses them for all its values.
+	 */
+	private static final ThreadLocal<CipherContext> CIPHER_CONTEXT = new ThreadLocal<CipherContext>() {
+		
+		@Override
+		protected CipherContext initialValue() {
+			return new CipherContext();
+		}
+	};
 	
 	/**
 	 * Returns the data encrypted. Avoid calling this method on the UI thread if possible, since it may access to shared
@@ -38,13 +53,32 @@ public class AndroidEncryptionUtils {
 	 */
 	public static String encrypt(String cleartext) {
 		if (cleartext != null) {
-			byte[] result = doFinal(Base64.decode(getBase64Key(), Base64.DEFAULT), Cipher.ENCRYPT_MODE,
-				cleartext.getBytes());
-			return Base64.encodeToString(result, Base64.DEFAULT);
+			return encrypt(CIPHER_CONTEXT.get().getCipher(Cipher.ENCRYPT_MODE), cleartext);
 		}
 		return null;
 	}
 	
+	/**
+	 * Encrypts all the values using the same cipher. Avoid calling this method on the UI thread if possible, since it
+	 * may access to shared preferences.
+	 * 
+	 * @param cleartexts the values to encrypt. They could be null.
+	 * @return the encrypted values, in the same order.
+	 */
+	public static List<String> encrypt(List<String> cleartexts) {
+		Cipher cipher = CIPHER_CONTEXT.get().getCipher(Cipher.ENCRYPT_MODE);
+		List<String> result = new ArrayList<>(cleartexts.size());
+		for (String cleartext : cleartexts) {
+			result.add(cleartext != null ? encrypt(cipher, cleartext) : null);
+		}
+		return result;
+	}
+	
+	private static String encrypt(Cipher cipher, String cleartext) {
+		byte[] result = doFinal(cipher, cleartext.getBytes());
+		return Base64.encodeToString(result, Base64.DEFAULT);
+	}
+	
 	/**
 	 * Returns the original data. Avoid calling this method on the UI thread if possible, since it may access to shared
 	 * preferences.
@@ -54,25 +88,99 @@ public class AndroidEncryptionUtils {
 	 */
 	public static String decrypt(String base64Encrypted) {
 		if (base64Encrypted != null) {
-			byte[] enc = Base64.decode(base64Encrypted, Base64.DEFAULT);
-			byte[] result = doFinal(Base64.decode(getBase64Key(), Base64.DEFAULT), Cipher.DECRYPT_MODE, enc);
-			return new String(result);
+			return decrypt(CIPHER_CONTEXT.get().getCipher(Cipher.DECRYPT_MODE), base64Encrypted);
 		}
 		return null;
 	}
 	
-	private static byte[] doFinal(byte[] raw, int opMode, byte[] input) {
+	/**
+	 * Decrypts all the values using the same cipher. Avoid calling this method on the UI thread if possible, since it
+	 * may access to shared preferences.
+	 * 
+	 * @param base64Encrypteds the values to decrypt. They could be null.
+	 * @return the original values, in the same order.
+	 */
+	public static List<String> decrypt(List<String> base64Encrypteds) {
+		Cipher cipher = CIPHER_CONTEXT.get().getCipher(Cipher.DECRYPT_MODE);
+		List<String> result = new ArrayList<>(base64Encrypteds.size());
+		for (String base64Encrypted : base64Encrypteds) {
+			result.add(base64Encrypted != null ? decrypt(cipher, base64Encrypted) : null);
+		}
+		return result;
+	}
+	
+	private static String decrypt(Cipher cipher, String base64Encrypted) {
+		byte[] enc = Base64.decode(base64Encrypted, Base64.DEFAULT);
+		return new String(doFinal(cipher, enc));
+	}
+	
+	private static byte[] doFinal(Cipher cipher, byte[] input) {
 		try {
-			Cipher cipher = Cipher.getInstance(TRANSFORMATION);
-			SecretKeySpec skeySpec = new SecretKeySpec(raw, ALGORITHM);
-			cipher.init(opMode, skeySpec);
+			// doFinal resets the cipher to its initialized state, so it can be reused for the next value
 			return cipher.doFinal(input);
-		} catch (NoSuchAlgorithmException | NoSuchPaddingException | BadPaddingException | IllegalBlockSizeException e) {
-			throw new UnexpectedException(e);
-		} catch (InvalidKeyException e) {
+		} catch (BadPaddingException | IllegalBlockSizeException e) {
+			// The cipher state is unknown after a failure, so it is not reused
+			CIPHER_CONTEXT.get().discard(cipher);
 			throw new UnexpectedException(e);
 		}
 	}
+	
+	private static SecretKeySpec getSecretKeySpec() {
+		if (secretKeySpec == null) {
+			secretKeySpec = new SecretKeySpec(Base64.decode(getBase64Key(), Base64.DEFAULT), ALGORITHM);
+		}
+		return secretKeySpec;
+	}
+	
+	/**
+	 * Initialized ciphers confined to a thread.
+	 */
+	private static class CipherContext {
+		
+		private SecretKeySpec keySpec;
+		private Cipher encryptCipher;
+		private Cipher decryptCipher;
+		
+		public Cipher getCipher(int opMode) {
+			SecretKeySpec currentKeySpec = getSecretKeySpec();
+			if (keySpec != currentKeySpec) {
+				keySpec = currentKeySpec;
+				encryptCipher = null;
+				decryptCipher = null;
+			}
+			if (opMode == Cipher.ENCRYPT_MODE) {
+				if (encryptCipher == null) {
+					encryptCipher = createCipher(opMode, keySpec);
+				}
+				return encryptCipher;
+			} else {
+				if (decryptCipher == null) {
+					decryptCipher = createCipher(opMode, keySpec);
+				}
+				return decryptCipher;
+			}
+		}
+		
+		public void discard(Cipher cipher) {
+			if (cipher == encryptCipher) {
+				encryptCipher = null;
+			} else if (cipher == decryptCipher) {
+				decryptCipher = null;
+			}
+		}
+		
+		private static Cipher createCipher(int opMode, SecretKeySpec keySpec) {
+			try {
+				Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+				cipher.init(opMode, keySpec);
+				return cipher;
+			} catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
+				throw new UnexpectedException(e);
+			} catch (InvalidKeyException e) {
+				throw new UnexpectedException(e);
+			}
+		}
+	}
 
 	/**
 	 * Returns the encryption key stored on {@link SharedPreferences}. If the key is already on memory, it doesn't access the file system.
@@ -0,0 +1,151 @@
+package com.jdroid.android.sqlite;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+
+import com.jdroid.android.AbstractUnitTest;
+import com.jdroid.android.application.AbstractApplication;
+import com.jdroid.android.log.DatabaseLogsColumns;
+import com.jdroid.android.log.DatabaseLogsRepository;
+import com.jdroid.java.collections.Lists;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+public class SQLiteHelperTest extends AbstractUnitTest {
+
+	private static final int TRANSACTIONS_COUNT = 50;
+	private static final int ROWS_PER_TRANSACTION = 100;
+	private static final int READERS_COUNT = 3;
+
+	private SQLiteHelper dbHelper;
+
+	@Override
+	protected void onSetup() {
+		SQLiteHelper.getDatabaseFile(AbstractApplication.get()).delete();
+		dbHelper = new SQLiteHelper(AbstractApplication.get(), SQLitePerformanceProfile.createConcurrentProfile());
+		dbHelper.addCreateSQL("CREATE TABLE Sample(id INTEGER PRIMARY KEY, value TEXT);");
+	}
+
+	@After
+	public void after() {
+		dbHelper.close();
+	}
+
+	/**
+	 * Reads the table on many threads while another one writes it using transactions. The readers must never fail nor
+	 * see a partially committed transaction.
+	 */
+	@Test
+	public void concurrentReadWriteTest() throws InterruptedException {
+		final SQLiteDatabase db = dbHelper.getWritableDatabase();
+		final List<Throwable> errors = Collections.synchronizedList(Lists.<Throwable>newArrayList());
+		final AtomicBoolean writing = new AtomicBoolean(true);
+		final CountDownLatch finished = new CountDownLatch(READERS_COUNT + 1);
+
+		Thread writer = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					for (int i = 0; i < TRANSACTIONS_COUNT; i++) {
+						db.beginTransaction();
+						try {
+							for (int j = 0; j < ROWS_PER_TRANSACTION; j++) {
+								ContentValues values = new ContentValues();
+								values.put("value", "value" + j);
+								db.insertOrThrow("Sample", null, values);
+							}
+							db.setTransactionSuccessful();
+						} finally {
+							db.endTransaction();
+						}
+					}
+				} catch (Throwable e) {
+					errors.add(e);
+				} finally {
+					writing.set(false);
+					finished.countDown();
+				}
+			}
+		});
+
+		List<Thread> readers = Lists.newArrayList();
+		for (int i = 0; i < READERS_COUNT; i++) {
+			readers.add(new Thread(new Runnable() {
+
+				@Override
+				public void run() {
+					try {
+						long lastCount = 0;
+						while (writing.get()) {
+							long count = DatabaseUtils.queryNumEntries(db, "Sample");
+							if ((count % ROWS_PER_TRANSACTION != 0) || (count < lastCount)) {
+								errors.add(new AssertionError("Inconsistent count read: " + count));
+							}
+							lastCount = count;
+						}
+					} catch (Throwable e) {
+						errors.add(e);
+					} finally {
+						finished.countDown();
+					}
+				}
+			}));
+		}
+
+		writer.start();
+		for (Thread reader : readers) {
+			reader.start();
+		}
+		finished.await();
+
+		assertTrue(errors.toString(), errors.isEmpty());
+		assertEquals(TRANSACTIONS_COUNT * ROWS_PER_TRANSACTION, DatabaseUtils.queryNumEntries(db, "Sample"));
+	}
+
+	/**
+	 * On upgrade, only the declared indexes which are outdated are dropped, so the ones created by the app are kept. The
+	 * indexes of the tables which don't exist are skipped.
+	 */
+	@Test
+	public void upgradeIndexesTest() {
+		new DatabaseLogsRepository(dbHelper);
+		dbHelper.addIndexes("Missing", Lists.newArrayList(new Index("Missing_level_idx", DatabaseLogsColumns.LEVEL)));
+		SQLiteDatabase db = dbHelper.getWritableDatabase();
+		db.execSQL("CREATE INDEX Log_level_idx ON Log(level);");
+		db.execSQL("CREATE INDEX " + Index.NAME_PREFIX + "Log_message_idx ON Log(message);");
+
+		dbHelper.onUpgrade(db, 1, 2);
+
+		List<String> indexNames = getIndexNames(db);
+		assertTrue(indexNames.contains("Log_level_idx"));
+		assertTrue(indexNames.contains(Index.NAME_PREFIX + "Log_dateTime_idx"));
+		assertFalse(indexNames.contains(Index.NAME_PREFIX + "Log_message_idx"));
+		assertFalse(indexNames.contains(Index.NAME_PREFIX + "Missing_level_idx"));
+	}
+
+	private List<String> getIndexNames(SQLiteDatabase db) {
+		List<String> indexNames = Lists.newArrayList();
+		Cursor cursor = db.rawQuery("SELECT name FROM sqlite_master WHERE type = 'index'", null);
+		try {
+			while (cursor.moveToNext()) {
+				indexNames.add(cursor.getString(0));
+			}
+		} finally {
+			cursor.close();
+		}
+		return indexNames;
+	}
+}
@@ -0,0 +1,106 @@
+package com.jdroid.android.sqlite.codec;
+
+import com.jdroid.android.AbstractUnitTest;
+import com.jdroid.java.collections.Lists;
+import com.jdroid.java.collections.Maps;
+import com.jdroid.java.json.JSONObject;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
+
+public class CompactBinaryCodecTest extends AbstractUnitTest {
+	
+	private CompactBinaryCodec codec = new CompactBinaryCodec();
+	
+	@Test
+	public void roundTripTest() {
+		Map<String, Object> map = createMap();
+		
+		@SuppressWarnings("unchecked")
+		Map<String, Object> decoded = (Map<String, Object>)codec.decode(codec.encode(map));
+		assertEquals(map.size(), decoded.size());
+		assertEquals("value", decoded.get("string"));
+		assertEquals(1, decoded.get("int"));
+		assertEquals(Long.MAX_VALUE, decoded.get("long"));
+		assertEquals(1.5d, decoded.get("double"));
+		assertEquals(Boolean.TRUE, decoded.get("boolean"));
+		assertNull(decoded.get("null"));
+		assertTrue(decoded.containsKey("null"));
+		assertTrue(Arrays.equals(new byte[] { 1, 2, 3 }, (byte[])decoded.get("bytes")));
+		assertEquals(Lists.newArrayList("a", "b", 3), decoded.get("list"));
+		assertEquals("nestedValue", ((Map<?, ?>)decoded.get("map")).get("nestedKey"));
+		assertEquals("áéí", codec.decode(codec.encode("áéí")));
+	}
+	
+	@Test
+	public void numbersRoundTripTest() {
+		assertEquals((short)-3, codec.decode(codec.encode((short)-3)));
+		assertEquals((byte)-5, codec.decode(codec.encode((byte)-5)));
+		assertEquals(1.25f, codec.decode(codec.encode(1.25f)));
+		assertEquals(Integer.MIN_VALUE, codec.decode(codec.encode(Integer.MIN_VALUE)));
+	}
+	
+	/**
+	 * The nested values are prefixed with their length, which must be right also for the values longer than 127
+	 * bytes, whose length takes more than one byte.
+	 */
+	@Test
+	public void nestedRoundTripTest() {
+		List<Object> root = Lists.newArrayList();
+		List<Object> current = root;
+		for (int i = 0; i < 100; i++) {
+			List<Object> child = Lists.newArrayList();
+			child.add("value" + i);
+			current.add(child);
+			current = child;
+		}
+		
+		List<?> decoded = (List<?>)codec.decode(codec.encode(root));
+		for (int i = 0; i < 100; i++) {
+			decoded = (List<?>)decoded.get(0);
+			assertEquals("value" + i, decoded.get(0));
+		}
+	}
+	
+	/**
+	 * The binary format must be smaller than the JSON serialization used by the MAP data type.
+	 */
+	@Test
+	public void jsonSizeTest() {
+		Map<String, Object> map = createMap();
+		map.remove("bytes");
+		
+		String json = new JSONObject(map).toString();
+		byte[] bytes = codec.encode(map);
+		assertTrue(bytes.length < json.getBytes(CompactBinaryCodec.UTF_8).length);
+	}
+	
+	private Map<String, Object> createMap() {
+		Map<String, Object> nested = Maps.newHashMap();
+		nested.put("nestedKey", "nestedValue");
+		
+		List<Object> list = Lists.newArrayList();
+		list.add("a");
+		list.add("b");
+		list.add(3);
+		
+		Map<String, Object> map = Maps.newHashMap();
+		map.put("string", "value");
+		map.put("int", 1);
+		map.put("long", Long.MAX_VALUE);
+		map.put("double", 1.5d);
+		map.put("boolean", true);
+		map.put("null", null);
+		map.put("bytes", new byte[] { 1, 2, 3 });
+		map.put("list", list);
+		map.put("map", nested);
+		return map;
+	}
+}
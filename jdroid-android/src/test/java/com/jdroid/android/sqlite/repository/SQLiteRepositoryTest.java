@@ -0,0 +1,426 @@
+package com.jdroid.android.sqlite.repository;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteCursor;
+import android.database.sqlite.SQLiteCursorDriver;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteQuery;
+
+import com.jdroid.android.AbstractUnitTest;
+import com.jdroid.android.application.AbstractApplication;
+import com.jdroid.android.sqlite.Column;
+import com.jdroid.android.sqlite.DataType;
+import com.jdroid.android.sqlite.IndexedColumn;
+import com.jdroid.android.sqlite.Reference;
+import com.jdroid.android.sqlite.SQLiteHelper;
+import com.jdroid.android.sqlite.SQLitePerformanceProfile;
+import com.jdroid.java.collections.Lists;
+import com.jdroid.java.collections.Maps;
+import com.jdroid.java.utils.LoggerUtils;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+
+public class SQLiteRepositoryTest extends AbstractUnitTest {
+
+	private CountingCursorFactory cursorFactory;
+	private SQLiteHelper dbHelper;
+	private ParentRepository parentRepository;
+	private ChildRepository childRepository;
+	private RealRepository realRepository;
+	private Map<String, List<StringEntity>> loadedChildren = Maps.newHashMap();
+
+	@Override
+	protected void onSetup() {
+		SQLiteHelper.getDatabaseFile(AbstractApplication.get()).delete();
+		cursorFactory = new CountingCursorFactory();
+		dbHelper = new SQLiteHelper(AbstractApplication.get(), new SQLitePerformanceProfile(), cursorFactory);
+		childRepository = new ChildRepository(dbHelper);
+		realRepository = new RealRepository(dbHelper);
+		parentRepository = new ParentRepository(dbHelper, new BatchEntityChildrenListener<StringEntity>() {
+
+			@Override
+			public void onLoaded(List<StringEntity> items) {
+				List<String> parentIds = Lists.newArrayList();
+				for (StringEntity each : items) {
+					parentIds.add(each.getId());
+				}
+				loadedChildren.putAll(childRepository.findByParentIds(parentIds));
+			}
+
+			@Override
+			public void onLoaded(StringEntity item) {
+				throw new IllegalStateException("The children must be loaded in batch");
+			}
+
+			@Override
+			public void onStored(StringEntity item) {
+				// Do nothing
+			}
+
+			@Override
+			public void onUpdated(StringEntity item) {
+				// Do nothing
+			}
+
+			@Override
+			public void onRemoved(StringEntity item) {
+				// Do nothing
+			}
+		});
+		// Opens the database, so its PRAGMA queries are not counted
+		dbHelper.getWritableDatabase();
+		cursorFactory.reset();
+	}
+
+	@After
+	public void after() {
+		dbHelper.close();
+	}
+
+	/**
+	 * The bulk insertion must store the same rows as inserting them one by one, and it shouldn't be slower.
+	 */
+	@Test
+	public void addAllTest() {
+		int rowsCount = 5000;
+		// Warm up both paths
+		childRepository.addAll(createEntities("warmUp", 500, null));
+		addOneByOne(parentRepository, createEntities("warmUp", 500, null));
+		childRepository.removeAll();
+		parentRepository.removeAll();
+
+		List<StringEntity> entities = createEntities("id", rowsCount, "parent");
+		long start = System.nanoTime();
+		childRepository.addAll(entities);
+		long bulkTime = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		addOneByOne(parentRepository, createEntities("id", rowsCount, "parent"));
+		long oneByOneTime = System.nanoTime() - start;
+
+		assertEquals(rowsCount, childRepository.getSize().intValue());
+		List<StringEntity> bulkRows = childRepository.getAll();
+		List<StringEntity> oneByOneRows = parentRepository.getAll();
+		for (int i = 0; i < rowsCount; i++) {
+			assertEquals(oneByOneRows.get(i).getId(), bulkRows.get(i).getId());
+			assertEquals(oneByOneRows.get(i).getValue(), bulkRows.get(i).getValue());
+			assertEquals("parent", bulkRows.get(i).getParentId());
+		}
+
+		LoggerUtils.getLogger(SQLiteRepositoryTest.class).info("addAll: " + bulkTime / rowsCount + " ns/row. add: "
+				+ oneByOneTime / rowsCount + " ns/row");
+		assertTrue(bulkTime < oneByOneTime);
+	}
+
+	/**
+	 * The column indexes must be resolved once per cursor, not once per row.
+	 */
+	@Test
+	public void rowReaderTest() {
+		int rowsCount = 50000;
+		childRepository.addAll(createEntities("id", rowsCount, null));
+		cursorFactory.reset();
+
+		long start = System.nanoTime();
+		List<StringEntity> entities = childRepository.getAll();
+		long readTime = System.nanoTime() - start;
+
+		assertEquals(rowsCount, entities.size());
+		assertEquals("value" + (rowsCount - 1), entities.get(rowsCount - 1).getValue());
+		assertEquals(1, cursorFactory.queriesCount);
+		assertTrue(cursorFactory.columnIndexLookupsCount <= SampleColumns.values().length);
+		LoggerUtils.getLogger(SQLiteRepositoryTest.class).info("Read " + rowsCount + " rows: " + readTime / rowsCount
+				+ " ns/row");
+	}
+
+	/**
+	 * Loading 1000 parents must execute one query for the parents and one for each batch of 500 parents for the
+	 * children, instead of one query per parent.
+	 */
+	@Test
+	public void batchChildrenLoadingTest() {
+		int parentsCount = 1000;
+		parentRepository.addAll(createEntities("parent", parentsCount, null));
+		for (int i = 0; i < parentsCount; i++) {
+			childRepository.addAll(createEntities("child" + i + "-", 2, "parent" + i));
+		}
+		cursorFactory.reset();
+
+		List<StringEntity> parents = parentRepository.getAll();
+
+		assertEquals(parentsCount, parents.size());
+		assertEquals(3, cursorFactory.queriesCount);
+		assertEquals(parentsCount, loadedChildren.size());
+		for (List<StringEntity> children : loadedChildren.values()) {
+			assertEquals(2, children.size());
+		}
+	}
+
+	/**
+	 * Synchronizing the same items must not update them, although the text representation of their REAL values is
+	 * rounded.
+	 */
+	@Test
+	public void synchronizeRealValuesTest() {
+		int rowsCount = 10;
+		List<StringEntity> entities = Lists.newArrayList();
+		for (int i = 0; i < rowsCount; i++) {
+			StringEntity entity = new StringEntity();
+			entity.setId("id" + i);
+			entity.setValue(String.valueOf(0.1 * (i + 1)));
+			entities.add(entity);
+		}
+
+		SynchronizationResult result = realRepository.synchronize(entities);
+		assertEquals(rowsCount, result.getInsertedCount());
+
+		result = realRepository.synchronize(entities);
+		assertEquals(0, result.getUpdatedCount());
+		assertEquals(rowsCount, result.getUnchangedCount());
+
+		entities.get(0).setValue("0.2");
+		result = realRepository.synchronize(entities);
+		assertEquals(1, result.getUpdatedCount());
+		assertEquals(rowsCount - 1, result.getUnchangedCount());
+	}
+
+	private List<StringEntity> createEntities(String idPrefix, int count, String parentId) {
+		List<StringEntity> entities = Lists.newArrayList();
+		for (int i = 0; i < count; i++) {
+			StringEntity entity = new StringEntity();
+			entity.setId(idPrefix + i);
+			entity.setParentId(parentId);
+			entity.setValue("value" + i);
+			entities.add(entity);
+		}
+		return entities;
+	}
+
+	private void addOneByOne(SQLiteRepository<StringEntity> repository, List<StringEntity> entities) {
+		SQLiteDatabase db = dbHelper.getWritableDatabase();
+		db.beginTransaction();
+		try {
+			for (StringEntity each : entities) {
+				repository.add(each);
+			}
+			db.setTransactionSuccessful();
+		} finally {
+			db.endTransaction();
+		}
+	}
+
+	private static class CountingCursorFactory implements SQLiteDatabase.CursorFactory {
+
+		private int queriesCount;
+		private int columnIndexLookupsCount;
+
+		@Override
+		public Cursor newCursor(SQLiteDatabase db, SQLiteCursorDriver masterQuery, String editTable, SQLiteQuery query) {
+			queriesCount++;
+			return new SQLiteCursor(masterQuery, editTable, query) {
+
+				@Override
+				public int getColumnIndex(String columnName) {
+					columnIndexLookupsCount++;
+					return super.getColumnIndex(columnName);
+				}
+			};
+		}
+
+		public void reset() {
+			queriesCount = 0;
+			columnIndexLookupsCount = 0;
+		}
+	}
+
+	private static class ParentRepository extends StringEntityRepository {
+
+		public ParentRepository(SQLiteHelper dbHelper, EntityChildrenListener<StringEntity> entityChildrenListener) {
+			super(dbHelper, entityChildrenListener);
+		}
+
+		@Override
+		protected String getTableName() {
+			return "Parent";
+		}
+
+		@Override
+		protected Column[] getColumns() {
+			return SampleColumns.values();
+		}
+	}
+
+	private static class ChildRepository extends StringEntityRepository {
+
+		public ChildRepository(SQLiteHelper dbHelper) {
+			super(dbHelper);
+		}
+
+		@Override
+		protected String getTableName() {
+			return "Child";
+		}
+
+		@Override
+		protected Column[] getColumns() {
+			return SampleColumns.values();
+		}
+	}
+
+	private static class RealRepository extends StringEntityRepository {
+
+		public RealRepository(SQLiteHelper dbHelper) {
+			super(dbHelper);
+		}
+
+		@Override
+		protected String getTableName() {
+			return "Real";
+		}
+
+		@Override
+		protected Column[] getColumns() {
+			return RealColumns.values();
+		}
+
+		@Override
+		protected ContentValues createContentValuesFromObject(StringEntity item) {
+			ContentValues values = new ContentValues();
+			RealColumns.ID.addValue(values, item.getId());
+			RealColumns.FLOAT_VALUE.addValue(values, Float.valueOf(item.getValue()));
+			RealColumns.DOUBLE_VALUE.addValue(values, Double.valueOf(item.getValue()));
+			return values;
+		}
+	}
+
+	private enum RealColumns implements Column {
+
+		ID(Column.ID, DataType.TEXT, Column.PRIMARY_KEY),
+		FLOAT_VALUE("floatValue", DataType.FLOAT, null),
+		DOUBLE_VALUE("doubleValue", DataType.DOUBLE, null);
+
+		private String columnName;
+		private DataType dataType;
+		private String extraQualifier;
+
+		RealColumns(String columnName, DataType dataType, String extraQualifier) {
+			this.columnName = columnName;
+			this.dataType = dataType;
+			this.extraQualifier = extraQualifier;
+		}
+
+		@Override
+		public <T> void addValue(ContentValues values, T value) {
+			dataType.writeValue(values, columnName, value);
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public <E> E readValue(Cursor cursor) {
+			return (E)dataType.readValue(cursor, columnName);
+		}
+
+		@Override
+		public DataType getDataType() {
+			return dataType;
+		}
+
+		@Override
+		public String getColumnName() {
+			return columnName;
+		}
+
+		@Override
+		public String getExtraQualifier() {
+			return extraQualifier;
+		}
+
+		@Override
+		public Boolean isOptional() {
+			return false;
+		}
+
+		@Override
+		public Boolean isUnique() {
+			return false;
+		}
+
+		@Override
+		public Reference getReference() {
+			return null;
+		}
+	}
+
+	private enum SampleColumns implements IndexedColumn {
+
+		ID(Column.ID, DataType.TEXT, Column.PRIMARY_KEY, false),
+		PARENT_ID(Column.PARENT_ID, DataType.TEXT, null, true),
+		VALUE(Column.VALUE, DataType.TEXT, null, false);
+
+		private String columnName;
+		private DataType dataType;
+		private String extraQualifier;
+		private Boolean indexed;
+
+		SampleColumns(String columnName, DataType dataType, String extraQualifier, Boolean indexed) {
+			this.columnName = columnName;
+			this.dataType = dataType;
+			this.extraQualifier = extraQualifier;
+			this.indexed = indexed;
+		}
+
+		@Override
+		public <T> void addValue(ContentValues values, T value) {
+			dataType.writeValue(values, columnName, value);
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public <E> E readValue(Cursor cursor) {
+			return (E)dataType.readValue(cursor, columnName);
+		}
+
+		@Override
+		public DataType getDataType() {
+			return dataType;
+		}
+
+		@Override
+		public String getColumnName() {
+			return columnName;
+		}
+
+		@Override
+		public String getExtraQualifier() {
+			return extraQualifier;
+		}
+
+		@Override
+		public Boolean isOptional() {
+			return this == PARENT_ID;
+		}
+
+		@Override
+		public Boolean isUnique() {
+			return false;
+		}
+
+		@Override
+		public Reference getReference() {
+			return null;
+		}
+
+		@Override
+		public Boolean isIndexed() {
+			return indexed;
+		}
+	}
+}
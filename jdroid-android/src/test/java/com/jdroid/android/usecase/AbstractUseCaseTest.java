@@ -0,0 +1,230 @@
+package com.jdroid.android.usecase;
+
+import com.jdroid.android.AbstractUnitTest;
+import com.jdroid.android.application.AbstractApplication;
+import com.jdroid.android.usecase.executor.UseCaseCategory;
+import com.jdroid.android.usecase.executor.UseCaseExecutorCategory;
+import com.jdroid.android.usecase.executor.UseCaseExecutorRegistry;
+import com.jdroid.android.usecase.executor.UseCaseTask;
+import com.jdroid.android.usecase.listener.CancellableUseCaseListener;
+import com.jdroid.android.usecase.listener.MuteUseCaseListener;
+import com.jdroid.android.usecase.listener.UseCaseListener;
+import com.jdroid.android.usecase.resilience.RetryPolicy;
+import com.jdroid.java.collections.Lists;
+import com.jdroid.java.exception.AbstractException;
+import com.jdroid.java.exception.ConnectionException;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+public class AbstractUseCaseTest extends AbstractUnitTest {
+	
+	private static final int EXECUTIONS = 5000;
+	
+	/**
+	 * Registers and unregisters listeners while the use case is executed from many threads. The permanent listener must
+	 * be notified of every execution, and no notification can fail because of the concurrent modifications.
+	 */
+	@Test
+	public void listenersStressTest() throws Exception {
+		final AtomicInteger startCount = new AtomicInteger();
+		final AtomicInteger finishCount = new AtomicInteger();
+		final SampleUseCase useCase = new SampleUseCase();
+		useCase.addListener(new MuteUseCaseListener() {
+			
+			@Override
+			public void onStartUseCase() {
+				startCount.incrementAndGet();
+			}
+			
+			@Override
+			public void onFinishUseCase() {
+				finishCount.incrementAndGet();
+			}
+		});
+		
+		ExecutorService executorService = Executors.newFixedThreadPool(8);
+		List<Future<?>> futures = Lists.newArrayList();
+		for (int i = 0; i < EXECUTIONS; i++) {
+			futures.add(executorService.submit(useCase));
+		}
+		
+		List<UseCaseListener> transientListeners = Lists.newArrayList();
+		for (int i = 0; i < EXECUTIONS; i++) {
+			UseCaseListener listener = new MuteUseCaseListener();
+			transientListeners.add(listener);
+			useCase.addListener(listener);
+			if (i % 2 == 0) {
+				useCase.removeListener(transientListeners.remove(0));
+			}
+		}
+		
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		executorService.shutdown();
+		
+		assertEquals(EXECUTIONS, startCount.get());
+		assertEquals(EXECUTIONS, finishCount.get());
+		assertEquals(EXECUTIONS - EXECUTIONS / 2 + 1, useCase.getListeners().size());
+	}
+	
+	/**
+	 * A use case cancelled while it is queued is never executed, but its listeners must be notified of the cancellation.
+	 */
+	@Test
+	public void cancelBeforeStarting() throws Exception {
+		final CountDownLatch blockerStarted = new CountDownLatch(1);
+		final CountDownLatch releaseBlocker = new CountDownLatch(1);
+		BlockingUseCase blocker = new BlockingUseCase(blockerStarted, releaseBlocker);
+		UseCaseExecutorRegistry registry = AbstractApplication.get().getUseCaseExecutorRegistry();
+		UseCaseTask blockerTask = registry.execute(blocker);
+		blockerStarted.await();
+		
+		final AtomicInteger cancelCount = new AtomicInteger();
+		final QueuedUseCase useCase = new QueuedUseCase();
+		useCase.addListener(new CancellableUseCaseListener() {
+			
+			@Override
+			public void onCancelUseCase() {
+				cancelCount.incrementAndGet();
+			}
+			
+			@Override
+			public void onStartUseCase() {
+				// Do nothing
+			}
+			
+			@Override
+			public void onUpdateUseCase() {
+				// Do nothing
+			}
+			
+			@Override
+			public void onFinishFailedUseCase(AbstractException abstractException) {
+				// Do nothing
+			}
+			
+			@Override
+			public void onFinishUseCase() {
+				// Do nothing
+			}
+		});
+		UseCaseTask useCaseTask = registry.execute(useCase);
+		useCase.cancel();
+		releaseBlocker.countDown();
+		blockerTask.get(10, TimeUnit.SECONDS);
+		
+		assertTrue(useCaseTask.isCancelled());
+		assertTrue(useCase.isCancelled());
+		assertEquals(1, cancelCount.get());
+		assertFalse(useCase.executed);
+	}
+	
+	/**
+	 * The wait before retrying a failed attempt must not keep the executor thread, so the single
+	 * {@link UseCaseCategory#DB_WRITE} thread executes another use case meanwhile.
+	 */
+	@Test
+	public void retryReleasesThread() throws Exception {
+		UseCaseExecutorRegistry registry = AbstractApplication.get().getUseCaseExecutorRegistry();
+		RetriedUseCase retriedUseCase = new RetriedUseCase();
+		UseCaseTask retriedTask = registry.execute(retriedUseCase);
+		
+		QueuedUseCase useCase = new QueuedUseCase();
+		registry.execute(useCase).get(RetriedUseCase.RETRY_DELAY_MILLIS / 2, TimeUnit.MILLISECONDS);
+		assertTrue(useCase.isFinishSuccessful());
+		assertTrue(retriedUseCase.isInProgress());
+		
+		retriedTask.get(10, TimeUnit.SECONDS);
+		assertTrue(retriedUseCase.isFinishSuccessful());
+		assertEquals(2, retriedUseCase.attempts);
+	}
+	
+	private static class SampleUseCase extends AbstractUseCase {
+		
+		private static final long serialVersionUID = 4613489231470547925L;
+		
+		@Override
+		protected void doExecute() {
+			// Do nothing
+		}
+	}
+	
+	@UseCaseExecutorCategory(UseCaseCategory.DB_WRITE)
+	private static class BlockingUseCase extends AbstractUseCase {
+		
+		private static final long serialVersionUID = -7395020873520736429L;
+		
+		private CountDownLatch started;
+		private CountDownLatch release;
+		
+		public BlockingUseCase(CountDownLatch started, CountDownLatch release) {
+			this.started = started;
+			this.release = release;
+		}
+		
+		@Override
+		protected void doExecute() {
+			started.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				throw new UseCaseCancelledException("Blocker interrupted");
+			}
+		}
+	}
+	
+	@UseCaseExecutorCategory(UseCaseCategory.DB_WRITE)
+	private static class QueuedUseCase extends AbstractUseCase {
+		
+		private static final long serialVersionUID = 2204786328437010871L;
+		
+		private volatile boolean executed;
+		
+		@Override
+		protected void doExecute() {
+			executed = true;
+		}
+	}
+	
+	@UseCaseExecutorCategory(UseCaseCategory.DB_WRITE)
+	private static class RetriedUseCase extends AbstractUseCase {
+		
+		private static final long serialVersionUID = -1740936257880213553L;
+		
+		private static final long RETRY_DELAY_MILLIS = 2000;
+		
+		private volatile int attempts;
+		
+		@Override
+		protected void doExecute() {
+			attempts++;
+			if (attempts == 1) {
+				throw new ConnectionException("First attempt failed");
+			}
+		}
+		
+		@Override
+		protected RetryPolicy getRetryPolicy() {
+			return new RetryPolicy() {
+				
+				@Override
+				public long getDelayMillis(int attempt) {
+					return RETRY_DELAY_MILLIS;
+				}
+			};
+		}
+	}
+}
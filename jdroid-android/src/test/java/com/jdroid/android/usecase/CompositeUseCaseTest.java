@@ -0,0 +1,59 @@
+package com.jdroid.android.usecase;
+
+import com.jdroid.android.AbstractUnitTest;
+import com.jdroid.android.application.AbstractApplication;
+import com.jdroid.android.usecase.executor.UseCaseCategory;
+import com.jdroid.android.usecase.executor.UseCaseExecutorCategory;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+
+public class CompositeUseCaseTest extends AbstractUnitTest {
+	
+	/**
+	 * The composite and its use cases share the single thread of the {@link UseCaseCategory#DB_WRITE} executor, so the
+	 * queued use cases must be executed by the composite instead of waiting for that thread.
+	 */
+	@Test
+	public void parallelOnSingleThreadExecutor() throws Exception {
+		SampleUseCase first = new SampleUseCase();
+		SampleUseCase second = new SampleUseCase();
+		SampleUseCase third = new SampleUseCase();
+		CompositeUseCase compositeUseCase = new DbWriteCompositeUseCase(first, second, third);
+		
+		AbstractApplication.get().getUseCaseExecutorRegistry().execute(compositeUseCase).get(10, TimeUnit.SECONDS);
+		
+		assertTrue(compositeUseCase.isFinishSuccessful());
+		for (SampleUseCase useCase : new SampleUseCase[] { first, second, third }) {
+			assertTrue(useCase.isFinishSuccessful());
+			assertEquals(1, useCase.executions);
+		}
+	}
+	
+	@UseCaseExecutorCategory(UseCaseCategory.DB_WRITE)
+	private static class DbWriteCompositeUseCase extends CompositeUseCase {
+		
+		private static final long serialVersionUID = -2815302870541823937L;
+		
+		public DbWriteCompositeUseCase(AbstractUseCase... useCases) {
+			super(Mode.PARALLEL, useCases);
+		}
+	}
+	
+	@UseCaseExecutorCategory(UseCaseCategory.DB_WRITE)
+	private static class SampleUseCase extends AbstractUseCase {
+		
+		private static final long serialVersionUID = 7404911502462458118L;
+		
+		private volatile int executions;
+		
+		@Override
+		protected void doExecute() {
+			executions++;
+		}
+	}
+}
@@ -0,0 +1,137 @@
+package com.jdroid.android.usecase.executor;
+
+import com.jdroid.android.AbstractUnitTest;
+import com.jdroid.android.usecase.AbstractUseCase;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertSame;
+import static junit.framework.Assert.assertTrue;
+
+public class UseCasePriorityQueueTest extends AbstractUnitTest {
+	
+	private static final long AGING_NANOS = TimeUnit.SECONDS.toNanos(5);
+	
+	private long now;
+	private UseCasePriorityQueue queue;
+	
+	@Before
+	public void before() {
+		now = 0;
+		queue = new UseCasePriorityQueue(Integer.MAX_VALUE, AGING_NANOS) {
+			
+			@Override
+			protected long nowNanos() {
+				return now;
+			}
+		};
+	}
+	
+	@Test
+	public void priorityOrder() {
+		UseCaseTask background = offer(UseCasePriority.BACKGROUND);
+		UseCaseTask prefetch = offer(UseCasePriority.PREFETCH);
+		UseCaseTask visible1 = offer(UseCasePriority.VISIBLE);
+		UseCaseTask uiBlocking = offer(UseCasePriority.UI_BLOCKING);
+		UseCaseTask visible2 = offer(UseCasePriority.VISIBLE);
+		
+		assertEquals(5, queue.size());
+		assertSame(uiBlocking, queue.poll());
+		assertSame(visible1, queue.poll());
+		assertSame(visible2, queue.poll());
+		assertSame(prefetch, queue.poll());
+		assertSame(background, queue.poll());
+		assertNull(queue.poll());
+	}
+	
+	@Test
+	public void aging() {
+		UseCaseTask background = offer(UseCasePriority.BACKGROUND);
+		now += AGING_NANOS;
+		UseCaseTask prefetch = offer(UseCasePriority.PREFETCH);
+		UseCaseTask visible = offer(UseCasePriority.VISIBLE);
+		
+		// The background task has waited one aging interval, so it competes as prefetch, and it is older
+		assertSame(visible, queue.poll());
+		assertSame(background, queue.poll());
+		assertSame(prefetch, queue.poll());
+		
+		background = offer(UseCasePriority.BACKGROUND);
+		now += 3 * AGING_NANOS;
+		UseCaseTask uiBlocking = offer(UseCasePriority.UI_BLOCKING);
+		
+		// After three intervals, the background task is promoted to the highest priority
+		assertSame(background, queue.poll());
+		assertSame(uiBlocking, queue.poll());
+	}
+	
+	@Test
+	public void reprioritize() {
+		UseCaseTask visible = offer(UseCasePriority.VISIBLE);
+		now += 1;
+		UseCaseTask prefetch = offer(UseCasePriority.PREFETCH);
+		now += 1;
+		UseCaseTask visible2 = offer(UseCasePriority.VISIBLE);
+		
+		assertTrue(queue.reprioritize(prefetch, UseCasePriority.VISIBLE));
+		assertEquals(3, queue.size());
+		
+		// The promoted task keeps its submission time
+		assertSame(visible, queue.poll());
+		assertSame(prefetch, queue.poll());
+		assertSame(visible2, queue.poll());
+		assertEquals(0, queue.size());
+	}
+	
+	@Test
+	public void background() {
+		UseCaseTask prefetch = offer(UseCasePriority.PREFETCH);
+		now += 1;
+		UseCaseTask background = offer(UseCasePriority.BACKGROUND);
+		now += 1;
+		UseCaseTask visible = offer(UseCasePriority.VISIBLE);
+		queue.setInBackground(true);
+		
+		// The priorities are demoted, so the tasks are returned in submission order, and the prefetch is deferred
+		assertSame(background, queue.poll());
+		assertSame(visible, queue.poll());
+		assertNull(queue.poll());
+		assertEquals(1, queue.size());
+		
+		queue.setInBackground(false);
+		assertSame(prefetch, queue.poll());
+	}
+	
+	@Test
+	public void capacity() {
+		UseCasePriorityQueue boundedQueue = new UseCasePriorityQueue(1);
+		assertTrue(boundedQueue.offer(new UseCaseTask(new SampleUseCase(UseCasePriority.VISIBLE))));
+		assertEquals(false, boundedQueue.offer(new UseCaseTask(new SampleUseCase(UseCasePriority.UI_BLOCKING))));
+		assertEquals(0, boundedQueue.remainingCapacity());
+	}
+	
+	private UseCaseTask offer(UseCasePriority priority) {
+		UseCaseTask useCaseTask = new UseCaseTask(new SampleUseCase(priority));
+		assertTrue(queue.offer(useCaseTask));
+		return useCaseTask;
+	}
+	
+	private static class SampleUseCase extends AbstractUseCase {
+		
+		private static final long serialVersionUID = 1L;
+		
+		public SampleUseCase(UseCasePriority priority) {
+			setPriority(priority);
+		}
+		
+		@Override
+		protected void doExecute() {
+			// Do Nothing
+		}
+	}
+}
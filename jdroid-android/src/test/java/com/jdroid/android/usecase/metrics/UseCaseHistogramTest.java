@@ -0,0 +1,52 @@
+package com.jdroid.android.usecase.metrics;
+
+import com.jdroid.android.AbstractUnitTest;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+
+public class UseCaseHistogramTest extends AbstractUnitTest {
+	
+	@Test
+	public void buckets() {
+		long previousUpperBound = -1;
+		for (long micros = 0; micros < 100000; micros++) {
+			int index = UseCaseHistogram.getBucketIndex(micros);
+			long upperBound = UseCaseHistogram.getBucketUpperBound(index);
+			assertTrue(micros <= upperBound);
+			assertTrue(upperBound >= previousUpperBound);
+			// The relative error is lower than 1/16
+			assertTrue(upperBound - micros <= micros / 16);
+			previousUpperBound = upperBound;
+		}
+	}
+	
+	@Test
+	public void percentiles() {
+		UseCaseHistogram histogram = new UseCaseHistogram();
+		assertEquals(0, histogram.getPercentileMicros(99));
+		
+		for (int i = 1; i <= 1000; i++) {
+			histogram.record(TimeUnit.MILLISECONDS.toNanos(i));
+		}
+		
+		assertEquals(1000, histogram.getCount());
+		assertEquals(1000000, histogram.getMaxMicros());
+		assertEquals(500500, histogram.getMeanMicros());
+		assertWithinError(500000, histogram.getPercentileMicros(50));
+		assertWithinError(990000, histogram.getPercentileMicros(99));
+		assertEquals(1000000, histogram.getPercentileMicros(100));
+		
+		histogram.reset();
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getPercentileMicros(50));
+	}
+	
+	private void assertWithinError(long expected, long actual) {
+		assertTrue("Expected " + expected + " but was " + actual, actual >= expected && actual <= expected * 17 / 16);
+	}
+}
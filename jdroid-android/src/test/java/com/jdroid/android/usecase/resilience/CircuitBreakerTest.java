@@ -0,0 +1,97 @@
+package com.jdroid.android.usecase.resilience;
+
+import com.jdroid.android.AbstractUnitTest;
+import com.jdroid.java.collections.Lists;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.fail;
+
+public class CircuitBreakerTest extends AbstractUnitTest {
+	
+	private List<CircuitBreaker.State> transitions = Lists.newArrayList();
+	
+	private CircuitBreakerListener listener = new CircuitBreakerListener() {
+		
+		@Override
+		public void onStateTransition(CircuitBreaker circuitBreaker, CircuitBreaker.State oldState,
+				CircuitBreaker.State newState) {
+			transitions.add(newState);
+		}
+	};
+	
+	@Test
+	public void openAfterConsecutiveFailures() {
+		CircuitBreaker circuitBreaker = new CircuitBreaker("server", 3, 60000, listener);
+		
+		circuitBreaker.onFailure(circuitBreaker.acquirePermission());
+		circuitBreaker.onSuccess(circuitBreaker.acquirePermission());
+		for (int i = 0; i < 3; i++) {
+			assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+			circuitBreaker.onFailure(circuitBreaker.acquirePermission());
+		}
+		assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+		
+		try {
+			circuitBreaker.acquirePermission();
+			fail("The call should not be allowed");
+		} catch (CircuitBreakerOpenException e) {
+			// Expected
+		}
+		assertEquals(Lists.newArrayList(CircuitBreaker.State.OPEN), transitions);
+	}
+	
+	@Test
+	public void halfOpen() {
+		CircuitBreaker circuitBreaker = new CircuitBreaker("server", 1, 0, listener);
+		circuitBreaker.onFailure(circuitBreaker.acquirePermission());
+		
+		// Only one trial call is allowed
+		long trialPermission = circuitBreaker.acquirePermission();
+		assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+		try {
+			circuitBreaker.acquirePermission();
+			fail("The call should not be allowed");
+		} catch (CircuitBreakerOpenException e) {
+			// Expected
+		}
+		circuitBreaker.onFailure(trialPermission);
+		assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+		
+		circuitBreaker.onSuccess(circuitBreaker.acquirePermission());
+		assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+		
+		assertEquals(Lists.newArrayList(CircuitBreaker.State.OPEN, CircuitBreaker.State.HALF_OPEN,
+			CircuitBreaker.State.OPEN, CircuitBreaker.State.HALF_OPEN, CircuitBreaker.State.CLOSED), transitions);
+	}
+	
+	@Test
+	public void staleResults() {
+		CircuitBreaker circuitBreaker = new CircuitBreaker("server", 1, 0, listener);
+		long slowPermission = circuitBreaker.acquirePermission();
+		circuitBreaker.onFailure(circuitBreaker.acquirePermission());
+		assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+		
+		// The call allowed while the circuit was closed doesn't close it
+		circuitBreaker.onSuccess(slowPermission);
+		assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+		
+		// Nor ends the trial call
+		long trialPermission = circuitBreaker.acquirePermission();
+		circuitBreaker.onIgnored(slowPermission);
+		try {
+			circuitBreaker.acquirePermission();
+			fail("The call should not be allowed");
+		} catch (CircuitBreakerOpenException e) {
+			// Expected
+		}
+		
+		// An ignored trial call allows another one
+		circuitBreaker.onIgnored(trialPermission);
+		circuitBreaker.onSuccess(circuitBreaker.acquirePermission());
+		assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+	}
+}
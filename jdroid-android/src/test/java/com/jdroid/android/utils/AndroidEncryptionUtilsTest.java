@@ -0,0 +1,61 @@
+package com.jdroid.android.utils;
+
+import android.util.Base64;
+
+import com.jdroid.android.AbstractUnitTest;
+import com.jdroid.java.collections.Lists;
+import com.jdroid.java.exception.UnexpectedException;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.fail;
+
+public class AndroidEncryptionUtilsTest extends AbstractUnitTest {
+	
+	@Test
+	public void encryptDecryptTest() {
+		assertEquals("text", AndroidEncryptionUtils.decrypt(AndroidEncryptionUtils.encrypt("text")));
+		assertNull(AndroidEncryptionUtils.encrypt((String)null));
+		
+		List<String> values = Lists.newArrayList("a", null, "c");
+		assertEquals(values, AndroidEncryptionUtils.decrypt(AndroidEncryptionUtils.encrypt(values)));
+	}
+	
+	/**
+	 * The reused cipher must produce the same values than a cipher created for each value.
+	 */
+	@Test
+	public void cipherReuseTest() throws Exception {
+		AndroidEncryptionUtils.encrypt("value");
+		String base64Key = SharedPreferencesHelper.get().loadPreference("base64Key");
+		SecretKeySpec keySpec = new SecretKeySpec(Base64.decode(base64Key, Base64.DEFAULT), "AES");
+		
+		for (int i = 0; i < 100; i++) {
+			Cipher cipher = Cipher.getInstance("AES/ECB/PKCS5Padding");
+			cipher.init(Cipher.ENCRYPT_MODE, keySpec);
+			String expected = Base64.encodeToString(cipher.doFinal(("value" + i).getBytes()), Base64.DEFAULT);
+			assertEquals(expected, AndroidEncryptionUtils.encrypt("value" + i));
+		}
+	}
+	
+	/**
+	 * A failed decryption must not break the next ones.
+	 */
+	@Test
+	public void decryptFailureTest() {
+		try {
+			AndroidEncryptionUtils.decrypt(Base64.encodeToString(new byte[] { 1, 2, 3 }, Base64.DEFAULT));
+			fail("The decryption should fail");
+		} catch (UnexpectedException e) {
+			// Expected
+		}
+		assertEquals("text", AndroidEncryptionUtils.decrypt(AndroidEncryptionUtils.encrypt("text")));
+	}
+}